@@ -23,6 +23,7 @@ import com.exactpro.th2.inframgr.util.cfg.HttpCfg;
 import com.exactpro.th2.inframgr.util.cfg.K8sConfig;
 import com.exactpro.th2.inframgr.util.cfg.PrometheusConfig;
 import com.exactpro.th2.inframgr.util.cfg.RabbitMQConfig;
+import com.exactpro.th2.inframgr.util.cfg.SyncCfg;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.core.JsonParser;
@@ -68,6 +69,8 @@ public class Config {
 
     private K8sConfig kubernetes;
 
+    private SyncCfg sync;
+
     public BehaviourCfg getBehaviour() {
         return behaviour;
     }
@@ -97,6 +100,10 @@ public class Config {
         return kubernetes;
     }
 
+    public SyncCfg getSync() {
+        return sync;
+    }
+
     public void setBehaviour(BehaviourCfg behaviour) {
         this.behaviour = behaviour;
     }
@@ -126,6 +133,10 @@ public class Config {
         this.kubernetes = kubernetes;
     }
 
+    public void setSync(SyncCfg sync) {
+        this.sync = sync;
+    }
+
     private Config() {}
 
     public static Config createInstance() throws IOException {
@@ -159,6 +170,9 @@ public class Config {
             if (config.getCassandra() == null) {
                 config.setCassandra(new CassandraConfig());
             }
+            if (config.getSync() == null) {
+                config.setSync(new SyncCfg());
+            }
             if (config.getHttp() == null) {
                 throw new IllegalStateException("'http' config can't be null");
             }
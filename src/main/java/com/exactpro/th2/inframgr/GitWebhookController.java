@@ -0,0 +1,163 @@
+/*
+ * Copyright 2023 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.inframgr;
+
+import com.exactpro.th2.inframgr.errors.BadRequestException;
+import com.exactpro.th2.inframgr.errors.ServiceException;
+import com.exactpro.th2.inframgr.repository.RepositoryWatcherService;
+import com.exactpro.th2.inframgr.util.BlockingTaskExecutors;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.HexFormat;
+
+/*
+    Receives push events of GitLab and GitHub, pushed branch is checked immediately
+    instead of waiting for the next repository poll
+ */
+@RestController
+public class GitWebhookController {
+
+    private static final Logger logger = LoggerFactory.getLogger(GitWebhookController.class);
+
+    private static final String UNAUTHORIZED = "UNAUTHORIZED";
+
+    private static final String FORBIDDEN = "FORBIDDEN";
+
+    private static final String BRANCH_REF_PREFIX = "refs/heads/";
+
+    private static final String GITHUB_SIGNATURE_PREFIX = "sha256=";
+
+    private static final String GITHUB_PUSH_EVENT = "push";
+
+    private static final String GITLAB_PUSH_EVENT = "Push Hook";
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    @Autowired
+    private Config config;
+
+    @Autowired
+    private RepositoryWatcherService repositoryWatcherService;
+
+    @PostMapping("/hooks/git")
+    public ResponseEntity<Void> onPush(
+            @RequestHeader(name = "X-GitHub-Event", required = false) String githubEvent,
+            @RequestHeader(name = "X-Hub-Signature-256", required = false) String githubSignature,
+            @RequestHeader(name = "X-Gitlab-Event", required = false) String gitlabEvent,
+            @RequestHeader(name = "X-Gitlab-Token", required = false) String gitlabToken,
+            @RequestBody(required = false) String body) {
+
+        String secret = config.getGit().getWebhookSecret();
+        if (StringUtils.isEmpty(secret)) {
+            // unauthenticated callers must not be able to trigger remote requests and back off polling
+            throw new ServiceException(HttpStatus.FORBIDDEN, FORBIDDEN, "Webhooks are disabled, secret is not set");
+        }
+        if (!isValidGitlabToken(secret, gitlabToken) && !isValidGithubSignature(secret, githubSignature, body)) {
+            throw new ServiceException(HttpStatus.UNAUTHORIZED, UNAUTHORIZED, "Invalid webhook token or signature");
+        }
+
+        // other events, e.g. ping of GitHub, are only acknowledged
+        if (!(GITHUB_PUSH_EVENT.equals(githubEvent) || GITLAB_PUSH_EVENT.equals(gitlabEvent))) {
+            return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+        }
+
+        JsonNode payload;
+        try {
+            payload = mapper.readTree(StringUtils.defaultString(body));
+        } catch (IOException e) {
+            throw new BadRequestException("Invalid push event payload", e);
+        }
+        String ref = payload.path("ref").asText();
+        if (!ref.startsWith(BRANCH_REF_PREFIX)) {
+            // tags are not synchronized
+            return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+        }
+        String branch = ref.substring(BRANCH_REF_PREFIX.length());
+        String commitRef = payload.path("after").asText(null);
+        long commitTime = commitTimeOf(payload, commitRef);
+        logger.info("Received push event of branch \"{}\" [{}]", branch, commitRef);
+
+        // git hosts expect webhooks to respond quickly
+        BlockingTaskExecutors.shared().execute(() ->
+                repositoryWatcherService.checkPushedBranch(branch, commitRef, commitTime));
+        return new ResponseEntity<>(HttpStatus.ACCEPTED);
+    }
+
+    static boolean isValidGitlabToken(String secret, String token) {
+        return token != null && MessageDigest.isEqual(
+                secret.getBytes(StandardCharsets.UTF_8),
+                token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static boolean isValidGithubSignature(String secret, String signature, String body) {
+        if (signature == null || !signature.startsWith(GITHUB_SIGNATURE_PREFIX)) {
+            return false;
+        }
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            byte[] expected = mac.doFinal(StringUtils.defaultString(body).getBytes(StandardCharsets.UTF_8));
+            byte[] actual = HexFormat.of().parseHex(signature.substring(GITHUB_SIGNATURE_PREFIX.length()));
+            return MessageDigest.isEqual(expected, actual);
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return timestamp of the pushed commit: `head_commit` of GitHub
+     * or the matching entry of `commits` of GitLab, 0 if it is not present
+     */
+    private static long commitTimeOf(JsonNode payload, String commitRef) {
+        String timestamp = payload.path("head_commit").path("timestamp").asText(null);
+        if (timestamp == null) {
+            for (JsonNode commit : payload.path("commits")) {
+                if (commit.path("id").asText().equals(commitRef)) {
+                    timestamp = commit.path("timestamp").asText(null);
+                }
+            }
+        }
+        if (timestamp == null) {
+            return 0;
+        }
+        try {
+            return OffsetDateTime.parse(timestamp).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            logger.warn("Unexpected commit timestamp \"{}\" in push event", timestamp);
+            return 0;
+        }
+    }
+}
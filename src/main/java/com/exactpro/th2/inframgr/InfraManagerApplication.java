@@ -1,5 +1,5 @@
 /*
- * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
+ * Copyright 2020-2023 Exactpro (Exactpro Systems Limited)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,12 +16,15 @@
 
 package com.exactpro.th2.inframgr;
 
+import com.exactpro.th2.inframgr.util.BlockingTaskExecutors;
+import com.exactpro.th2.inframgr.util.cfg.SyncCfg;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.cassandra.CassandraAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
@@ -45,6 +48,28 @@ public class InfraManagerApplication {
 
     @Bean
     public Config config() throws IOException {
-        return Config.createInstance();
+        Config config = Config.createInstance();
+        SyncCfg sync = config.getSync();
+        BlockingTaskExecutors.setMode(sync.getExecutorMode());
+        // synchronization workers occupy their threads permanently
+        int maxThreads = Math.max(sync.getExecutorMaxThreads(), sync.getWorkerThreads() + 1);
+        if (maxThreads != sync.getExecutorMaxThreads()) {
+            LoggerFactory.getLogger(InfraManagerApplication.class).warn(
+                    "sync.executorMaxThreads is raised to {} to leave threads for tasks other than {} sync workers",
+                    maxThreads, sync.getWorkerThreads());
+        }
+        BlockingTaskExecutors.setMaxThreads(maxThreads);
+        return config;
+    }
+
+    // depends on config to make sure executor mode is already set
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> protocolHandlerCustomizer(Config config) {
+        return protocolHandler -> {
+            // controllers spend most of the time in blocking git and Kubernetes requests
+            if (BlockingTaskExecutors.getMode() == BlockingTaskExecutors.Mode.VIRTUAL) {
+                protocolHandler.setExecutor(BlockingTaskExecutors.shared());
+            }
+        };
     }
 }
@@ -19,13 +19,15 @@ package com.exactpro.th2.inframgr;
 import com.exactpro.th2.inframgr.errors.NotAcceptableException;
 import com.exactpro.th2.inframgr.errors.ServiceException;
 import com.exactpro.th2.inframgr.k8s.K8sCustomResource;
+import com.exactpro.th2.inframgr.k8s.KubernetesRateLimiter;
+import com.exactpro.th2.inframgr.k8s.KubernetesService;
+import com.exactpro.th2.inframgr.repository.BranchRegistry;
 import com.exactpro.th2.infrarepo.git.Gitter;
 import com.exactpro.th2.infrarepo.git.GitterContext;
 import com.exactpro.th2.infrarepo.repo.Repository;
 import com.exactpro.th2.infrarepo.settings.RepositorySettingsResource;
 import io.fabric8.kubernetes.api.model.Namespace;
 import io.fabric8.kubernetes.client.KubernetesClient;
-import io.fabric8.kubernetes.client.KubernetesClientBuilder;
 import io.fabric8.kubernetes.client.dsl.Resource;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
@@ -37,8 +39,6 @@ import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.ResponseBody;
 
-import java.util.Map;
-
 @Controller
 public class NamespaceController {
 
@@ -55,6 +55,9 @@ public class NamespaceController {
     @Autowired
     private Config config;
 
+    @Autowired
+    private KubernetesService kubernetesService;
+
     @DeleteMapping("/namespace/{schemaName}")
     @ResponseBody
     public String getResourceDeploymentStatuses(HttpServletRequest request,
@@ -68,9 +71,9 @@ public class NamespaceController {
 
             String namespace = config.getKubernetes().getNamespacePrefix() + schemaName;
             LOGGER.debug("Checking namespace \"{}\"", namespace);
-            try (KubernetesClient kubeClient = new KubernetesClientBuilder().build()) {
+            try (KubernetesClient kubeClient = KubernetesRateLimiter.clientBuilder().build()) {
                 Resource<Namespace> namespaceResource = kubeClient.namespaces().withName(namespace);
-                if (namespaceResource.get() == null) {
+                if (kubernetesService.getKubernetes().getNamespace(namespace) == null) {
                     throw new ServiceException(HttpStatus.GONE, NAMESPACE_DOES_NOT_EXIST,
                             "Kube doesn't contain namespace \"" + namespace +
                                     "\" related to schema \"" + schemaName + "\"");
@@ -78,9 +81,7 @@ public class NamespaceController {
 
                 LOGGER.debug("Checking branch \"{}\"", schemaName);
                 GitterContext ctx = GitterContext.getContext(config.getGit());
-                Map<String, String> commits = ctx.getAllBranchesCommits();
-
-                if (commits.containsKey(schemaName)) {
+                if (BranchRegistry.INSTANCE.contains(ctx, schemaName)) {
                     LOGGER.debug("Checking propagation for schema \"{}\"", schemaName);
                     Gitter gitter = ctx.getGitter(schemaName);
                     gitter.lock();
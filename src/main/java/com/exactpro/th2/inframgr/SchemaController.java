@@ -20,12 +20,22 @@ import com.exactpro.th2.inframgr.errors.BadRequestException;
 import com.exactpro.th2.inframgr.errors.NotAcceptableException;
 import com.exactpro.th2.inframgr.errors.ServiceException;
 import com.exactpro.th2.inframgr.k8s.K8sCustomResource;
+import com.exactpro.th2.inframgr.k8s.K8sSynchronization;
+import com.exactpro.th2.inframgr.k8s.SyncPlan;
 import com.exactpro.th2.inframgr.models.RequestEntry;
 import com.exactpro.th2.inframgr.models.RequestOperation;
 import com.exactpro.th2.inframgr.models.ResourceEntry;
+import com.exactpro.th2.inframgr.repository.BranchRegistry;
+import com.exactpro.th2.inframgr.repository.CommitSnapshots;
 import com.exactpro.th2.inframgr.repository.RepositoryUpdateEvent;
+import com.exactpro.th2.inframgr.repository.ResourceIndex;
+import com.exactpro.th2.inframgr.repository.SchemaDiff;
+import com.exactpro.th2.inframgr.repository.SnapshotCache;
+import com.exactpro.th2.inframgr.util.ETags;
 import com.exactpro.th2.inframgr.util.SchemaErrorPrinter;
+import com.exactpro.th2.inframgr.util.SchemaValidationCache;
 import com.exactpro.th2.infrarepo.InconsistentRepositoryStateException;
+import com.exactpro.th2.infrarepo.ResourceType;
 import com.exactpro.th2.infrarepo.SchemaUtils;
 import com.exactpro.th2.infrarepo.git.Gitter;
 import com.exactpro.th2.infrarepo.git.GitterContext;
@@ -33,9 +43,9 @@ import com.exactpro.th2.infrarepo.repo.Repository;
 import com.exactpro.th2.infrarepo.repo.RepositoryResource;
 import com.exactpro.th2.infrarepo.repo.RepositorySnapshot;
 import com.exactpro.th2.infrarepo.settings.RepositorySettingsSpec;
-import com.exactpro.th2.validator.SchemaValidator;
 import com.exactpro.th2.validator.ValidationReport;
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.module.kotlin.KotlinModule;
@@ -44,20 +54,33 @@ import org.eclipse.jgit.api.errors.RefNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 
 @Controller
 public class SchemaController {
@@ -72,16 +95,58 @@ public class SchemaController {
 
     public static final String SOURCE_BRANCH = "master";
 
+    private static final int DIFF_CACHE_SIZE = 64;
+
+    private static final String UPDATE_COMMIT_MESSAGE = "schema update";
+
     @Autowired
     private Config config;
 
+    @Autowired
+    private SchemaValidationCache validationCache;
+
+    @Autowired
+    private K8sSynchronization k8sSynchronization;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${GIT_FETCH_INTERVAL:14000}")
+    private long fetchIntervalMs;
+
+    private final Map<String, SerializedSchema> serializedSchemas = new ConcurrentHashMap<>();
+
+    private final Map<String, ResourceIndex> resourceIndexes = new ConcurrentHashMap<>();
+
+    private final SchemaUpdateBatcher updateBatcher = new SchemaUpdateBatcher(new SchemaUpdateBatcher.Committer() {
+        @Override
+        public List<SchemaControllerResponse> commitGroup(String schemaName,
+                                                          List<List<RequestEntry>> updates) throws Exception {
+            return SchemaController.this.commitGroup(schemaName, updates);
+        }
+
+        @Override
+        public SchemaControllerResponse commit(String schemaName, List<RequestEntry> operations) throws Exception {
+            return applyUpdate(schemaName, GitterContext.getContext(config.getGit()).getGitter(schemaName), operations);
+        }
+    });
+
+    private final Map<String, SchemaDiff> schemaDiffs = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, SchemaDiff> eldest) {
+            return size() > DIFF_CACHE_SIZE;
+        }
+    };
+
+    private record SerializedSchema(String commitRef, byte[] body) { }
+
     @GetMapping("/schemas")
     @ResponseBody
     public Set<String> getAvailableSchemas() throws ServiceException {
 
         try {
             GitterContext ctx = GitterContext.getContext(config.getGit());
-            Set<String> schemas = ctx.getBranches();
+            Set<String> schemas = new TreeSet<>(BranchRegistry.INSTANCE.getCommits(ctx).keySet());
             schemas.remove(SOURCE_BRANCH);
             return schemas;
         } catch (Exception e) {
@@ -90,8 +155,85 @@ public class SchemaController {
     }
 
     @GetMapping("/schema/{name}")
+    public ResponseEntity<byte[]> getSchemaFiles(@PathVariable(name = "name") String schemaName,
+                                                 @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                 String ifNoneMatch) {
+
+        if (schemaName.equals(SOURCE_BRANCH)) {
+            throw new NotAcceptableException(REPOSITORY_ERROR, "Not Allowed");
+        }
+
+        GitterContext ctx = GitterContext.getContext(config.getGit());
+        final Gitter gitter = ctx.getGitter(schemaName);
+        try {
+            // schema is unchanged while the head of its branch is the same commit,
+            // head which was not listed or committed within the polling interval is listed again
+            String head = BranchRegistry.INSTANCE.getFreshCommitRef(schemaName, fetchIntervalMs,
+                    System.currentTimeMillis());
+            if (head == null) {
+                head = BranchRegistry.INSTANCE.refresh(ctx).get(schemaName);
+            }
+            if (head != null && ETags.isNotModified(ifNoneMatch, eTagOf(head))) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTagOf(head)).build();
+            }
+
+            RepositorySnapshot snapshot = SnapshotCache.INSTANCE.load(gitter);
+            String eTag = eTagOf(snapshot.getCommitRef());
+            if (ETags.isNotModified(ifNoneMatch, eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+            return ResponseEntity.ok()
+                    .eTag(eTag)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(serialize(schemaName, snapshot));
+        } catch (RefNotAdvertisedException | RefNotFoundException e) {
+            throw new ServiceException(HttpStatus.NOT_FOUND, HttpStatus.NOT_FOUND.name(), "schema does not exists", e);
+        } catch (Exception e) {
+            LOGGER.error("Exception retrieving schema {} from repository", schemaName, e);
+            throw new NotAcceptableException(REPOSITORY_ERROR, e);
+        }
+    }
+
+    /**
+     * @return response body of the snapshot, it is serialized once per commit of the schema
+     */
+    private byte[] serialize(String schemaName, RepositorySnapshot snapshot) throws JsonProcessingException {
+        SerializedSchema serialized = serializedSchemas.get(schemaName);
+        if (serialized != null && serialized.commitRef().equals(snapshot.getCommitRef())) {
+            return serialized.body();
+        }
+        byte[] body = objectMapper.writeValueAsBytes(new SchemaControllerResponse(snapshot));
+        serializedSchemas.put(schemaName, new SerializedSchema(snapshot.getCommitRef(), body));
+        return body;
+    }
+
+    private static String eTagOf(String commitRef) {
+        return "\"" + commitRef + "\"";
+    }
+
+    @GetMapping("/schema/{name}/plan")
+    @ResponseBody
+    public SyncPlan getSynchronizationPlan(@PathVariable(name = "name") String schemaName) {
+
+        if (schemaName.equals(SOURCE_BRANCH)) {
+            throw new NotAcceptableException(REPOSITORY_ERROR, "Not Allowed");
+        }
+
+        try {
+            return k8sSynchronization.planBranch(schemaName);
+        } catch (RefNotAdvertisedException | RefNotFoundException e) {
+            throw new ServiceException(HttpStatus.NOT_FOUND, HttpStatus.NOT_FOUND.name(), "schema does not exists", e);
+        } catch (Exception e) {
+            LOGGER.error("Exception planning synchronization of schema {}", schemaName, e);
+            throw new ServiceException(HttpStatus.INTERNAL_SERVER_ERROR, REPOSITORY_ERROR, e);
+        }
+    }
+
+    @GetMapping("/schema/{name}/diff")
     @ResponseBody
-    public SchemaControllerResponse getSchemaFiles(@PathVariable(name = "name") String schemaName) {
+    public SchemaDiff getSchemaDiff(@PathVariable(name = "name") String schemaName,
+                                    @RequestParam(name = "from") String from,
+                                    @RequestParam(name = "to", required = false) String to) {
 
         if (schemaName.equals(SOURCE_BRANCH)) {
             throw new NotAcceptableException(REPOSITORY_ERROR, "Not Allowed");
@@ -100,15 +242,118 @@ public class SchemaController {
         GitterContext ctx = GitterContext.getContext(config.getGit());
         final Gitter gitter = ctx.getGitter(schemaName);
         try {
-            gitter.lock();
-            return new SchemaControllerResponse(Repository.getSnapshot(gitter));
+            // loading the head brings local repository up to date with the branch
+            RepositorySnapshot head = SnapshotCache.INSTANCE.load(gitter);
+            CommitSnapshots.CommitResources fromCommit = findCommit(gitter, head, from);
+            CommitSnapshots.CommitResources toCommit = findCommit(gitter, head, to == null ? head.getCommitRef() : to);
+
+            String key = schemaName + ":" + fromCommit.commitRef() + ":" + toCommit.commitRef();
+            synchronized (schemaDiffs) {
+                SchemaDiff diff = schemaDiffs.get(key);
+                if (diff != null) {
+                    return diff;
+                }
+            }
+            SchemaDiff diff = SchemaDiff.compute(
+                    fromCommit.commitRef(),
+                    fromCommit.resources(),
+                    toCommit.commitRef(),
+                    toCommit.resources(),
+                    objectMapper
+            );
+            synchronized (schemaDiffs) {
+                schemaDiffs.put(key, diff);
+            }
+            return diff;
+        } catch (ServiceException se) {
+            throw se;
+        } catch (RefNotAdvertisedException | RefNotFoundException e) {
+            throw new ServiceException(HttpStatus.NOT_FOUND, HttpStatus.NOT_FOUND.name(), "schema does not exists", e);
+        } catch (Exception e) {
+            LOGGER.error("Exception comparing commits of schema {}", schemaName, e);
+            throw new NotAcceptableException(REPOSITORY_ERROR, e);
+        }
+    }
+
+    private CommitSnapshots.CommitResources findCommit(Gitter gitter,
+                                                       RepositorySnapshot head,
+                                                       String commitRef) throws IOException {
+        CommitSnapshots.CommitResources commit =
+                CommitSnapshots.INSTANCE.load(gitter, config.getGit(), head, commitRef);
+        if (commit == null) {
+            throw new ServiceException(HttpStatus.NOT_FOUND, HttpStatus.NOT_FOUND.name(),
+                    "commit \"" + commitRef + "\" does not exist");
+        }
+        return commit;
+    }
+
+    @GetMapping("/schema/{name}/{kind}")
+    public ResponseEntity<byte[]> getSchemaResources(@PathVariable(name = "name") String schemaName,
+                                                     @PathVariable(name = "kind") String kind,
+                                                     @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                     String ifNoneMatch) {
+
+        if (ResourceType.forKind(kind) == null) {
+            throw new ServiceException(HttpStatus.NOT_FOUND, HttpStatus.NOT_FOUND.name(), "unknown resource kind");
+        }
+        ResourceIndex index = getResourceIndex(schemaName);
+        String eTag = eTagOf(index.getCommitRef());
+        if (ETags.isNotModified(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(index.getKindBody(kind));
+    }
+
+    @GetMapping("/schema/{name}/{kind}/{resource}")
+    public ResponseEntity<byte[]> getSchemaResource(@PathVariable(name = "name") String schemaName,
+                                                    @PathVariable(name = "kind") String kind,
+                                                    @PathVariable(name = "resource") String resourceName,
+                                                    @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                    String ifNoneMatch) {
+
+        ResourceIndex index = getResourceIndex(schemaName);
+        ResourceIndex.Entry entry = index.get(kind, resourceName);
+        if (entry == null) {
+            throw new ServiceException(HttpStatus.NOT_FOUND, HttpStatus.NOT_FOUND.name(), "resource does not exists");
+        }
+        // resource is unchanged while its source is the same, regardless of other commits of the schema
+        String eTag = eTagOf(entry.sourceHash() != null ? entry.sourceHash() : index.getCommitRef());
+        if (ETags.isNotModified(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(entry.body());
+    }
+
+    /**
+     * @return index of the latest commit of the schema, it is built once per commit
+     */
+    private ResourceIndex getResourceIndex(String schemaName) {
+
+        if (schemaName.equals(SOURCE_BRANCH)) {
+            throw new NotAcceptableException(REPOSITORY_ERROR, "Not Allowed");
+        }
+
+        GitterContext ctx = GitterContext.getContext(config.getGit());
+        final Gitter gitter = ctx.getGitter(schemaName);
+        try {
+            RepositorySnapshot snapshot = SnapshotCache.INSTANCE.load(gitter);
+            ResourceIndex index = resourceIndexes.get(schemaName);
+            if (index == null || !index.getCommitRef().equals(snapshot.getCommitRef())) {
+                index = ResourceIndex.build(snapshot.getCommitRef(), snapshot.getResources(), objectMapper);
+                resourceIndexes.put(schemaName, index);
+            }
+            return index;
         } catch (RefNotAdvertisedException | RefNotFoundException e) {
             throw new ServiceException(HttpStatus.NOT_FOUND, HttpStatus.NOT_FOUND.name(), "schema does not exists", e);
         } catch (Exception e) {
             LOGGER.error("Exception retrieving schema {} from repository", schemaName, e);
             throw new NotAcceptableException(REPOSITORY_ERROR, e);
-        } finally {
-            gitter.unlock();
         }
     }
 
@@ -136,8 +381,11 @@ public class SchemaController {
             RepositorySnapshot snapshot;
             try {
                 gitter.lock();
+                String head = BranchRegistry.INSTANCE.getCommitRef(schemaName);
                 gitter.createBranch(SOURCE_BRANCH);
                 snapshot = Repository.getSnapshot(gitter);
+                BranchRegistry.INSTANCE.localCommit(schemaName, snapshot.getCommitRef());
+                SnapshotCache.INSTANCE.put(schemaName, head, snapshot);
             } finally {
                 gitter.unlock();
             }
@@ -156,13 +404,11 @@ public class SchemaController {
     }
 
     private boolean schemaAlreadyExists(String schemaName, GitterContext ctx) {
-        Set<String> branches;
         try {
-            branches = ctx.getBranches();
+            return BranchRegistry.INSTANCE.contains(ctx, schemaName);
         } catch (Exception e) {
             throw new ServiceException(HttpStatus.INTERNAL_SERVER_ERROR, REPOSITORY_ERROR, e);
         }
-        return branches.contains(schemaName);
     }
 
     @PostMapping("/schema/{name}")
@@ -195,61 +441,171 @@ public class SchemaController {
                     HttpStatus.NOT_FOUND.name(), "Schema does not exist", null);
         }
 
+        long groupCommitWindowMs = config.getSync().getGroupCommitWindowMs();
+        if (groupCommitWindowMs > 0) {
+            return awaitGroupCommit(schemaName, operations, groupCommitWindowMs);
+        }
+
         //validate schema and apply updates if valid
         try {
-            final Gitter gitter = ctx.getGitter(schemaName);
-            RepositorySnapshot snapshot;
-            String commitRef;
-            try {
-                gitter.lock();
-                snapshot = Repository.getSnapshot(gitter);
-                var fullRepositoryMap = toCombinedRepositoryMap(snapshot, operations);
-                // combine recent validations and current snapshot and validate potential schema.
-                var validationContext = SchemaValidator.validate(
+            return applyUpdate(schemaName, ctx.getGitter(schemaName), operations);
+        } catch (ServiceException se) {
+            throw se;
+        } catch (Exception e) {
+            throw updateFailed(schemaName, e);
+        }
+    }
+
+    private SchemaControllerResponse applyUpdate(String schemaName,
+                                                 Gitter gitter,
+                                                 List<RequestEntry> operations) throws Exception {
+        RepositorySnapshot snapshot;
+        String commitRef;
+        try {
+            gitter.lock();
+            String head = BranchRegistry.INSTANCE.getCommitRef(schemaName);
+            snapshot = Repository.getSnapshot(gitter);
+            var fullRepositoryMap = toCombinedRepositoryMap(snapshot, operations);
+            // combine recent validations and current snapshot and validate potential schema.
+            var validationContext = validationCache.validate(
+                    schemaName,
+                    SchemaUtils.findSettingsResource(fullRepositoryMap),
+                    fullRepositoryMap
+            );
+            if (!validationContext.isValid()) {
+                // do not update repository and kubernetes if requested changes contain errors.
+                LOGGER.error("Schema \"{}\" contains errors, update request will be ignored", schemaName);
+                ValidationReport report = validationContext.getReport();
+                SchemaErrorPrinter.printErrors(report, "editor");
+                return new SchemaControllerResponse(report);
+            }
+            // continue with update if schema is validated
+            commitRef = updateRepository(gitter, operations, UPDATE_COMMIT_MESSAGE);
+            snapshot = Repository.getSnapshot(gitter);
+            if (commitRef != null) {
+                BranchRegistry.INSTANCE.localCommit(schemaName, snapshot.getCommitRef());
+            }
+            SnapshotCache.INSTANCE.put(schemaName, head, snapshot);
+        } finally {
+            gitter.unlock();
+        }
+
+        if (commitRef == null) {
+            LOGGER.info("Nothing changed, leaving");
+        } else {
+            issueRepoUpdateEvent(schemaName, snapshot);
+        }
+        return new SchemaControllerResponse(snapshot);
+    }
+
+    private SchemaControllerResponse awaitGroupCommit(String schemaName,
+                                                      List<RequestEntry> operations,
+                                                      long groupCommitWindowMs) {
+        try {
+            return updateBatcher.submit(schemaName, operations, groupCommitWindowMs).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw updateFailed(schemaName, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ServiceException se) {
+                throw se;
+            }
+            throw updateFailed(schemaName, e.getCause() instanceof Exception cause ? cause : e);
+        }
+    }
+
+    /**
+     * Commits operations of update requests collected within group commit window together.
+     * Every request is validated with the changes of earlier requests, as if they were committed separately.
+     * Requests which change nothing get the snapshot of the head before the commit, others get the new commit
+     *
+     * @return response to every request or null if operations of any request contain errors
+     */
+    private List<SchemaControllerResponse> commitGroup(String schemaName,
+                                                       List<List<RequestEntry>> updates) throws Exception {
+        final Gitter gitter = GitterContext.getContext(config.getGit()).getGitter(schemaName);
+        RepositorySnapshot previous;
+        RepositorySnapshot snapshot;
+        String commitRef;
+        boolean[] changed = new boolean[updates.size()];
+        try {
+            gitter.lock();
+            String head = BranchRegistry.INSTANCE.getCommitRef(schemaName);
+            previous = Repository.getSnapshot(gitter);
+            var fullRepositoryMap = SchemaUtils.convertToRepositoryMap(previous.getResources());
+            for (int i = 0; i < updates.size(); i++) {
+                changed[i] = applyOperations(fullRepositoryMap, updates.get(i));
+                boolean valid = validationCache.validate(
                         schemaName,
-                        config.getKubernetes().getNamespacePrefix(),
-                        config.getKubernetes().getStorageServiceUrl(),
                         SchemaUtils.findSettingsResource(fullRepositoryMap),
                         fullRepositoryMap
-                );
-                if (!validationContext.isValid()) {
-                    // do not update repository and kubernetes if requested changes contain errors.
-                    LOGGER.error("Schema \"{}\" contains errors, update request will be ignored", schemaName);
-                    ValidationReport report = validationContext.getReport();
-                    SchemaErrorPrinter.printErrors(report, "editor");
-                    return new SchemaControllerResponse(report);
+                ).isValid();
+                if (!valid) {
+                    return null;
                 }
-                // continue with update if schema is validated
-                commitRef = updateRepository(gitter, operations);
-                snapshot = Repository.getSnapshot(gitter);
-            } finally {
-                gitter.unlock();
             }
+            List<RequestEntry> operations = updates.stream().flatMap(List::stream).toList();
+            LOGGER.info("Committing {} grouped update requests of schema \"{}\"", updates.size(), schemaName);
+            commitRef = updateRepository(gitter, operations,
+                    UPDATE_COMMIT_MESSAGE + " (" + updates.size() + " requests)");
+            // the group is pushed, failures below must not lead to committing its requests again
+            snapshot = commitRef == null ? previous : pushedSnapshot(gitter, commitRef);
+            try {
+                if (commitRef != null) {
+                    BranchRegistry.INSTANCE.localCommit(schemaName, snapshot.getCommitRef());
+                }
+                SnapshotCache.INSTANCE.put(schemaName, head, snapshot);
+            } catch (Exception e) {
+                LOGGER.error("Exception caching snapshot of schema \"{}\"", schemaName, e);
+            }
+        } finally {
+            gitter.unlock();
+        }
 
-            if (commitRef == null) {
-                LOGGER.info("Nothing changed, leaving");
-            } else {
+        if (commitRef != null) {
+            try {
                 issueRepoUpdateEvent(schemaName, snapshot);
+            } catch (Exception e) {
+                LOGGER.error("Exception issuing update event of schema \"{}\", it will be detected by polling",
+                        schemaName, e);
             }
-            return new SchemaControllerResponse(snapshot);
-        } catch (ServiceException se) {
-            throw se;
+        }
+        SchemaControllerResponse unchangedResponse = new SchemaControllerResponse(previous);
+        SchemaControllerResponse changedResponse = new SchemaControllerResponse(snapshot);
+        List<SchemaControllerResponse> responses = new ArrayList<>(updates.size());
+        for (boolean requestChanged : changed) {
+            responses.add(requestChanged ? changedResponse : unchangedResponse);
+        }
+        return responses;
+    }
+
+    private static RepositorySnapshot pushedSnapshot(Gitter gitter,
+                                                     String commitRef) throws SchemaUpdateBatcher.GroupPushedException {
+        try {
+            return Repository.getSnapshot(gitter);
         } catch (Exception e) {
-            throw new ServiceException(HttpStatus.INTERNAL_SERVER_ERROR, REPOSITORY_ERROR,
-                    "Exception updating schema \"" + schemaName + "\" request", e);
+            throw new SchemaUpdateBatcher.GroupPushedException("Commit " + commitRef + " is pushed", e);
         }
     }
 
+    private static ServiceException updateFailed(String schemaName, Exception e) {
+        return new ServiceException(HttpStatus.INTERNAL_SERVER_ERROR, REPOSITORY_ERROR,
+                "Exception updating schema \"" + schemaName + "\" request", e);
+    }
+
     private void issueRepoUpdateEvent(String schemaName, RepositorySnapshot snapshot) {
         SchemaEventRouter router = SchemaEventRouter.getInstance();
         RepositoryUpdateEvent event = new RepositoryUpdateEvent(schemaName, snapshot.getCommitRef());
         RepositorySettingsSpec rs = snapshot.getRepositorySettingsSpec();
         event.setSyncingK8s(!(rs != null && (rs.isK8sPropagationDenied()
                 || rs.isK8sSynchronizationRequired())));
+        event.setUserCommit(true);
         router.addEvent(schemaName, event);
     }
 
-    private String updateRepository(Gitter gitter, List<RequestEntry> operations) throws ServiceException {
+    private String updateRepository(Gitter gitter,
+                                    List<RequestEntry> operations,
+                                    String commitMessage) throws ServiceException {
 
         String branchName = gitter.getBranch();
         try {
@@ -266,7 +622,7 @@ public class SchemaController {
                         break;
                 }
             }
-            return gitter.commitAndPush("schema update");
+            return gitter.commitAndPush(commitMessage);
 
         } catch (InconsistentRepositoryStateException e) {
             // this exception is thrown when inconsistent state of git repository is expected
@@ -318,21 +674,34 @@ public class SchemaController {
                                                                                        List<RequestEntry> operations) {
         Set<RepositoryResource> resources = snapshot.getResources();
         Map<String, Map<String, RepositoryResource>> repositoryMap = SchemaUtils.convertToRepositoryMap(resources);
+        applyOperations(repositoryMap, operations);
+        return repositoryMap;
+    }
+
+    /**
+     * @return true if any resource of the repository map is changed by the operations
+     */
+    private static boolean applyOperations(Map<String, Map<String, RepositoryResource>> repositoryMap,
+                                           List<RequestEntry> operations) {
+        boolean changed = false;
         for (RequestEntry entry : operations) {
             RequestOperation operation = entry.getOperation();
             ResourceEntry payload = entry.getPayload();
             String entryName = payload.getName();
             String entryKind = payload.getKind().kind();
             if (operation.equals(RequestOperation.add) || operation.equals(RequestOperation.update)) {
-                repositoryMap
+                RepositoryResource resource = payload.toRepositoryResource();
+                RepositoryResource previous = repositoryMap
                         .computeIfAbsent(entryKind, k -> new HashMap<>())
-                        .put(entryName, payload.toRepositoryResource());
+                        .put(entryName, resource);
+                changed |= previous == null || !Objects.equals(previous.getSpec(), resource.getSpec());
             } else if (operation.equals(RequestOperation.remove)) {
-                repositoryMap
+                RepositoryResource previous = repositoryMap
                         .computeIfAbsent(entryKind, k -> new HashMap<>())
                         .remove(entryName);
+                changed |= previous != null;
             }
         }
-        return repositoryMap;
+        return changed;
     }
 }
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2023 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.inframgr;
+
+import com.exactpro.th2.inframgr.models.RequestEntry;
+import com.exactpro.th2.inframgr.util.BlockingTaskExecutors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Collects update requests of the same schema which arrive within a short window.
+    The first request of the schema opens the window, once it is closed collected requests are committed
+    in groups. Requests which change the same resource are put into different groups in their arrival order,
+    requests of the group which can not be committed together are committed separately.
+    Once the group is pushed its requests are never committed again
+ */
+class SchemaUpdateBatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaUpdateBatcher.class);
+
+    record PendingUpdate(List<RequestEntry> operations, CompletableFuture<SchemaControllerResponse> response) {
+
+        void complete(SchemaControllerResponse result) {
+            response.complete(result);
+        }
+
+        void fail(Throwable e) {
+            response.completeExceptionally(e);
+        }
+    }
+
+    /*
+        Group commit has been pushed, but responses to its requests can not be built
+     */
+    static class GroupPushedException extends Exception {
+
+        GroupPushedException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    interface Committer {
+
+        /**
+         * Commits operations of several update requests together
+         *
+         * @param updates operations of every request of the group in arrival order
+         * @return response to every request in the same order
+         * or null if operations contain errors and requests must be committed separately
+         * @throws GroupPushedException if the group has been pushed and can not be committed again
+         * @throws Exception            if the group has not been pushed
+         */
+        List<SchemaControllerResponse> commitGroup(String schemaName, List<List<RequestEntry>> updates)
+                throws Exception;
+
+        SchemaControllerResponse commit(String schemaName, List<RequestEntry> operations) throws Exception;
+    }
+
+    private final Map<String, List<PendingUpdate>> pending = new HashMap<>();
+
+    private final Committer committer;
+
+    SchemaUpdateBatcher(Committer committer) {
+        this.committer = committer;
+    }
+
+    CompletableFuture<SchemaControllerResponse> submit(String schemaName,
+                                                       List<RequestEntry> operations,
+                                                       long windowMs) {
+        PendingUpdate update = new PendingUpdate(operations, new CompletableFuture<>());
+        synchronized (pending) {
+            List<PendingUpdate> batch = pending.get(schemaName);
+            if (batch == null) {
+                batch = new ArrayList<>();
+                pending.put(schemaName, batch);
+                CompletableFuture.delayedExecutor(windowMs, TimeUnit.MILLISECONDS, BlockingTaskExecutors.shared())
+                        .execute(() -> flush(schemaName));
+            }
+            batch.add(update);
+        }
+        return update.response();
+    }
+
+    /**
+     * Splits updates into groups which do not change the same resource twice.
+     * Update is deferred to one of the next groups if any of its resources is changed by an earlier update
+     * of the current group or by an earlier deferred update, so changes of every resource keep arrival order
+     */
+    static List<List<PendingUpdate>> split(List<PendingUpdate> updates) {
+        List<List<PendingUpdate>> groups = new ArrayList<>();
+        List<PendingUpdate> remaining = updates;
+        while (!remaining.isEmpty()) {
+            List<PendingUpdate> group = new ArrayList<>();
+            List<PendingUpdate> deferred = new ArrayList<>();
+            Set<String> claimedResources = new HashSet<>();
+            for (PendingUpdate update : remaining) {
+                List<String> resources = update.operations().stream().map(SchemaUpdateBatcher::resourceKey).toList();
+                if (resources.stream().noneMatch(claimedResources::contains)) {
+                    group.add(update);
+                } else {
+                    deferred.add(update);
+                }
+                claimedResources.addAll(resources);
+            }
+            groups.add(group);
+            remaining = deferred;
+        }
+        return groups;
+    }
+
+    private void flush(String schemaName) {
+        List<PendingUpdate> batch;
+        synchronized (pending) {
+            batch = pending.remove(schemaName);
+        }
+        try {
+            for (List<PendingUpdate> group : split(batch)) {
+                commitGroup(schemaName, group);
+            }
+        } finally {
+            batch.stream()
+                    .filter(update -> !update.response().isDone())
+                    .forEach(update -> update.fail(new IllegalStateException("Update request was not processed")));
+        }
+    }
+
+    private void commitGroup(String schemaName, List<PendingUpdate> group) {
+        if (group.size() == 1) {
+            commitSeparately(schemaName, group.get(0));
+            return;
+        }
+        List<SchemaControllerResponse> responses;
+        try {
+            responses = committer.commitGroup(schemaName, group.stream().map(PendingUpdate::operations).toList());
+        } catch (GroupPushedException e) {
+            logger.error("Grouped updates of schema \"{}\" have been pushed, but can not be reported", schemaName, e);
+            group.forEach(update -> update.fail(e.getCause()));
+            return;
+        } catch (Exception e) {
+            // group has not been pushed, requests which can be committed on their own must not fail with it
+            logger.error("Exception committing grouped updates of schema \"{}\", committing them separately",
+                    schemaName, e);
+            group.forEach(update -> commitSeparately(schemaName, update));
+            return;
+        }
+        if (responses == null) {
+            // every request gets its own validation report and valid ones are still committed
+            logger.info("Grouped update requests of schema \"{}\" contain errors, committing them separately",
+                    schemaName);
+            group.forEach(update -> commitSeparately(schemaName, update));
+            return;
+        }
+        for (int i = 0; i < group.size(); i++) {
+            group.get(i).complete(responses.get(i));
+        }
+    }
+
+    private void commitSeparately(String schemaName, PendingUpdate update) {
+        try {
+            update.complete(committer.commit(schemaName, update.operations()));
+        } catch (Exception e) {
+            update.fail(e);
+        }
+    }
+
+    private static String resourceKey(RequestEntry entry) {
+        return entry.getPayload().getKind().kind() + "/" + entry.getPayload().getName();
+    }
+}
@@ -22,15 +22,16 @@ import com.exactpro.th2.inframgr.errors.ServiceException;
 import com.exactpro.th2.inframgr.models.RequestEntry;
 import com.exactpro.th2.inframgr.models.RequestOperation;
 import com.exactpro.th2.inframgr.models.ResourceEntry;
+import com.exactpro.th2.inframgr.repository.BranchRegistry;
+import com.exactpro.th2.inframgr.repository.SnapshotCache;
+import com.exactpro.th2.inframgr.util.SchemaValidationCache;
 import com.exactpro.th2.inframgr.util.cfg.GitCfg;
 import com.exactpro.th2.infrarepo.SchemaUtils;
 import com.exactpro.th2.infrarepo.git.Gitter;
 import com.exactpro.th2.infrarepo.git.GitterContext;
-import com.exactpro.th2.infrarepo.repo.Repository;
 import com.exactpro.th2.infrarepo.repo.RepositoryResource;
 import com.exactpro.th2.infrarepo.repo.RepositorySnapshot;
 import com.exactpro.th2.validator.SchemaValidationContext;
-import com.exactpro.th2.validator.SchemaValidator;
 import com.exactpro.th2.validator.ValidationReport;
 import com.exactpro.th2.validator.errormessages.BoxResourceErrorMessage;
 import com.exactpro.th2.validator.errormessages.LinkErrorMessage;
@@ -63,6 +64,9 @@ public class SchemaValidationController {
     @Autowired
     private Config config;
 
+    @Autowired
+    private SchemaValidationCache validationCache;
+
     @PostMapping("/validation/{schemaName}")
     @ResponseBody
     public String validateRequestedSchema(
@@ -75,10 +79,8 @@ public class SchemaValidationController {
         }
 
         var fullRepositoryMap = toRepositoryMap(allResourcesStr);
-        SchemaValidationContext validationContext = SchemaValidator.validate(
+        SchemaValidationContext validationContext = validationCache.validate(
                 schemaName,
-                config.getKubernetes().getNamespacePrefix(),
-                config.getKubernetes().getStorageServiceUrl(),
                 SchemaUtils.findSettingsResource(fullRepositoryMap),
                 fullRepositoryMap
         );
@@ -157,10 +159,8 @@ public class SchemaValidationController {
         var fullRepositoryMap = toRepositoryMap(operations);
 
         if (request.fullSchema) {
-            return SchemaValidator.validate(
+            return validationCache.validate(
                     schemaName,
-                    config.getKubernetes().getNamespacePrefix(),
-                    config.getKubernetes().getStorageServiceUrl(),
                     SchemaUtils.findSettingsResource(fullRepositoryMap),
                     fullRepositoryMap);
         }
@@ -170,34 +170,26 @@ public class SchemaValidationController {
         GitterContext ctx = GitterContext.getContext(gitConfig);
 
         // check if the schema exists
-        Set<String> branches;
+        boolean schemaExists;
         try {
-            branches = ctx.getBranches();
+            schemaExists = BranchRegistry.INSTANCE.contains(ctx, schemaName);
         } catch (Exception e) {
             throw new ServiceException(HttpStatus.INTERNAL_SERVER_ERROR, REPOSITORY_ERROR, e);
         }
-        if (!branches.contains(schemaName)) {
+        if (!schemaExists) {
             throw new ServiceException(HttpStatus.NOT_FOUND, HttpStatus.NOT_FOUND.name(), "schema does not exists");
         }
 
         //validate combined schema
         try {
             final Gitter gitter = ctx.getGitter(schemaName);
-            RepositorySnapshot snapshot;
-            try {
-                gitter.lock();
-                snapshot = Repository.getSnapshot(gitter);
-                var combinedRepositoryMap = toCombinedRepositoryMap(snapshot, operations);
-                validationContext = SchemaValidator.validate(
-                        schemaName,
-                        config.getKubernetes().getNamespacePrefix(),
-                        config.getKubernetes().getStorageServiceUrl(),
-                        SchemaUtils.findSettingsResource(combinedRepositoryMap),
-                        combinedRepositoryMap
-                );
-            } finally {
-                gitter.unlock();
-            }
+            RepositorySnapshot snapshot = SnapshotCache.INSTANCE.load(gitter);
+            var combinedRepositoryMap = toCombinedRepositoryMap(snapshot, operations);
+            validationContext = validationCache.validate(
+                    schemaName,
+                    SchemaUtils.findSettingsResource(combinedRepositoryMap),
+                    combinedRepositoryMap
+            );
             return validationContext;
         } catch (Exception e) {
             logger.error("Exception updating schema \"{}\" request", schemaName, e);
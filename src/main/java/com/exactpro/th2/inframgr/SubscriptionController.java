@@ -1,5 +1,5 @@
 /*
- * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
+ * Copyright 2020-2023 Exactpro (Exactpro Systems Limited)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,7 @@ package com.exactpro.th2.inframgr;
 import com.exactpro.th2.inframgr.repository.RepositoryUpdateEvent;
 import com.exactpro.th2.inframgr.statuswatcher.StatusCache;
 import com.exactpro.th2.inframgr.statuswatcher.StatusUpdateEvent;
+import com.exactpro.th2.inframgr.util.BlockingTaskExecutors;
 import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,13 +31,14 @@ import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import rx.schedulers.Schedulers;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 @Controller
 public class SubscriptionController {
@@ -52,8 +54,6 @@ public class SubscriptionController {
 
     private static final Map<String, EventSubscription> subscriptions = new ConcurrentHashMap<>();
 
-    private static final ForkJoinPool pool = new ForkJoinPool(8);
-
     private static class EventSubscription {
 
         String schema;
@@ -86,12 +86,16 @@ public class SubscriptionController {
 
         // filter out and send event to all subscriptions to this event schema
         try {
-            pool.submit(() -> {
-                subscriptions.entrySet().stream()
-                        .filter(entry -> event.getSchema().equals(entry.getValue().schema))
-                        .parallel()
-                        .forEach(entry -> sendEvent(event, entry.getValue().emitter, entry.getKey()));
-            }).get();
+            ExecutorService executor = BlockingTaskExecutors.shared();
+            List<Future<?>> sent = new ArrayList<>();
+            subscriptions.forEach((subscriptionId, subscription) -> {
+                if (event.getSchema().equals(subscription.schema)) {
+                    sent.add(executor.submit(() -> sendEvent(event, subscription.emitter, subscriptionId)));
+                }
+            });
+            for (Future<?> future : sent) {
+                future.get();
+            }
         } catch (Exception e) {
             logger.warn("Exception processing events", e);
         }
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2023 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.inframgr;
+
+import com.exactpro.th2.inframgr.k8s.SyncRun;
+import com.exactpro.th2.inframgr.k8s.SyncRunHistory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+public class SyncHistoryController {
+
+    @Autowired
+    private SyncRunHistory syncRunHistory;
+
+    @GetMapping("/sync/history")
+    public List<SyncRun> getHistory() {
+        return syncRunHistory.getRuns(null);
+    }
+
+    @GetMapping("/sync/history/{schemaName}")
+    public List<SyncRun> getSchemaHistory(@PathVariable(name = "schemaName") String schemaName) {
+        return syncRunHistory.getRuns(schemaName);
+    }
+}
@@ -24,6 +24,7 @@ import com.exactpro.th2.inframgr.docker.util.SpecUtils;
 import com.exactpro.th2.inframgr.docker.util.VersionNumberUtils;
 import com.exactpro.th2.inframgr.k8s.Kubernetes;
 import com.exactpro.th2.inframgr.k8s.KubernetesService;
+import com.exactpro.th2.inframgr.k8s.ShardCoordinator;
 import com.exactpro.th2.inframgr.statuswatcher.ResourcePath;
 import com.exactpro.th2.infrarepo.ResourceType;
 import com.exactpro.th2.infrarepo.repo.RepositoryResource;
@@ -52,6 +53,9 @@ public class DynamicResourceProcessor {
     @Autowired
     private KubernetesService kubernetesService;
 
+    @Autowired
+    private ShardCoordinator shardCoordinator;
+
     private static final List<String> monitoredKinds = List.of(
             ResourceType.Th2Box.kind(),
             ResourceType.Th2CoreBox.kind(),
@@ -160,7 +164,8 @@ public class DynamicResourceProcessor {
                 config,
                 REGISTRY_CHECK_INITIAL_DELAY_SECONDS,
                 REGISTRY_CHECK_PERIOD_SECONDS,
-                registryConnection
+                registryConnection,
+                shardCoordinator::owns
         );
     }
 }
@@ -19,12 +19,14 @@ package com.exactpro.th2.inframgr.docker.monitoring.watcher;
 import com.exactpro.th2.inframgr.Config;
 import com.exactpro.th2.inframgr.docker.RegistryConnection;
 import com.exactpro.th2.inframgr.docker.monitoring.DynamicResourcesCache;
+import com.exactpro.th2.inframgr.util.BlockingTaskExecutors;
 import com.exactpro.th2.inframgr.util.cfg.GitCfg;
 import com.exactpro.th2.infrarepo.git.GitterContext;
 
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 
 public class RegistryWatcher implements Runnable {
 
@@ -42,10 +44,21 @@ public class RegistryWatcher implements Runnable {
 
     private final Config config;
 
+    private final Predicate<String> schemaFilter;
+
     private GitterContext ctx;
 
     public RegistryWatcher(Config config, long initialDelay, long repeatPeriod, RegistryConnection connection) {
+        this(config, initialDelay, repeatPeriod, connection, schema -> true);
+    }
+
+    public RegistryWatcher(Config config,
+                           long initialDelay,
+                           long repeatPeriod,
+                           RegistryConnection connection,
+                           Predicate<String> schemaFilter) {
         this.config = config;
+        this.schemaFilter = schemaFilter;
         this.taskScheduler = new ScheduledThreadPoolExecutor(THREAD_POOL_SIZE_SCHEDULER);
         this.initialDelay = initialDelay;
         this.repeatPeriod = repeatPeriod;
@@ -67,12 +80,15 @@ public class RegistryWatcher implements Runnable {
     @Override
     public void run() {
         for (String schema : DYNAMIC_RESOURCES_CACHE.getSchemas()) {
-            new Thread(new SchemaJob(
+            if (!schemaFilter.test(schema)) {
+                continue;
+            }
+            BlockingTaskExecutors.shared().execute(new SchemaJob(
                     DYNAMIC_RESOURCES_CACHE.getDynamicResourcesCopy(schema),
                     connection,
                     ctx.getGitter(schema),
                     schema
-            )).start();
+            ));
 
         }
     }
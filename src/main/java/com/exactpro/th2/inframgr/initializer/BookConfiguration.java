@@ -1,5 +1,5 @@
 /*
- * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
+ * Copyright 2020-2023 Exactpro (Exactpro Systems Limited)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,6 +23,7 @@ import io.fabric8.kubernetes.api.model.ConfigMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.HashMap;
 import java.util.Map;
 
 import static com.exactpro.th2.inframgr.initializer.SchemaInitializer.BOOK_CONFIG_CM_NAME;
@@ -33,6 +34,34 @@ public class BookConfiguration {
 
     private static final String DEFAULT_BOOK = "defaultBook";
 
+    /**
+     * @return data which synchronization of book config would write or null if it would not change the config map
+     */
+    public static Map<String, String> expectedBookConfigData(BookConfig bookConfig, Kubernetes kube) {
+        ConfigMap defaultConfigMap = kube.currentNamespace().getConfigMap(BOOK_CONFIG_CM_NAME);
+        if (defaultConfigMap == null || defaultConfigMap.getData() == null) {
+            return null;
+        }
+        String expectedBook = bookConfig == null || bookConfig.getDefaultBook() == null
+                ? defaultConfigMap.getData().get(DEFAULT_BOOK)
+                : bookConfig.getDefaultBook();
+        ConfigMap configMapInSchemaNamespace = kube.getConfigMap(BOOK_CONFIG_CM_NAME);
+        Map<String, String> expectedData;
+        if (configMapInSchemaNamespace == null || configMapInSchemaNamespace.getData() == null) {
+            // config map is copied from the default namespace first
+            expectedData = new HashMap<>(defaultConfigMap.getData());
+        } else if (expectedBook == null
+                || expectedBook.equals(configMapInSchemaNamespace.getData().get(DEFAULT_BOOK))) {
+            return null;
+        } else {
+            expectedData = new HashMap<>(configMapInSchemaNamespace.getData());
+        }
+        if (expectedBook != null) {
+            expectedData.put(DEFAULT_BOOK, expectedBook);
+        }
+        return expectedData;
+    }
+
     public static void synchronizeBookConfig(BookConfig bookConfig, Kubernetes kube, String fullCommitRef) {
         String namespace = kube.getNamespaceName();
         String resourceLabel = ResourcePath.annotationFor(namespace, Kubernetes.KIND_CONFIGMAP, BOOK_CONFIG_CM_NAME);
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2023 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.inframgr.initializer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+    Fingerprints of inputs of the SchemaInitializer steps which were last successfully applied to namespaces.
+    Step is skipped while its inputs have the same fingerprint and the fingerprint has not expired
+ */
+public enum InitializerFingerprints {
+    INSTANCE;
+
+    private static final class Fingerprint {
+
+        private final String value;
+
+        private final long time;
+
+        private Fingerprint(String value, long time) {
+            this.value = value;
+            this.time = time;
+        }
+    }
+
+    private final Map<String, Map<String, Fingerprint>> namespaces = new ConcurrentHashMap<>();
+
+    boolean isUpToDate(String namespace, String step, String fingerprint, long ttlMs) {
+        if (ttlMs <= 0 || fingerprint == null) {
+            return false;
+        }
+        Map<String, Fingerprint> steps = namespaces.get(namespace);
+        Fingerprint applied = steps == null ? null : steps.get(step);
+        return applied != null
+                && applied.value.equals(fingerprint)
+                && System.currentTimeMillis() - applied.time < ttlMs;
+    }
+
+    void update(String namespace, String step, String fingerprint) {
+        namespaces.computeIfAbsent(namespace, key -> new ConcurrentHashMap<>())
+                .put(step, new Fingerprint(fingerprint, System.currentTimeMillis()));
+    }
+
+    public void invalidate(String namespace) {
+        namespaces.remove(namespace);
+    }
+
+    public void invalidate(String namespace, String step) {
+        Map<String, Fingerprint> steps = namespaces.get(namespace);
+        if (steps != null) {
+            steps.remove(step);
+        }
+    }
+}
@@ -23,6 +23,7 @@ import io.fabric8.kubernetes.api.model.ConfigMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.HashMap;
 import java.util.Map;
 
 import static com.exactpro.th2.inframgr.statuswatcher.ResourcePath.annotationFor;
@@ -37,7 +38,7 @@ public class LoggingConfigMap {
 
     private static final String LOGGING_CONFIGMAP_PARAM = "logging";
 
-    private static final String LOGGING_CONFIGMAP_NAME_IN_NAMESPACE = "logging-config";
+    public static final String LOGGING_CONFIGMAP_NAME_IN_NAMESPACE = "logging-config";
 
     private static final String TH2_LOGGING_JSON_KEY = "logLevelTh2";
 
@@ -132,31 +133,8 @@ public class LoggingConfigMap {
         }
 
         // copy config map with updated log level value to namespace
-        Map<String, String> cmData = cm.getData();
         try {
-            for (String key : cmData.keySet()) {
-                String data = cmData.get(key);
-
-                if (data.contains(LOGGING_ROOT_PATH_SUBSTRING)) {
-                    data = data.replace(LOGGING_ROOT_PATH_SUBSTRING, logLevelRoot);
-                }
-                if (data.contains(LOGGING_CXX_PATH_SUBSTRING)) {
-                    data = data.replace(LOGGING_CXX_PATH_SUBSTRING, logLevelTh2);
-                }
-                if (data.contains(LOGGING_PYTHON_PATH_SUBSTRING)) {
-                    data = data.replace(LOGGING_PYTHON_PATH_SUBSTRING, pythonMap.get(logLevelTh2));
-                }
-                if (data.contains(LOGGING_JAVA_PATH_SUBSTRING)) {
-                    data = data.replace(LOGGING_JAVA_PATH_SUBSTRING, logLevelTh2);
-                }
-                if (data.contains(LOGGING_GO_PATH_SUBSTRING)) {
-                    data = data.replace(LOGGING_GO_PATH_SUBSTRING, goMap.get(logLevelTh2));
-                }
-                cmData.put(key, data);
-            }
-            cmData.put(TH2_LOGGING_JSON_KEY, logLevelTh2 + "\n");
-            cmData.put(ROOT_LOGGING_JSON_KEY, logLevelRoot + "\n");
-
+            cm.setData(renderLoggingData(cm.getData(), logLevelRoot, logLevelTh2));
             cm.setMetadata(Kubernetes.createMetadataWithPreviousAnnotations(
                     LOGGING_CONFIGMAP_NAME_IN_NAMESPACE,
                     resourceLabel,
@@ -171,6 +149,66 @@ public class LoggingConfigMap {
         }
     }
 
+    /**
+     * @return data which copying of logging config map would write or null if it would not change the config map
+     */
+    public static Map<String, String> expectedLoggingConfigMapData(K8sConfig kubeConfig,
+                                                                   String logLevelRoot,
+                                                                   String logLevelTh2,
+                                                                   Kubernetes kube) {
+        String configMapName = getLoggingConfigMapName(kubeConfig);
+        if (configMapName == null || configMapName.isEmpty()) {
+            return null;
+        }
+        ConfigMap cm = kube.currentNamespace().getConfigMap(configMapName);
+        if (cm == null || cm.getData() == null) {
+            return null;
+        }
+        ConfigMap configMap = kube.getConfigMap(LOGGING_CONFIGMAP_NAME_IN_NAMESPACE);
+        if (configMap != null && configMap.getData() != null
+                && (logLevelTh2 + "\n").equals(configMap.getData().get(TH2_LOGGING_JSON_KEY))
+                && (logLevelRoot + "\n").equals(configMap.getData().get(ROOT_LOGGING_JSON_KEY))) {
+            return null;
+        }
+        return renderLoggingData(cm.getData(), logLevelRoot, logLevelTh2);
+    }
+
+    private static Map<String, String> renderLoggingData(Map<String, String> sourceData,
+                                                         String logLevelRoot,
+                                                         String logLevelTh2) {
+        Map<String, String> cmData = new HashMap<>();
+        for (Map.Entry<String, String> entry : sourceData.entrySet()) {
+            String data = entry.getValue();
+
+            if (data.contains(LOGGING_ROOT_PATH_SUBSTRING)) {
+                data = data.replace(LOGGING_ROOT_PATH_SUBSTRING, logLevelRoot);
+            }
+            if (data.contains(LOGGING_CXX_PATH_SUBSTRING)) {
+                data = data.replace(LOGGING_CXX_PATH_SUBSTRING, logLevelTh2);
+            }
+            if (data.contains(LOGGING_PYTHON_PATH_SUBSTRING)) {
+                data = data.replace(LOGGING_PYTHON_PATH_SUBSTRING, pythonMap.get(logLevelTh2));
+            }
+            if (data.contains(LOGGING_JAVA_PATH_SUBSTRING)) {
+                data = data.replace(LOGGING_JAVA_PATH_SUBSTRING, logLevelTh2);
+            }
+            if (data.contains(LOGGING_GO_PATH_SUBSTRING)) {
+                data = data.replace(LOGGING_GO_PATH_SUBSTRING, goMap.get(logLevelTh2));
+            }
+            cmData.put(entry.getKey(), data);
+        }
+        cmData.put(TH2_LOGGING_JSON_KEY, logLevelTh2 + "\n");
+        cmData.put(ROOT_LOGGING_JSON_KEY, logLevelRoot + "\n");
+        return cmData;
+    }
+
+    /**
+     * @return true if config map of infra-mgr namespace is the source of logging config map
+     */
+    public static boolean isLoggingConfigMapSource(K8sConfig kubeConfig, String configMapName) {
+        return configMapName.equals(getLoggingConfigMapName(kubeConfig));
+    }
+
     private static String getLoggingConfigMapName(K8sConfig kubeConfig) {
         return kubeConfig.getConfigMaps().get(LOGGING_CONFIGMAP_PARAM);
     }
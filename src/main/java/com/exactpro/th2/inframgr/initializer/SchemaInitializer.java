@@ -21,7 +21,9 @@ import com.exactpro.th2.inframgr.k8s.K8sResourceCache;
 import com.exactpro.th2.inframgr.k8s.Kubernetes;
 import com.exactpro.th2.inframgr.k8s.SchemaRecoveryTask;
 import com.exactpro.th2.inframgr.k8s.SecretsManager;
+import com.exactpro.th2.inframgr.k8s.SourceResourceCache;
 import com.exactpro.th2.inframgr.k8s.cr.ServiceMonitor;
+import com.exactpro.th2.inframgr.util.BlockingTaskExecutors;
 import com.exactpro.th2.inframgr.util.RetryableTaskQueue;
 import com.exactpro.th2.inframgr.util.cfg.CassandraConfig;
 import com.exactpro.th2.inframgr.util.cfg.RabbitMQConfig;
@@ -41,15 +43,26 @@ import org.apache.commons.text.RandomStringGenerator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Base64;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
 
 import static com.exactpro.th2.inframgr.k8s.Kubernetes.KIND_SERVICE_MONITOR;
 import static com.exactpro.th2.inframgr.k8s.Kubernetes.createMetaDataWithNewAnnotations;
 import static com.exactpro.th2.inframgr.k8s.Kubernetes.createMetadataWithPreviousAnnotations;
 import static com.exactpro.th2.inframgr.statuswatcher.ResourcePath.annotationFor;
+import static com.exactpro.th2.inframgr.util.AnnotationUtils.digest;
 import static com.exactpro.th2.inframgr.util.AnnotationUtils.setSourceHash;
 
 public class SchemaInitializer {
@@ -83,6 +96,8 @@ public class SchemaInitializer {
 
     public static final String BOOK_CONFIG_CM_NAME = "book-config";
 
+    public static final String CUSTOM_SECRETS_STEP = "customSecrets";
+
     private static final String RABBITMQ_JSON_KEY = "rabbitMQ.json";
 
     private static final String RABBITMQ_JSON_VHOST_KEY = "vHost";
@@ -112,7 +127,10 @@ public class SchemaInitializer {
         FORCE
     }
 
-    public static void ensureSchema(Config config, Kubernetes schemaKube) {
+    /**
+     * @param cradle cradle settings of the schema, loaded from the repository if null
+     */
+    public static void ensureSchema(Config config, Kubernetes schemaKube, CradleConfig cradle) {
         Objects.requireNonNull(schemaKube.getSchemaName(), "Kubernetes client is anonymous");
         switch (config.getKubernetes().getSchemaSyncMode()) {
             case CHECK_NAMESPACE:
@@ -128,62 +146,259 @@ public class SchemaInitializer {
                     }
                     return;
                 }
-                ensureNameSpace(config, schemaKube, false);
+                ensureNameSpace(config, schemaKube, cradle, false);
                 break;
             case CHECK_RESOURCES:
-                ensureNameSpace(config, schemaKube, false);
+                ensureNameSpace(config, schemaKube, cradle, false);
                 break;
             case FORCE:
-                ensureNameSpace(config, schemaKube, true);
+                ensureNameSpace(config, schemaKube, cradle, true);
                 break;
         }
         K8sResourceCache.INSTANCE.addNamespace(schemaKube.getNamespaceName());
     }
 
-    private static void ensureNameSpace(Config config, Kubernetes schemaKube, boolean forceUpdate) {
+    private static void ensureNameSpace(Config config,
+                                        Kubernetes schemaKube,
+                                        CradleConfig cradle,
+                                        boolean forceUpdate) {
+        String namespace = schemaKube.getNamespaceName();
         if (!schemaKube.existsNamespace()) {
             // namespace not found, create it
-            logger.info("Creating namespace \"{}\"", schemaKube.getNamespaceName());
+            logger.info("Creating namespace \"{}\"", namespace);
             schemaKube.createNamespace();
+            InitializerFingerprints.INSTANCE.invalidate(namespace);
         }
+        runSteps(config, namespace, buildSteps(config, schemaKube, cradle, forceUpdate));
+    }
 
-        // copy Th2BoxConfigurations config maps
-        copyConfigMap(schemaKube, MQ_ROUTER_CM_NAME, forceUpdate);
-        copyConfigMap(schemaKube, GRPC_ROUTER_CM_NAME, forceUpdate);
-        copyConfigMap(schemaKube, CRADLE_MANAGER_CM_NAME, forceUpdate);
-        copyConfigMap(schemaKube, BOOK_CONFIG_CM_NAME, forceUpdate);
+    /**
+     * Targets which {@link #ensureSchema} would create or update, nothing is applied
+     *
+     * @return names of the initializer steps which would run, namespace is listed first if it would be created
+     */
+    public static List<String> plannedTargets(Config config, Kubernetes schemaKube, CradleConfig cradle) {
+        List<String> targets = new ArrayList<>();
+        boolean namespaceExists = schemaKube.existsNamespace();
+        if (!namespaceExists) {
+            targets.add(Kubernetes.KIND_NAMESPACE + "/" + schemaKube.getNamespaceName());
+        } else if (config.getKubernetes().getSchemaSyncMode() == SchemaSyncMode.CHECK_NAMESPACE) {
+            return targets;
+        }
+        boolean forceUpdate = config.getKubernetes().getSchemaSyncMode() == SchemaSyncMode.FORCE;
+        long fingerprintTtl = TimeUnit.SECONDS.toMillis(config.getSync().getInitializerFingerprintTtlSec());
+        for (InitializerStep step : buildSteps(config, schemaKube, cradle, forceUpdate)) {
+            if (!namespaceExists || !InitializerFingerprints.INSTANCE.isUpToDate(
+                    schemaKube.getNamespaceName(), step.name, step.fingerprint, fingerprintTtl)) {
+                targets.add(step.name);
+            }
+        }
+        return targets;
+    }
+
+    /*
+        Fingerprints are built from resource versions kept by the source resource informers and from
+        the schema settings passed by the caller, so skipped steps load nothing.
+        Source resources are loaded only by the steps which run
+     */
+    private static List<InitializerStep> buildSteps(Config config,
+                                                    Kubernetes schemaKube,
+                                                    CradleConfig cradle,
+                                                    boolean forceUpdate) {
+        Map<String, String> configMaps = config.getKubernetes().getConfigMaps();
+        List<InitializerStep> steps = new ArrayList<>();
 
+        // copy Th2BoxConfigurations config maps
+        for (String configMapName : List.of(
+                MQ_ROUTER_CM_NAME, GRPC_ROUTER_CM_NAME, CRADLE_MANAGER_CM_NAME, BOOK_CONFIG_CM_NAME)) {
+            steps.add(new InitializerStep(
+                    Kubernetes.KIND_CONFIGMAP + "/" + configMapName,
+                    sourceFingerprintOf(configMapVersion(configMapName)),
+                    () -> copyConfigMap(schemaKube, configMapName,
+                            sourceConfigMap(schemaKube, configMapName), forceUpdate)
+            ));
+        }
 
         // ensure rabbitMq resources
-        ensureRabbitMQResources(config, schemaKube, forceUpdate);
+        String rabbitMQConfigMapName = configMaps.get(RABBITMQ_CONFIGMAP_PARAM);
+        String rabbitMQExtConfigMapName = configMaps.get(RABBITMQ_EXTERNAL_CM_PARAM);
+        steps.add(new InitializerStep(
+                "rabbitMQ",
+                sourceFingerprintOf(
+                        config.getKubernetes().getNamespacePrefix(),
+                        config.getRabbitMQ().getVhostName(),
+                        configMapVersion(rabbitMQConfigMapName),
+                        configMapVersion(rabbitMQExtConfigMapName)
+                ),
+                () -> ensureRabbitMQResources(config, schemaKube,
+                        sourceConfigMap(schemaKube, rabbitMQConfigMapName),
+                        sourceConfigMap(schemaKube, rabbitMQExtConfigMapName),
+                        forceUpdate)
+        ));
 
         //ensure cassandra resources
-        copyCassandraSecret(config, schemaKube, forceUpdate);
-        ensureCradleConfig(config, schemaKube, forceUpdate);
-
-        // copy Service Monitor
-        copyServiceMonitor(config, schemaKube, forceUpdate);
+        String cassandraSecretName = config.getCassandra().getSecret();
+        steps.add(new InitializerStep(
+                "cassandraSecret",
+                sourceFingerprintOf(secretVersion(cassandraSecretName)),
+                () -> copyCassandraSecret(config, schemaKube,
+                        schemaKube.currentNamespace().getSecret(cassandraSecretName), forceUpdate)
+        ));
+        String cradleConfigMapName = configMaps.get(CASSANDRA_CONFIGMAP_PARAM);
+        String cradleExtConfigMapName = configMaps.get(CASSANDRA_EXT_CONFIGMAP_PARAM);
+        steps.add(new InitializerStep(
+                "cradleConfig",
+                cradle == null ? null : sourceFingerprintOf(
+                        writeValueOrNull(cradle),
+                        configMapVersion(cradleConfigMapName),
+                        configMapVersion(cradleExtConfigMapName)),
+                () -> ensureCradleConfig(config, schemaKube,
+                        cradle != null ? cradle : loadCradleConfig(config, schemaKube),
+                        sourceConfigMap(schemaKube, cradleConfigMapName),
+                        sourceConfigMap(schemaKube, cradleExtConfigMapName),
+                        forceUpdate)
+        ));
+
+        // copy Service Monitor, it is not cached by informers, so its presence is re-checked
+        // only when the fingerprint expires
+        String serviceMonitorName = config.getKubernetes().getServiceMonitor();
+        steps.add(new InitializerStep(
+                KIND_SERVICE_MONITOR + "/" + serviceMonitorName,
+                fingerprintOf(serviceMonitorName),
+                () -> copyServiceMonitor(schemaKube, serviceMonitorName,
+                        schemaKube.currentNamespace().loadServiceMonitor(serviceMonitorName), forceUpdate)
+        ));
 
         // copy required secrets
-        copySecrets(config, schemaKube, forceUpdate);
+        Set<String> secretNames = config.getKubernetes().getSecretNames();
+        steps.add(new InitializerStep(
+                "secrets",
+                sourceFingerprintOf(secretNames.stream()
+                        .sorted()
+                        .map(secretName -> secretName + "=" + secretVersion(secretName))
+                        .toArray()),
+                () -> copySecrets(config, schemaKube, schemaKube.currentNamespace().getSecrets(), forceUpdate)
+        ));
+
+        // create custom-secrets resource, fingerprint is invalidated when SecretsManager misses the secret
+        steps.add(new InitializerStep(
+                CUSTOM_SECRETS_STEP,
+                fingerprintOf(SecretsManager.DEFAULT_SECRET_NAME),
+                () -> ensureCustomSecrets(schemaKube, forceUpdate)
+        ));
+        return steps;
+    }
+
+    /*
+        Steps which inputs were not changed since their last successful run are skipped,
+        the rest are independent of each other and run in parallel
+     */
+    private static void runSteps(Config config, String namespace, List<InitializerStep> steps) {
+        long fingerprintTtl = TimeUnit.SECONDS.toMillis(config.getSync().getInitializerFingerprintTtlSec());
+        Map<InitializerStep, Future<Boolean>> results = new LinkedHashMap<>();
+        for (InitializerStep step : steps) {
+            if (InitializerFingerprints.INSTANCE.isUpToDate(namespace, step.name, step.fingerprint, fingerprintTtl)) {
+                logger.debug("Inputs of \"{}\" in \"{}\" are unchanged, skipping", step.name, namespace);
+                continue;
+            }
+            results.put(step, BlockingTaskExecutors.shared().submit(step.action::getAsBoolean));
+        }
+        if (results.isEmpty()) {
+            logger.info("Resources of namespace \"{}\" are up to date, skipping", namespace);
+            return;
+        }
+
+        // all steps are awaited before the first failure is rethrown
+        RuntimeException failure = null;
+        for (var entry : results.entrySet()) {
+            InitializerStep step = entry.getKey();
+            try {
+                if (entry.getValue().get() && fingerprintTtl > 0 && step.fingerprint != null) {
+                    InitializerFingerprints.INSTANCE.update(namespace, step.name, step.fingerprint);
+                }
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof RuntimeException runtimeException
+                            ? runtimeException
+                            : new IllegalStateException(e.getCause());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while ensuring resources of " + namespace, e);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static final class InitializerStep {
+
+        private final String name;
+
+        private final String fingerprint;
+
+        private final BooleanSupplier action;
+
+        private InitializerStep(String name, String fingerprint, BooleanSupplier action) {
+            this.name = name;
+            this.fingerprint = fingerprint;
+            this.action = action;
+        }
+    }
+
+    private static String fingerprintOf(Object... inputs) {
+        return digest(Arrays.stream(inputs)
+                .map(String::valueOf)
+                .collect(Collectors.joining("\n")));
+    }
+
+    /**
+     * @return fingerprint of the inputs or null if source resource versions are not known yet
+     */
+    private static String sourceFingerprintOf(Object... inputs) {
+        return SourceResourceCache.INSTANCE.isSynced() ? fingerprintOf(inputs) : null;
+    }
+
+    private static String configMapVersion(String name) {
+        return StringUtils.isEmpty(name) || !SourceResourceCache.INSTANCE.isSynced()
+                ? null
+                : SourceResourceCache.INSTANCE.getConfigMapVersion(name);
+    }
+
+    private static String secretVersion(String name) {
+        return StringUtils.isEmpty(name) || !SourceResourceCache.INSTANCE.isSynced()
+                ? null
+                : SourceResourceCache.INSTANCE.getSecretVersion(name);
+    }
 
-        // create custom-secrets resource
-        ensureCustomSecrets(schemaKube, forceUpdate);
+    private static ConfigMap sourceConfigMap(Kubernetes schemaKube, String name) {
+        return StringUtils.isEmpty(name) ? null : schemaKube.currentNamespace().getConfigMap(name);
     }
 
-    private static void copyConfigMap(Kubernetes schemaKube, String configMapName, boolean forceUpdate) {
+    private static String writeValueOrNull(Object value) {
+        try {
+            return mapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private static boolean copyConfigMap(Kubernetes schemaKube,
+                                         String configMapName,
+                                         ConfigMap originalConfigMap,
+                                         boolean forceUpdate) {
         String newResourceLabel = annotationFor(schemaKube.getNamespaceName(),
                 Kubernetes.KIND_CONFIGMAP, configMapName);
-        ConfigMap originalConfigMap = schemaKube.currentNamespace().getConfigMap(configMapName);
 
         if (originalConfigMap == null || originalConfigMap.getData() == null) {
             logger.error("Failed to load ConfigMap \"{}\" from default namespace", configMapName);
-            return;
+            return false;
         }
 
         if (schemaKube.getConfigMap(configMapName) != null && !forceUpdate) {
             logger.info("\"{}\" already exists, skipping", newResourceLabel);
-            return;
+            return true;
         }
 
         ConfigMap newConfigMap = new ConfigMap();
@@ -198,9 +413,14 @@ public class SchemaInitializer {
 
         schemaKube.createOrReplaceConfigMap(newConfigMap);
         logger.info("Created \"{}\" based on \"{}\" from default namespace", newResourceLabel, configMapName);
+        return true;
     }
 
-    static void ensureRabbitMQResources(Config config, Kubernetes schemaKube, boolean forceUpdate) {
+    static boolean ensureRabbitMQResources(Config config,
+                                           Kubernetes schemaKube,
+                                           ConfigMap rabbitMQConfigMap,
+                                           ConfigMap rabbitMQExtConfigMap,
+                                           boolean forceUpdate) {
         Objects.requireNonNull(schemaKube.getSchemaName(), "Kubernetes client is anonymous");
 
         Map<String, String> configMaps = config.getKubernetes().getConfigMaps();
@@ -214,14 +434,14 @@ public class SchemaInitializer {
         // copy config map with updated vHost value to namespace
         try {
             createRabbitMQSecret(config, schemaKube, username, forceUpdate);
-            copyRabbitMQConfigMap(
-                    configMaps.get(RABBITMQ_CONFIGMAP_PARAM), vHostName, username, exchange, schemaKube, forceUpdate
-            );
-            copyRabbitMQConfigMap(
-                    configMaps.get(RABBITMQ_EXTERNAL_CM_PARAM), vHostName, username, exchange, schemaKube, forceUpdate
-            );
+            boolean copied = copyRabbitMQConfigMap(configMaps.get(RABBITMQ_CONFIGMAP_PARAM), rabbitMQConfigMap,
+                    vHostName, username, exchange, schemaKube, forceUpdate);
+            copied &= copyRabbitMQConfigMap(configMaps.get(RABBITMQ_EXTERNAL_CM_PARAM), rabbitMQExtConfigMap,
+                    vHostName, username, exchange, schemaKube, forceUpdate);
+            return copied;
         } catch (Exception e) {
             logger.error("Exception writing RabbitMQ configuration resources", e);
+            return false;
         }
     }
 
@@ -253,28 +473,28 @@ public class SchemaInitializer {
 
     }
 
-    static void copyRabbitMQConfigMap(String configMapName,
-                                      String vHostName,
-                                      String username,
-                                      String exchange,
-                                      Kubernetes kube,
-                                      boolean forceUpdate) {
+    static boolean copyRabbitMQConfigMap(String configMapName,
+                                         ConfigMap originalConfigMap,
+                                         String vHostName,
+                                         String username,
+                                         String exchange,
+                                         Kubernetes kube,
+                                         boolean forceUpdate) {
 
         if (StringUtils.isEmpty(configMapName)) {
-            return;
+            return true;
         }
 
-        ConfigMap originalConfigMap = kube.currentNamespace().getConfigMap(configMapName);
         if (configMapNotLoaded(originalConfigMap, RABBITMQ_JSON_KEY)) {
             logger.error("Failed to load ConfigMap \"{}\" from default namespace", configMapName);
-            return;
+            return false;
         }
 
         String newResourceLabel = annotationFor(kube.getNamespaceName(), Kubernetes.KIND_CONFIGMAP, configMapName);
 
         if (kube.getConfigMap(configMapName) != null && !forceUpdate) {
             logger.info("\"{}\" already exists, skipping", newResourceLabel);
-            return;
+            return true;
         }
 
         // copy config map with updated vHost value to namespace
@@ -297,8 +517,10 @@ public class SchemaInitializer {
             );
             kube.createOrReplaceConfigMap(newConfigMap);
             logger.info("Created \"{}\" based on \"{}\" from default namespace", newResourceLabel, configMapName);
+            return true;
         } catch (Exception e) {
             logger.error("Exception creating \"{}\"", newResourceLabel, e);
+            return false;
         }
     }
 
@@ -317,7 +539,7 @@ public class SchemaInitializer {
         return newConfigMap;
     }
 
-    static void copyCassandraSecret(Config config, Kubernetes schemaKube, boolean forceUpdate) {
+    static boolean copyCassandraSecret(Config config, Kubernetes schemaKube, Secret secret, boolean forceUpdate) {
         Objects.requireNonNull(schemaKube.getSchemaName(), "Kubernetes client is anonymous");
         CassandraConfig cassandraConfig = config.getCassandra();
         String secretName = cassandraConfig.getSecret();
@@ -326,13 +548,12 @@ public class SchemaInitializer {
 
         if (schemaKube.getSecret(CASSANDRA_SECRET_NAME_FOR_NAMESPACES) != null && !forceUpdate) {
             logger.info("\"{}\" already exists, skipping", newResourceLabel);
-            return;
+            return true;
         }
 
-        Secret secret = schemaKube.currentNamespace().getSecrets().get(secretName);
         if (secret == null || secret.getData() == null) {
             logger.error("Failed to load Secret \"{}\" from default namespace", secretName);
-            return;
+            return false;
         }
         try {
             Secret newResource = makeSecretCopy(secret);
@@ -343,50 +564,66 @@ public class SchemaInitializer {
             );
             schemaKube.createOrReplaceSecret(newResource);
             logger.info("Created \"{}\" based on \"{}\" from default namespace", newResourceLabel, secretName);
+            return true;
         } catch (Exception e) {
             logger.error("Exception creating \"{}\"", newResourceLabel, e);
+            return false;
         }
     }
 
-    static void ensureCradleConfig(Config config, Kubernetes schemaKube, boolean forceUpdate) {
+    static CradleConfig loadCradleConfig(Config config, Kubernetes schemaKube) {
         Objects.requireNonNull(schemaKube.getSchemaName(), "Kubernetes client is anonymous");
         try {
             GitterContext ctx = GitterContext.getContext(config.getGit());
             Gitter gitter = ctx.getGitter(schemaKube.getSchemaName());
             try {
                 gitter.lock();
-                CradleConfig cradle = Repository.getSettings(gitter).getSpec().getCradle();
-
-                Map<String, String> configMaps = config.getKubernetes().getConfigMaps();
-                copyCradleConfigMap(configMaps.get(CASSANDRA_CONFIGMAP_PARAM), cradle, schemaKube, forceUpdate);
-                copyCradleConfigMap(configMaps.get(CASSANDRA_EXT_CONFIGMAP_PARAM), cradle, schemaKube, forceUpdate);
+                return Repository.getSettings(gitter).getSpec().getCradle();
             } finally {
                 gitter.unlock();
             }
         } catch (Exception e) {
             logger.error("Exception extracting keyspace for \"{}\"", schemaKube.getSchemaName(), e);
+            return null;
+        }
+    }
+
+    static boolean ensureCradleConfig(Config config,
+                                      Kubernetes schemaKube,
+                                      CradleConfig cradle,
+                                      ConfigMap cradleConfigMap,
+                                      ConfigMap cradleExtConfigMap,
+                                      boolean forceUpdate) {
+        if (cradle == null) {
+            return false;
         }
+        Map<String, String> configMaps = config.getKubernetes().getConfigMaps();
+        boolean copied = copyCradleConfigMap(configMaps.get(CASSANDRA_CONFIGMAP_PARAM), cradleConfigMap,
+                cradle, schemaKube, forceUpdate);
+        copied &= copyCradleConfigMap(configMaps.get(CASSANDRA_EXT_CONFIGMAP_PARAM), cradleExtConfigMap,
+                cradle, schemaKube, forceUpdate);
+        return copied;
     }
 
-    private static void copyCradleConfigMap(String configMapName,
-                                            CradleConfig cradle,
-                                            Kubernetes kube,
-                                            boolean forceUpdate) {
+    private static boolean copyCradleConfigMap(String configMapName,
+                                               ConfigMap originalConfigMap,
+                                               CradleConfig cradle,
+                                               Kubernetes kube,
+                                               boolean forceUpdate) {
 
         if (StringUtils.isEmpty(configMapName)) {
-            return;
+            return true;
         }
-        ConfigMap originalConfigMap = kube.currentNamespace().getConfigMap(configMapName);
         if (configMapNotLoaded(originalConfigMap, CRADLE_JSON_KEY)) {
             logger.error("Failed to load ConfigMap \"{}\" from default namespace", configMapName);
-            return;
+            return false;
         }
 
         String newResourceLabel = annotationFor(kube.getNamespaceName(), Kubernetes.KIND_CONFIGMAP, configMapName);
 
         if (kube.getConfigMap(configMapName) != null && !forceUpdate) {
             logger.info("\"{}\" already exists, skipping", newResourceLabel);
-            return;
+            return true;
         }
 
         // copy config map with updated keyspace name
@@ -407,25 +644,27 @@ public class SchemaInitializer {
             );
             kube.createOrReplaceConfigMap(newConfigMap);
             logger.info("Created \"{}\" based on \"{}\" from default namespace", newResourceLabel, configMapName);
+            return true;
         } catch (Exception e) {
             logger.error("Exception creating \"{}\"", newResourceLabel, e);
+            return false;
         }
     }
 
-    private static void copyServiceMonitor(Config config, Kubernetes schemaKube, boolean forceUpdate) {
-        String serviceMonitorName = config.getKubernetes().getServiceMonitor();
-        ServiceMonitor.Type originalServiceMonitor = schemaKube.currentNamespace()
-                .loadServiceMonitor(serviceMonitorName);
+    private static boolean copyServiceMonitor(Kubernetes schemaKube,
+                                              String serviceMonitorName,
+                                              ServiceMonitor.Type originalServiceMonitor,
+                                              boolean forceUpdate) {
         if (originalServiceMonitor == null) {
             logger.error("Failed to load ServiceMonitor \"{}\" from default namespace", serviceMonitorName);
-            return;
+            return false;
         }
         String namespace = schemaKube.getNamespaceName();
         String newResourceLabel = annotationFor(namespace, KIND_SERVICE_MONITOR, serviceMonitorName);
         try {
             if (schemaKube.loadServiceMonitor(namespace, serviceMonitorName) != null && !forceUpdate) {
                 logger.info("\"{}\" already exists, skipping", newResourceLabel);
-                return;
+                return true;
             }
             ServiceMonitor.Type newServiceMonitor = new ServiceMonitor.Type();
             newServiceMonitor.setMetadata(originalServiceMonitor.getMetadata());
@@ -435,8 +674,10 @@ public class SchemaInitializer {
             newServiceMonitor.setSpec(originalServiceMonitor.getSpec());
             schemaKube.createServiceMonitor(newServiceMonitor);
             logger.info("Created \"{}\" based on \"{}\" from default namespace", newResourceLabel, serviceMonitorName);
+            return true;
         } catch (Exception e) {
             logger.error("Exception creating ServiceMonitor \"{}\"", newResourceLabel, e);
+            return false;
         }
     }
 
@@ -447,9 +688,12 @@ public class SchemaInitializer {
         }
     }
 
-    private static void copySecrets(Config config, Kubernetes schemaKube, boolean forceUpdate) {
+    private static boolean copySecrets(Config config,
+                                       Kubernetes schemaKube,
+                                       Map<String, Secret> workingNamespaceSecrets,
+                                       boolean forceUpdate) {
 
-        Map<String, Secret> workingNamespaceSecrets = schemaKube.currentNamespace().getSecrets();
+        boolean copied = true;
         Map<String, Secret> targetNamespaceSecrets = schemaKube.getSecrets();
 
         String rmqSecretName = config.getRabbitMQ().getSecret();
@@ -464,6 +708,7 @@ public class SchemaInitializer {
             String newResourceLabel = annotationFor(schemaKube.getNamespaceName(), Kubernetes.KIND_SECRET, secretName);
             if (originalSecret == null || originalSecret.getData() == null) {
                 logger.error("Failed to load Secret \"{}\" from default namespace", secretName);
+                copied = false;
                 continue;
             }
 
@@ -481,10 +726,11 @@ public class SchemaInitializer {
                     logger.info("Created \"{}\" based on \"{}\" from default namespace", newResourceLabel, secretName);
                 } catch (Exception e) {
                     logger.error("Exception creating \"{}\"", newResourceLabel, e);
+                    copied = false;
                 }
             }
         }
-
+        return copied;
     }
 
     private static Secret makeSecretCopy(Secret secret) {
@@ -496,13 +742,13 @@ public class SchemaInitializer {
         return secretCopy;
     }
 
-    private static void ensureCustomSecrets(Kubernetes schemaKube, boolean forceUpdate) {
+    private static boolean ensureCustomSecrets(Kubernetes schemaKube, boolean forceUpdate) {
         String secretName = SecretsManager.DEFAULT_SECRET_NAME;
         String newResourceLabel = annotationFor(schemaKube.getNamespaceName(), Kubernetes.KIND_SECRET, secretName);
 
         if (schemaKube.getSecret(secretName) != null && !forceUpdate) {
             logger.info("\"{}\" already exists, skipping", newResourceLabel);
-            return;
+            return true;
         }
 
         Secret newSecret = new Secret();
@@ -517,8 +763,10 @@ public class SchemaInitializer {
         try {
             schemaKube.createOrReplaceSecret(newSecret);
             logger.info("Created \"{}\"", newResourceLabel);
+            return true;
         } catch (Exception e) {
             logger.error("Exception creating \"{}\"", newResourceLabel, e);
+            return false;
         }
     }
 
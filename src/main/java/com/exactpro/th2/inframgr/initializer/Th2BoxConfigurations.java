@@ -1,5 +1,5 @@
 /*
- * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
+ * Copyright 2020-2023 Exactpro (Exactpro Systems Limited)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -27,6 +27,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import static com.exactpro.th2.inframgr.initializer.SchemaInitializer.*;
@@ -52,6 +54,86 @@ public class Th2BoxConfigurations {
         synchronizeConfigMap(CRADLE_MANAGER_CM_NAME, CRADLE_MANAGER_FILE_NAME, cradleManager, fullCommitRef, kube);
     }
 
+    /**
+     * Synchronizes single box config map, e.g. when its source in infra-mgr namespace has changed
+     *
+     * @return false if config map with the name is not a box config map
+     */
+    public static boolean synchronizeBoxConfigMap(String configMapName,
+                                                  Map<String, Object> mqRouter,
+                                                  Map<String, Object> grpcRouter,
+                                                  Map<String, Object> cradleManager,
+                                                  String fullCommitRef,
+                                                  Kubernetes kube) throws IOException {
+        switch (configMapName) {
+            case MQ_ROUTER_CM_NAME:
+                synchronizeConfigMap(MQ_ROUTER_CM_NAME, MQ_ROUTER_FILE_NAME, mqRouter, fullCommitRef, kube);
+                return true;
+            case GRPC_ROUTER_CM_NAME:
+                synchronizeConfigMap(GRPC_ROUTER_CM_NAME, GRPC_ROUTER_FILE_NAME, grpcRouter, fullCommitRef, kube);
+                return true;
+            case CRADLE_MANAGER_CM_NAME:
+                synchronizeConfigMap(
+                        CRADLE_MANAGER_CM_NAME, CRADLE_MANAGER_FILE_NAME, cradleManager, fullCommitRef, kube);
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * @return data which synchronization would write, mapped by names of config maps it would change
+     */
+    public static Map<String, Map<String, String>> expectedBoxConfigMaps(Map<String, Object> mqRouter,
+                                                                       Map<String, Object> grpcRouter,
+                                                                       Map<String, Object> cradleManager,
+                                                                       Kubernetes kube) throws IOException {
+        Map<String, Map<String, String>> expected = new LinkedHashMap<>();
+        putIfChanged(expected, MQ_ROUTER_CM_NAME,
+                expectedConfigMapData(MQ_ROUTER_CM_NAME, MQ_ROUTER_FILE_NAME, mqRouter, kube));
+        putIfChanged(expected, GRPC_ROUTER_CM_NAME,
+                expectedConfigMapData(GRPC_ROUTER_CM_NAME, GRPC_ROUTER_FILE_NAME, grpcRouter, kube));
+        putIfChanged(expected, CRADLE_MANAGER_CM_NAME,
+                expectedConfigMapData(CRADLE_MANAGER_CM_NAME, CRADLE_MANAGER_FILE_NAME, cradleManager, kube));
+        return expected;
+    }
+
+    private static void putIfChanged(Map<String, Map<String, String>> expected,
+                                     String configMapName,
+                                     Map<String, String> data) {
+        if (data != null) {
+            expected.put(configMapName, data);
+        }
+    }
+
+    private static Map<String, String> expectedConfigMapData(String configMapName,
+                                                             String fileName,
+                                                             Map<String, Object> newData,
+                                                             Kubernetes kube) throws IOException {
+        ConfigMap defaultConfigMap = kube.currentNamespace().getConfigMap(configMapName);
+        if (defaultConfigMap == null || defaultConfigMap.getData() == null) {
+            return null;
+        }
+        String defaultDataSection = defaultConfigMap.getData().get(fileName);
+        String expectedData = newData == null || newData.isEmpty() || defaultDataSection == null
+                ? defaultDataSection
+                : mergeConfigs(defaultDataSection, newData);
+        ConfigMap configMapInSchemaNamespace = kube.getConfigMap(configMapName);
+        Map<String, String> data;
+        if (configMapInSchemaNamespace == null || configMapInSchemaNamespace.getData() == null) {
+            // config map is copied from the default namespace first
+            data = new HashMap<>(defaultConfigMap.getData());
+        } else if (expectedData == null || expectedData.equals(configMapInSchemaNamespace.getData().get(fileName))) {
+            return null;
+        } else {
+            data = new HashMap<>(configMapInSchemaNamespace.getData());
+        }
+        if (expectedData != null) {
+            data.put(fileName, expectedData);
+        }
+        return data;
+    }
+
     private static void synchronizeConfigMap(String configMapName,
                                              String fileName,
                                              Map<String, Object> newData,
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2023 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.inframgr.k8s;
+
+import com.exactpro.th2.infrarepo.repo.RepositoryResource;
+import com.exactpro.th2.infrarepo.settings.RepositorySettingsSpec;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/*
+    Repository state of the schema which was successfully applied to kubernetes.
+    Resources are identified by "kind/name" keys and are compared by source hashes
+ */
+public class AppliedSchemaState {
+
+    private final String commitRef;
+
+    private final Map<String, String> resourceHashes;
+
+    private final long fullSyncTime;
+
+    private final RepositorySettingsSpec settings;
+
+    public AppliedSchemaState(String commitRef,
+                              Map<String, String> resourceHashes,
+                              long fullSyncTime,
+                              RepositorySettingsSpec settings) {
+        this.commitRef = commitRef;
+        this.resourceHashes = Collections.unmodifiableMap(resourceHashes);
+        this.fullSyncTime = fullSyncTime;
+        this.settings = settings;
+    }
+
+    public String getCommitRef() {
+        return commitRef;
+    }
+
+    public Map<String, String> getResourceHashes() {
+        return resourceHashes;
+    }
+
+    public long getFullSyncTime() {
+        return fullSyncTime;
+    }
+
+    public RepositorySettingsSpec getSettings() {
+        return settings;
+    }
+
+    public static String keyFor(String kind, String name) {
+        return kind + "/" + name;
+    }
+
+    public static String kindOf(String key) {
+        return key.substring(0, key.indexOf('/'));
+    }
+
+    public static String nameOf(String key) {
+        return key.substring(key.indexOf('/') + 1);
+    }
+
+    public static Map<String, String> hashesOf(Map<String, Map<String, RepositoryResource>> repositoryMap) {
+        Map<String, String> hashes = new HashMap<>();
+        repositoryMap.forEach((kind, resources) -> resources.forEach((name, resource) ->
+                hashes.put(keyFor(kind, name), resource.getSourceHash())
+        ));
+        return hashes;
+    }
+
+    /**
+     * @return keys of resources which were added or modified since this state was applied
+     */
+    public Set<String> changedResources(Map<String, String> currentHashes) {
+        Set<String> changed = new HashSet<>();
+        currentHashes.forEach((key, hash) -> {
+            if (hash == null || !resourceHashes.containsKey(key)
+                    || !Objects.equals(hash, resourceHashes.get(key))) {
+                changed.add(key);
+            }
+        });
+        return changed;
+    }
+
+    /**
+     * @return keys of resources which were removed since this state was applied
+     */
+    public Set<String> removedResources(Map<String, String> currentHashes) {
+        Set<String> removed = new HashSet<>(resourceHashes.keySet());
+        removed.removeAll(currentHashes.keySet());
+        return removed;
+    }
+}
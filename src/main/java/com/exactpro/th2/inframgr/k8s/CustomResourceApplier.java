@@ -0,0 +1,199 @@
+/*
+ * Copyright 2023 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exactpro.th2.inframgr.k8s;
+
+import com.exactpro.th2.inframgr.docker.monitoring.DynamicResourceProcessor;
+import com.exactpro.th2.inframgr.metrics.ManagerMetrics;
+import com.exactpro.th2.inframgr.util.BlockingTaskExecutors;
+import com.exactpro.th2.inframgr.util.Strings;
+import com.exactpro.th2.infrarepo.repo.RepositoryResource;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.ResourceNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static com.exactpro.th2.inframgr.statuswatcher.ResourcePath.annotationFor;
+
+/*
+    Apply stage of the namespace synchronization: sends planned custom resource operations to Kubernetes.
+    Operations are applied one by one unless concurrency is configured
+ */
+public class CustomResourceApplier {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomResourceApplier.class);
+
+    private final int concurrency;
+
+    public CustomResourceApplier(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * @param superseded checked between resource operations,
+     *                   remaining operations are skipped once it returns true
+     * @return number of operations that have not been applied
+     */
+    public int apply(Kubernetes schemaKube,
+                     List<CustomResourceOperation> operations,
+                     String shortCommitRef,
+                     BooleanSupplier superseded) {
+
+        AtomicInteger failures = new AtomicInteger();
+        Queue<CustomResourceOperation> pending = new ConcurrentLinkedQueue<>(operations);
+        int concurrency = Math.min(this.concurrency, operations.size());
+        if (concurrency <= 1) {
+            applyPendingResources(schemaKube, pending, shortCommitRef, superseded, failures);
+            return countSkippedResources(schemaKube, pending, shortCommitRef, failures);
+        }
+
+        // operations on different resources are independent from each other,
+        // so they are shared between a bounded number of workers for this namespace
+        List<Future<?>> workers = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            workers.add(BlockingTaskExecutors.shared().submit(() ->
+                    applyPendingResources(schemaKube, pending, shortCommitRef, superseded, failures)
+            ));
+        }
+
+        try {
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (InterruptedException e) {
+            logger.warn("Interrupted while applying resources to namespace \"{}\". [commit: {}]",
+                    schemaKube.getNamespaceName(), shortCommitRef);
+            failures.addAndGet(pending.size());
+            pending.clear();
+            workers.forEach(worker -> worker.cancel(true));
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            logger.error("Exception applying resources to namespace \"{}\". [commit: {}]",
+                    schemaKube.getNamespaceName(), shortCommitRef, e);
+            failures.incrementAndGet();
+        }
+        return countSkippedResources(schemaKube, pending, shortCommitRef, failures);
+    }
+
+    private void applyPendingResources(Kubernetes schemaKube,
+                                       Queue<CustomResourceOperation> pending,
+                                       String shortCommitRef,
+                                       BooleanSupplier superseded,
+                                       AtomicInteger failures) {
+        CustomResourceOperation operation;
+        while (!superseded.getAsBoolean() && (operation = pending.poll()) != null) {
+            if (!applyCustomResource(schemaKube, operation, shortCommitRef)) {
+                failures.incrementAndGet();
+            }
+        }
+    }
+
+    private int countSkippedResources(Kubernetes schemaKube,
+                                      Queue<CustomResourceOperation> pending,
+                                      String shortCommitRef,
+                                      AtomicInteger failures) {
+        if (!pending.isEmpty()) {
+            logger.info("Synchronization of namespace \"{}\" is superseded by a newer commit, "
+                            + "{} resource(s) left for the next synchronization. [commit: {}]",
+                    schemaKube.getNamespaceName(), pending.size(), shortCommitRef);
+            failures.addAndGet(pending.size());
+        }
+        return failures.get();
+    }
+
+    private boolean applyCustomResource(Kubernetes schemaKube,
+                                        CustomResourceOperation operation,
+                                        String shortCommitRef) {
+        boolean applied = doApplyCustomResource(schemaKube, operation, shortCommitRef);
+        ManagerMetrics.countResourceOperations(
+                operation.getType().name().toLowerCase(),
+                applied ? SyncRun.OUTCOME_SUCCESS : SyncRun.OUTCOME_FAILURE,
+                1
+        );
+        return applied;
+    }
+
+    private boolean doApplyCustomResource(Kubernetes schemaKube,
+                                          CustomResourceOperation operation,
+                                          String shortCommitRef) {
+
+        RepositoryResource resource = operation.getResource();
+        String resourceLabel = "\"" + annotationFor(schemaKube.getNamespaceName(),
+                operation.getKind(), operation.getName()) + "\"";
+        String hashTag = Strings.formatHash(operation.getSourceHash());
+
+        switch (operation.getType()) {
+            case CREATE:
+                logger.info("Creating resource {} {}. [commit: {}]", resourceLabel, hashTag, shortCommitRef);
+                try {
+                    try {
+                        schemaKube.createCustomResource(resource);
+                    } catch (KubernetesClientException e) {
+                        if (e.getCode() != HttpURLConnection.HTTP_CONFLICT) {
+                            throw e;
+                        }
+                        // resource appeared since namespace state was read
+                        schemaKube.replaceCustomResource(resource);
+                    }
+                } catch (Exception e) {
+                    logger.error("Exception creating resource {} {}. [commit: {}]",
+                            resourceLabel, hashTag, shortCommitRef, e);
+                    return false;
+                }
+                return true;
+            case REPLACE:
+                logger.info("Updating resource {} {}. [commit: {}]", resourceLabel, hashTag, shortCommitRef);
+                try {
+                    try {
+                        schemaKube.replaceCustomResource(resource);
+                    } catch (ResourceNotFoundException e) {
+                        // resource disappeared since namespace state was read
+                        schemaKube.createCustomResource(resource);
+                    }
+                } catch (Exception e) {
+                    logger.error("Exception updating resource {} {}. [commit: {}]",
+                            resourceLabel, hashTag, shortCommitRef, e);
+                    return false;
+                }
+                return true;
+            case DELETE:
+                logger.info("Deleting resource {}. [commit: {}]", resourceLabel, shortCommitRef);
+                try {
+                    schemaKube.deleteCustomResource(resource);
+                } catch (Exception e) {
+                    logger.error("Exception deleting resource {}. [commit: {}]",
+                            resourceLabel, shortCommitRef, e);
+                    return false;
+                }
+                // resource stays tracked until it is actually deleted
+                DynamicResourceProcessor.checkResource(resource, schemaKube.getSchemaName(), true);
+                return true;
+            default:
+                return false;
+        }
+    }
+}
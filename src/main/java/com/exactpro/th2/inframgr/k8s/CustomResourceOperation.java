@@ -0,0 +1,86 @@
+/*
+ * Copyright 2023 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.inframgr.k8s;
+
+import com.exactpro.th2.infrarepo.repo.RepositoryResource;
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+
+/*
+    Single create/replace/delete action on custom resource
+    that is required to bring kubernetes namespace in line with the repository
+ */
+public class CustomResourceOperation {
+
+    public enum Type {
+        CREATE,
+        REPLACE,
+        DELETE
+    }
+
+    private final Type type;
+
+    private final RepositoryResource resource;
+
+    private final String k8sSourceHash;
+
+    public CustomResourceOperation(Type type, RepositoryResource resource, String k8sSourceHash) {
+        this.type = type;
+        this.resource = resource;
+        this.k8sSourceHash = k8sSourceHash;
+    }
+
+    public static CustomResourceOperation create(RepositoryResource resource) {
+        return new CustomResourceOperation(Type.CREATE, resource, null);
+    }
+
+    public static CustomResourceOperation replace(RepositoryResource resource, String k8sSourceHash) {
+        return new CustomResourceOperation(Type.REPLACE, resource, k8sSourceHash);
+    }
+
+    public static CustomResourceOperation delete(String kind, String name, String k8sSourceHash) {
+        RepositoryResource resource = new RepositoryResource();
+        resource.setKind(kind);
+        ObjectMeta meta = new ObjectMeta();
+        meta.setName(name);
+        resource.setMetadata(meta);
+        return new CustomResourceOperation(Type.DELETE, resource, k8sSourceHash);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public RepositoryResource getResource() {
+        return resource;
+    }
+
+    public String getKind() {
+        return resource.getKind();
+    }
+
+    public String getName() {
+        return resource.getMetadata().getName();
+    }
+
+    public String getSourceHash() {
+        return type == Type.DELETE ? null : resource.getSourceHash();
+    }
+
+    public String getK8sSourceHash() {
+        return k8sSourceHash;
+    }
+}
@@ -18,6 +18,7 @@ package com.exactpro.th2.inframgr.k8s;
 
 import com.exactpro.th2.inframgr.Config;
 import com.exactpro.th2.inframgr.repository.RepositoryWatcherService;
+import com.exactpro.th2.inframgr.repository.SnapshotCache;
 import com.exactpro.th2.inframgr.statuswatcher.ResourcePath;
 import com.exactpro.th2.inframgr.util.RetryableTaskQueue;
 import com.exactpro.th2.inframgr.util.Strings;
@@ -25,12 +26,12 @@ import com.exactpro.th2.inframgr.util.Th2DictionaryProcessor;
 import com.exactpro.th2.infrarepo.ResourceType;
 import com.exactpro.th2.infrarepo.git.Gitter;
 import com.exactpro.th2.infrarepo.git.GitterContext;
-import com.exactpro.th2.infrarepo.repo.Repository;
 import com.exactpro.th2.infrarepo.repo.RepositoryResource;
 import com.exactpro.th2.infrarepo.repo.RepositorySnapshot;
 import com.exactpro.th2.infrarepo.settings.RepositorySettingsSpec;
 import io.fabric8.kubernetes.api.model.Namespace;
 import io.fabric8.kubernetes.api.model.ObjectMeta;
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
 import io.fabric8.kubernetes.client.Watcher;
 import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
 import jakarta.annotation.PostConstruct;
@@ -40,6 +41,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -61,6 +64,9 @@ public class K8sOperator {
     @Autowired
     private KubernetesService kubernetesService;
 
+    @Autowired
+    private ShardCoordinator shardCoordinator;
+
     private K8sResourceCache cache;
 
     private RetryableTaskQueue taskQueue;
@@ -115,6 +121,11 @@ public class K8sOperator {
             String kind = res.getKind();
             String hash = res.getSourceHash();
 
+            // resources of the schemas owned by other replicas are restored by them
+            if (!shardCoordinator.owns(anonKube.extractSchemaName(namespace))) {
+                return;
+            }
+
             String resourceLabel = "\"" + ResourcePath.annotationFor(namespace, kind, name) + "\"";
             String hashTag = Strings.formatHash(res.getSourceHash());
             logger.debug("Received {} event on resource {} {}", action.name(), resourceLabel, hashTag);
@@ -146,31 +157,27 @@ public class K8sOperator {
                 String schemaName = anonKube.extractSchemaName(namespace);
                 Gitter gitter = ctx.getGitter(schemaName);
 
+                // shared snapshot is loaded under gitter lock only when the head is not cached yet
                 RepositoryResource resource = null;
-                try {
-                    gitter.lock();
-                    logger.info("Checking out branch \"{}\" from repository", gitter.getBranch());
-                    RepositorySnapshot snapshot = Repository.getSnapshot(gitter);
-
-                    // check if we need to re-synchronize k8s at all
-                    RepositorySettingsSpec rs = snapshot.getRepositorySettingsSpec();
-                    if (rs == null || !rs.isK8sGovernanceRequired()) {
-                        return;
-                    }
+                logger.info("Loading branch \"{}\" from repository", gitter.getBranch());
+                RepositorySnapshot snapshot = SnapshotCache.INSTANCE.load(gitter);
 
-                    // refresh cache for this namespace
-                    for (RepositoryResource r : snapshot.getResources()) {
-                        cache.add(namespace, r);
-                        if (r.getKind().equals(kind) && r.getMetadata().getName().equals(name)) {
-                            resource = r;
-                            if (ResourceType.forKind(resource.getKind()) == ResourceType.Th2Dictionary) {
-                                Th2DictionaryProcessor.compressData(resource);
-                            }
+                // check if we need to re-synchronize k8s at all
+                RepositorySettingsSpec rs = snapshot.getRepositorySettingsSpec();
+                if (rs == null || !rs.isK8sGovernanceRequired()) {
+                    return;
+                }
+
+                // refresh cache for this namespace
+                for (RepositoryResource r : snapshot.getResources()) {
+                    cache.add(namespace, r);
+                    if (r.getKind().equals(kind) && r.getMetadata().getName().equals(name)) {
+                        // cached snapshot must not be modified, resource is written to kubernetes from its copy
+                        resource = copyOf(r);
+                        if (ResourceType.forKind(resource.getKind()) == ResourceType.Th2Dictionary) {
+                            Th2DictionaryProcessor.compressData(resource);
                         }
                     }
-
-                } finally {
-                    gitter.unlock();
                 }
 
 
@@ -233,6 +240,22 @@ public class K8sOperator {
         }
     }
 
+    @SuppressWarnings("unchecked")
+    private static RepositoryResource copyOf(RepositoryResource source) {
+        RepositoryResource resource = new RepositoryResource();
+        resource.setApiVersion(source.getApiVersion());
+        resource.setKind(source.getKind());
+        resource.setMetadata(new ObjectMetaBuilder(source.getMetadata()).build());
+        resource.setSourceHash(source.getSourceHash());
+        if (source.getCommitHash() != null) {
+            resource.stamp(source.getCommitHash(), source.getDetectionTime());
+        }
+        resource.setSpec(source.getSpec() instanceof Map
+                ? new LinkedHashMap<>((Map<String, Object>) source.getSpec())
+                : source.getSpec());
+        return resource;
+    }
+
     @PostConstruct
     public void start() {
         taskQueue = new RetryableTaskQueue(RECOVERY_THREAD_POOL_SIZE);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
+ * Copyright 2020-2023 Exactpro (Exactpro Systems Limited)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -80,6 +80,14 @@ public enum K8sResourceCache {
         cache.put(key, entry);
     }
 
+    public synchronized void add(String namespace, String resourceType, String resourceName, String hash) {
+
+        CacheEntry entry = new CacheEntry();
+        entry.setHash(hash);
+
+        cache.put(keyFor(namespace, resourceType, resourceName), entry);
+    }
+
     public synchronized void addNamespace(String namespace) {
         namespacesCache.add(namespace);
     }
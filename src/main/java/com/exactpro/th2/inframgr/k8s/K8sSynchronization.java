@@ -17,17 +17,22 @@
 package com.exactpro.th2.inframgr.k8s;
 
 import com.exactpro.th2.inframgr.Config;
+import com.exactpro.th2.inframgr.SchemaEvent;
 import com.exactpro.th2.inframgr.SchemaEventRouter;
 import com.exactpro.th2.inframgr.docker.monitoring.DynamicResourceProcessor;
 import com.exactpro.th2.inframgr.initializer.BookConfiguration;
+import com.exactpro.th2.inframgr.initializer.InitializerFingerprints;
 import com.exactpro.th2.inframgr.initializer.LoggingConfigMap;
 import com.exactpro.th2.inframgr.initializer.SchemaInitializer;
 import com.exactpro.th2.inframgr.initializer.Th2BoxConfigurations;
 import com.exactpro.th2.inframgr.metrics.ManagerMetrics;
 import com.exactpro.th2.inframgr.repository.RepositoryUpdateEvent;
+import com.exactpro.th2.inframgr.repository.SnapshotCache;
+import com.exactpro.th2.inframgr.util.BlockingTaskExecutors;
 import com.exactpro.th2.inframgr.util.SchemaErrorPrinter;
-import com.exactpro.th2.inframgr.util.Strings;
+import com.exactpro.th2.inframgr.util.SchemaValidationCache;
 import com.exactpro.th2.inframgr.util.Th2DictionaryProcessor;
+import com.exactpro.th2.inframgr.util.cfg.SyncCfg;
 import com.exactpro.th2.infrarepo.ResourceType;
 import com.exactpro.th2.infrarepo.SchemaUtils;
 import com.exactpro.th2.infrarepo.git.Gitter;
@@ -41,7 +46,7 @@ import com.exactpro.th2.validator.SchemaValidationContext;
 import com.exactpro.th2.validator.SchemaValidator;
 import com.exactpro.th2.validator.util.ResourceUtils;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import io.fabric8.kubernetes.api.model.ObjectMeta;
+import io.fabric8.kubernetes.api.model.ConfigMap;
 import io.prometheus.client.Histogram;
 import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
@@ -50,19 +55,20 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import rx.schedulers.Schedulers;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-
-import static com.exactpro.th2.inframgr.statuswatcher.ResourcePath.annotationFor;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
 
 @Component
 public class K8sSynchronization {
 
-    private static final int SYNC_PARALLELIZATION_THREADS = 3;
-
     private static final Logger logger = LoggerFactory.getLogger(K8sSynchronization.class);
 
     @Autowired
@@ -71,15 +77,41 @@ public class K8sSynchronization {
     @Autowired
     private KubernetesService kubernetesService;
 
-    private final K8sSynchronizationJobQueue jobQueue = new K8sSynchronizationJobQueue();
+    @Autowired
+    private SyncRunHistory syncRunHistory;
+
+    @Autowired
+    private SchemaValidationCache validationCache;
+
+    @Autowired
+    private SyncLedger syncLedger;
+
+    @Autowired
+    private ShardCoordinator shardCoordinator;
+
+    private K8sSynchronizationJobQueue jobQueue;
+
+    private final Map<String, AppliedSchemaState> appliedStates = new ConcurrentHashMap<>();
+
+    private void markApplied(String schemaName, String namespace, AppliedSchemaState state) {
+        appliedStates.put(schemaName, state);
+        syncLedger.recordApplied(schemaName, namespace, state.getCommitRef(), state.getResourceHashes());
+    }
+
+    private void forgetApplied(String schemaName) {
+        appliedStates.remove(schemaName);
+        syncLedger.recordRemoved(schemaName);
+    }
 
     private void deleteNamespace(String schemaName) {
+        forgetApplied(schemaName);
         try {
             Kubernetes schemaKube = kubernetesService.getKubernetes(schemaName);
             if (schemaKube.existsNamespace()) {
                 logger.info("Removing schema \"{}\" from kubernetes", schemaName);
                 DynamicResourceProcessor.deleteSchema(schemaName);
                 K8sResourceCache.INSTANCE.removeNamespace(schemaKube.getNamespaceName());
+                InitializerFingerprints.INSTANCE.invalidate(schemaKube.getNamespaceName());
                 schemaKube.deleteNamespace();
             }
         } catch (Exception e) {
@@ -87,20 +119,64 @@ public class K8sSynchronization {
         }
     }
 
-    private void synchronizeNamespace(String schemaName,
-                                      Map<String, Map<String, RepositoryResource>> repositoryResources,
-                                      RepositorySettingsResource repositorySettings,
-                                      String fullCommitRef) throws Exception {
+    /**
+     * @param incrementalOperations resource operations for incremental synchronization
+     *                              or null if the namespace should be fully reconciled
+     * @return true if every resource operation has been applied successfully
+     */
+    private boolean synchronizeNamespace(String schemaName,
+                                         Map<String, Map<String, RepositoryResource>> repositoryResources,
+                                         RepositorySettingsResource repositorySettings,
+                                         String fullCommitRef,
+                                         List<CustomResourceOperation> incrementalOperations,
+                                         BooleanSupplier superseded,
+                                         SyncRun run) throws Exception {
 
         Histogram.Timer timer = ManagerMetrics.getCommitTimer();
         String shortCommitRef = getShortCommitRef(fullCommitRef);
         try {
             Kubernetes schemaKube = kubernetesService.getKubernetes(schemaName);
-            SchemaInitializer.ensureSchema(config, schemaKube);
-            validateSchema(schemaName, repositoryResources, repositorySettings, shortCommitRef);
+            runStage(run, "ensureSchema", () -> {
+                SchemaInitializer.ensureSchema(config, schemaKube, repositorySettings.getSpec().getCradle());
+                return null;
+            });
+            runStage(run, "validation", () -> {
+                validateSchema(schemaName, repositoryResources, repositorySettings, shortCommitRef);
+                return null;
+            });
+            // dictionaries are compressed after validation,
+            // so that validation cache key matches the content validated by the editor
+            runStage(run, "compression", () -> {
+                compressDictionaries(repositoryResources, incrementalOperations);
+                return null;
+            });
+
+            if (incrementalOperations != null) {
+                logger.info("Applying {} changed resource(s) to schema \"{}\" incrementally. [commit: {}]",
+                        incrementalOperations.size(), schemaName, shortCommitRef);
+                return runApplyStage(run, schemaKube, incrementalOperations, shortCommitRef, superseded) == 0;
+            }
 
-            RepositorySettingsSpec settingsSpec = repositorySettings.getSpec();
-            try {
+            synchronizeConfigMaps(schemaName, schemaKube, repositorySettings.getSpec(), fullCommitRef, run);
+
+            return syncCustomResourcesWithK8s(schemaName, repositoryResources, schemaKube,
+                    shortCommitRef, superseded, run) == 0;
+
+        } finally {
+            timer.observeDuration();
+        }
+    }
+
+    /**
+     * Synchronizes logging, book and box config maps derived from the schema settings
+     */
+    private void synchronizeConfigMaps(String schemaName,
+                                       Kubernetes schemaKube,
+                                       RepositorySettingsSpec settingsSpec,
+                                       String fullCommitRef,
+                                       SyncRun run) throws Exception {
+        try {
+            runStage(run, "loggingConfig", () -> {
                 LoggingConfigMap.copyLoggingConfigMap(
                         config.getKubernetes(),
                         settingsSpec.getLogLevelRoot(),
@@ -108,16 +184,22 @@ public class K8sSynchronization {
                         fullCommitRef,
                         schemaKube
                 );
-            } catch (Exception e) {
-                logger.error("Exception copying logging config map to schema \"{}\"", schemaName, e);
-            }
+                return null;
+            });
+        } catch (Exception e) {
+            logger.error("Exception copying logging config map to schema \"{}\"", schemaName, e);
+        }
 
+        runStage(run, "bookConfig", () -> {
             BookConfiguration.synchronizeBookConfig(
                     settingsSpec.getBookConfig(),
                     schemaKube,
                     fullCommitRef
             );
+            return null;
+        });
 
+        runStage(run, "boxConfig", () -> {
             Th2BoxConfigurations.synchronizeBoxConfigMaps(
                     settingsSpec.getMqRouter(),
                     settingsSpec.getGrpcRouter(),
@@ -125,11 +207,23 @@ public class K8sSynchronization {
                     fullCommitRef,
                     schemaKube
             );
+            return null;
+        });
+    }
 
-            syncCustomResourcesWithK8s(schemaName, repositoryResources, schemaKube, shortCommitRef);
-
-        } finally {
-            timer.observeDuration();
+    private static void compressDictionaries(Map<String, Map<String, RepositoryResource>> repositoryResources,
+                                             List<CustomResourceOperation> incrementalOperations) {
+        if (incrementalOperations == null) {
+            repositoryResources.get(ResourceType.Th2Dictionary.kind())
+                    .values()
+                    .forEach(Th2DictionaryProcessor::compressData);
+            return;
+        }
+        for (CustomResourceOperation operation : incrementalOperations) {
+            if (operation.getType() != CustomResourceOperation.Type.DELETE
+                    && ResourceType.Th2Dictionary.kind().equals(operation.getKind())) {
+                Th2DictionaryProcessor.compressData(operation.getResource());
+            }
         }
     }
 
@@ -139,10 +233,8 @@ public class K8sSynchronization {
                                 String commit)
             throws JsonProcessingException {
         // validate: schema links, urlPaths, secret custom config.
-        SchemaValidationContext validationContext = SchemaValidator.validate(
+        SchemaValidationContext validationContext = validationCache.validate(
                 schemaName,
-                config.getKubernetes().getNamespacePrefix(),
-                config.getKubernetes().getStorageServiceUrl(),
                 repositorySettings,
                 repositoryResources
         );
@@ -167,12 +259,100 @@ public class K8sSynchronization {
         }
     }
 
-    private void syncCustomResourcesWithK8s(String schemaName,
-                                            Map<String, Map<String, RepositoryResource>> repositoryResources,
-                                            Kubernetes schemaKube, String shortCommitRef) {
-        String namespace = schemaKube.getNamespaceName();
+    private int syncCustomResourcesWithK8s(String schemaName,
+                                           Map<String, Map<String, RepositoryResource>> repositoryResources,
+                                           Kubernetes schemaKube, String shortCommitRef,
+                                           BooleanSupplier superseded,
+                                           SyncRun run) throws Exception {
+        Map<String, Map<String, K8sCustomResource>> k8sResources = runStage(run, "loadResources",
+                () -> loadCustomResources(schemaKube));
+        List<CustomResourceOperation> operations = planCustomResources(
+                schemaName,
+                schemaKube.getNamespaceName(),
+                repositoryResources,
+                k8sResources,
+                run
+        );
+        return runApplyStage(run, schemaKube, operations, shortCommitRef, superseded);
+    }
+
+    private <T> T runStage(SyncRun run, String stage, Callable<T> action) throws Exception {
+        long start = System.currentTimeMillis();
+        String outcome = SyncRun.OUTCOME_FAILURE;
+        try {
+            T result = action.call();
+            outcome = SyncRun.OUTCOME_SUCCESS;
+            return result;
+        } finally {
+            long duration = System.currentTimeMillis() - start;
+            run.addStage(stage, outcome, duration);
+            ManagerMetrics.observeSyncStageTime(stage, outcome, duration);
+        }
+    }
+
+    private int runApplyStage(SyncRun run,
+                              Kubernetes schemaKube,
+                              List<CustomResourceOperation> operations,
+                              String shortCommitRef,
+                              BooleanSupplier superseded) throws Exception {
+        CustomResourceApplier applier = new CustomResourceApplier(config.getSync().getApplyConcurrency());
+        int failures = runStage(run, "apply", () -> applier.apply(schemaKube, operations, shortCommitRef, superseded));
+        run.addOperations(operations, failures);
+        return failures;
+    }
+
+    private List<CustomResourceOperation> planCustomResources(
+            String schemaName,
+            String namespace,
+            Map<String, Map<String, RepositoryResource>> repositoryResources,
+            Map<String, Map<String, K8sCustomResource>> k8sResources,
+            SyncRun run) {
+
+        int skipped = trackRepositoryResources(schemaName, namespace, repositoryResources);
+
+        List<CustomResourceOperation> operations = diffCustomResources(repositoryResources, k8sResources);
+        for (CustomResourceOperation operation : operations) {
+            if (operation.getType() != CustomResourceOperation.Type.DELETE) {
+                skipped--;
+            }
+        }
+        run.addSkippedOperations(skipped);
+        ManagerMetrics.countResourceOperations(SyncRun.OPERATION_SKIP, SyncRun.OUTCOME_SUCCESS, skipped);
+        return operations;
+    }
+
+    /**
+     * Adds managed resources of the schema to the resource cache and to dynamic image version tracking
+     *
+     * @return number of tracked resources
+     */
+    public static int trackRepositoryResources(String schemaName,
+                                               String namespace,
+                                               Map<String, Map<String, RepositoryResource>> repositoryResources) {
         K8sResourceCache cache = K8sResourceCache.INSTANCE;
-        Map<String, Map<String, K8sCustomResource>> k8sResources = loadCustomResources(schemaKube);
+        int tracked = 0;
+        for (ResourceType type : ResourceType.values()) {
+            if (type.isMangedResource() && !type.equals(ResourceType.Th2Job)) {
+                for (RepositoryResource resource : repositoryResources.get(type.kind()).values()) {
+                    // add resource to cache
+                    cache.add(namespace, resource);
+                    //check resources for dynamic image version range
+                    DynamicResourceProcessor.checkResource(resource, schemaName);
+                    tracked++;
+                }
+            }
+        }
+        return tracked;
+    }
+
+    /**
+     * Compares repository resources with kubernetes ones without any side effects
+     */
+    private static List<CustomResourceOperation> diffCustomResources(
+            Map<String, Map<String, RepositoryResource>> repositoryResources,
+            Map<String, Map<String, K8sCustomResource>> k8sResources) {
+
+        List<CustomResourceOperation> operations = new ArrayList<>();
         // synchronize by resource type
         for (ResourceType type : ResourceType.values()) {
             if (type.isMangedResource() && !type.equals(ResourceType.Th2Job)) {
@@ -182,76 +362,249 @@ public class K8sSynchronization {
 
                 for (RepositoryResource resource : resources.values()) {
                     String resourceName = resource.getMetadata().getName();
-                    String resourceLabel = "\"" + annotationFor(namespace, typeKind, resourceName) + "\"";
-                    String hashTag = Strings.formatHash(resource.getSourceHash());
-                    // add resource to cache
-                    cache.add(namespace, resource);
-                    //check resources for dynamic image version range
-                    DynamicResourceProcessor.checkResource(resource, schemaName);
                     // check repository items against k8s
-                    if (!customResources.containsKey(resourceName)) {
+                    K8sCustomResource cr = customResources.get(resourceName);
+                    if (cr == null) {
                         // create custom resources that do not exist in k8s
-                        logger.info("Creating resource {} {}. [commit: {}]",
-                                resourceLabel, hashTag, shortCommitRef);
-                        try {
-                            schemaKube.createCustomResource(resource);
-                        } catch (Exception e) {
-                            logger.error("Exception creating resource {} {}. [commit: {}]",
-                                    resourceLabel, hashTag, shortCommitRef, e);
-                        }
-                    } else {
-                        // compare object's hashes and update custom resources whose hash labels do not match
-                        K8sCustomResource cr = customResources.get(resourceName);
-
-                        if (!(resource.getSourceHash() == null
-                                || resource.getSourceHash().equals(cr.getSourceHash()))) {
-                            // update custom resource
-                            logger.info("Updating resource {} {}. [commit: {}]",
-                                    resourceLabel, hashTag, shortCommitRef);
-                            try {
-                                schemaKube.replaceCustomResource(resource);
-                            } catch (Exception e) {
-                                logger.error("Exception updating resource {} {}. [commit: {}]",
-                                        resourceLabel, hashTag, shortCommitRef, e);
-                            }
-                        }
+                        operations.add(CustomResourceOperation.create(resource));
+                    } else if (!(resource.getSourceHash() == null
+                            || resource.getSourceHash().equals(cr.getSourceHash()))) {
+                        // update custom resources whose hash labels do not match
+                        operations.add(CustomResourceOperation.replace(resource, cr.getSourceHash()));
                     }
                 }
 
                 // delete k8s resources that do not exist in repository
-                for (String resourceName : customResources.keySet()) {
+                for (K8sCustomResource cr : customResources.values()) {
+                    String resourceName = cr.getMetadata().getName();
                     if (!resources.containsKey(resourceName)) {
-                        String resourceLabel = annotationFor(namespace, typeKind, resourceName);
-                        try {
-                            logger.info("Deleting resource {}. [commit: {}]", resourceLabel, shortCommitRef);
-                            RepositoryResource resource = new RepositoryResource();
-                            resource.setKind(typeKind);
-                            ObjectMeta meta = new ObjectMeta();
-                            meta.setName(resourceName);
-                            resource.setMetadata(meta);
-                            DynamicResourceProcessor.checkResource(resource, schemaName, true);
-                            schemaKube.deleteCustomResource(resource);
-                        } catch (Exception e) {
-                            logger.error("Exception deleting resource {}. [commit: {}]",
-                                    resourceLabel, shortCommitRef, e);
-                        }
+                        operations.add(CustomResourceOperation.delete(typeKind, resourceName, cr.getSourceHash()));
                     }
                 }
             }
         }
+        return operations;
+    }
+
+    /**
+     * Queues propagation of the changed config map of infra-mgr namespace to every successfully
+     * synchronized schema. Propagation runs on synchronization workers, so it does not race
+     * with synchronization of the same schema
+     */
+    public void propagateSourceChange(String configMapName) {
+        logger.info("Propagating change of config map \"{}\" to {} schema(s)", configMapName, appliedStates.size());
+        for (String schemaName : appliedStates.keySet()) {
+            jobQueue.addJob(K8sSynchronizationJobQueue.Job.sourceChange(schemaName, configMapName));
+        }
+    }
+
+    private void propagateSourceChange(String schemaName, String configMapName) {
+        AppliedSchemaState state = appliedStates.get(schemaName);
+        RepositorySettingsSpec settingsSpec = state == null ? null : state.getSettings();
+        if (settingsSpec == null) {
+            // schema is not synchronized, its next synchronization uses the new config map
+            return;
+        }
+        try {
+            Kubernetes schemaKube = kubernetesService.getKubernetes(schemaName);
+            String fullCommitRef = state.getCommitRef();
+            if (LoggingConfigMap.isLoggingConfigMapSource(config.getKubernetes(), configMapName)) {
+                LoggingConfigMap.copyLoggingConfigMap(
+                        config.getKubernetes(),
+                        settingsSpec.getLogLevelRoot(),
+                        settingsSpec.getLogLevelTh2(),
+                        schemaKube,
+                        fullCommitRef,
+                        true
+                );
+            } else if (SchemaInitializer.BOOK_CONFIG_CM_NAME.equals(configMapName)) {
+                BookConfiguration.synchronizeBookConfig(settingsSpec.getBookConfig(), schemaKube, fullCommitRef);
+            } else {
+                Th2BoxConfigurations.synchronizeBoxConfigMap(
+                        configMapName,
+                        settingsSpec.getMqRouter(),
+                        settingsSpec.getGrpcRouter(),
+                        settingsSpec.getCradleManager(),
+                        fullCommitRef,
+                        schemaKube
+                );
+            }
+        } catch (Exception e) {
+            logger.error("Exception propagating change of config map \"{}\" to schema \"{}\"",
+                    configMapName, schemaName, e);
+        }
+    }
+
+    /**
+     * @return true if the recorded commit is still the head of the branch
+     * and custom resources in the namespace have exactly the recorded hashes
+     */
+    private boolean isLedgerEntryActual(SyncLedger.Entry entry,
+                                        Kubernetes schemaKube,
+                                        String fullCommitRef,
+                                        Map<String, String> resourceHashes) {
+        if (!fullCommitRef.equals(entry.getCommitRef())
+                || !schemaKube.getNamespaceName().equals(entry.getNamespace())
+                || !resourceHashes.equals(entry.getResourceHashes())
+                || !schemaKube.existsNamespace()) {
+            return false;
+        }
+        Map<String, String> expectedHashes = new HashMap<>();
+        entry.getResourceHashes().forEach((key, hash) -> {
+            ResourceType type = ResourceType.forKind(AppliedSchemaState.kindOf(key));
+            if (type != null && type.isMangedResource() && type != ResourceType.Th2Job) {
+                expectedHashes.put(key, hash);
+            }
+        });
+        Map<String, String> liveHashes = new HashMap<>();
+        loadCustomResources(schemaKube).forEach((kind, resources) -> resources.forEach((name, resource) ->
+                liveHashes.put(AppliedSchemaState.keyFor(kind, name), resource.getSourceHash())
+        ));
+        return expectedHashes.equals(liveHashes);
+    }
+
+    private AppliedSchemaState incrementalBaseFor(String schemaName, String namespace) {
+        SyncCfg syncCfg = config.getSync();
+        AppliedSchemaState state = appliedStates.get(schemaName);
+        if (!syncCfg.isIncremental() || state == null || K8sResourceCache.INSTANCE.isNamespaceDeleted(namespace)) {
+            return null;
+        }
+        if (System.currentTimeMillis() - state.getFullSyncTime() >= syncCfg.getFullSyncIntervalSec() * 1000L) {
+            logger.info("Scheduled full synchronization of schema \"{}\"", schemaName);
+            return null;
+        }
+        return state;
+    }
+
+    private static boolean isIncrementallyApplicable(Set<String> resourceKeys) {
+        // changes in settings or in non-CR files affect whole namespace
+        for (String key : resourceKeys) {
+            ResourceType type = ResourceType.forKind(AppliedSchemaState.kindOf(key));
+            if (type == null || !type.isMangedResource()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<CustomResourceOperation> planIncrementalOperations(
+            String schemaName,
+            String namespace,
+            Map<String, Map<String, RepositoryResource>> repositoryMap,
+            AppliedSchemaState appliedState,
+            Set<String> changedResources,
+            Set<String> removedResources) {
+
+        K8sResourceCache cache = K8sResourceCache.INSTANCE;
+        Map<String, String> appliedHashes = appliedState.getResourceHashes();
+        List<CustomResourceOperation> operations = new ArrayList<>();
+        for (String key : changedResources) {
+            String kind = AppliedSchemaState.kindOf(key);
+            if (ResourceType.forKind(kind) == ResourceType.Th2Job) {
+                continue;
+            }
+            RepositoryResource resource = repositoryMap.get(kind).get(AppliedSchemaState.nameOf(key));
+            cache.add(namespace, resource);
+            DynamicResourceProcessor.checkResource(resource, schemaName);
+            operations.add(appliedHashes.containsKey(key)
+                    ? CustomResourceOperation.replace(resource, appliedHashes.get(key))
+                    : CustomResourceOperation.create(resource));
+        }
+        for (String key : removedResources) {
+            String kind = AppliedSchemaState.kindOf(key);
+            if (ResourceType.forKind(kind) == ResourceType.Th2Job) {
+                continue;
+            }
+            var operation = CustomResourceOperation.delete(
+                    kind,
+                    AppliedSchemaState.nameOf(key),
+                    appliedHashes.get(key)
+            );
+            operations.add(operation);
+        }
+        return operations;
     }
 
     private Map<String, Map<String, K8sCustomResource>> loadCustomResources(Kubernetes kube) {
+        // operator's shared informers keep actual state of custom resources,
+        // fall back to listing resources until they are started and synced
+        Kubernetes anonKube = kubernetesService.getKubernetes();
         Map<String, Map<String, K8sCustomResource>> k8sResources = new HashMap<>();
         for (ResourceType t : ResourceType.values()) {
             if (t.isMangedResource() && !t.equals(ResourceType.Th2Job)) {
-                k8sResources.put(t.kind(), kube.loadCustomResources(t));
+                Map<String, K8sCustomResource> resources = anonKube.getCachedCustomResources(
+                        t,
+                        kube.getNamespaceName()
+                );
+                k8sResources.put(t.kind(), resources != null ? resources : kube.loadCustomResources(t));
             }
         }
         return k8sResources;
     }
 
+    /**
+     * Computes changes that synchronization of the current commit would make, nothing is applied
+     */
+    public SyncPlan planBranch(String branch) throws Exception {
+
+        GitterContext ctx = GitterContext.getContext(config.getGit());
+        Gitter gitter = ctx.getGitter(branch);
+        Kubernetes schemaKube = kubernetesService.getKubernetes(branch);
+        RepositorySnapshot snapshot = SnapshotCache.INSTANCE.load(gitter);
+        var repositoryMap = SchemaUtils.convertToRepositoryMap(snapshot.getResources());
+        RepositorySettingsResource repositorySettings = SchemaUtils.findSettingsResource(repositoryMap);
+
+        SyncPlan plan = new SyncPlan(branch, snapshot.getCommitRef());
+        if (repositorySettings != null && repositorySettings.getSpec().isK8sPropagationDenied()) {
+            plan.setAction(SyncPlan.ACTION_DELETE_NAMESPACE);
+            return plan;
+        }
+        if (repositorySettings == null || !repositorySettings.getSpec().isK8sSynchronizationRequired()
+                || repositorySettings.getSpec().getCradle().getKeyspace() == null) {
+            plan.setAction(SyncPlan.ACTION_IGNORE);
+            return plan;
+        }
+
+        SchemaValidationContext validationContext = validationCache.validate(branch, repositorySettings, repositoryMap);
+        if (!validationContext.isValid()) {
+            plan.setValidationErrors(validationContext.getReport());
+        }
+
+        RepositorySettingsSpec settingsSpec = repositorySettings.getSpec();
+        SchemaInitializer.plannedTargets(config, schemaKube, settingsSpec.getCradle())
+                .forEach(plan::addInitializerTarget);
+
+        planConfigMap(plan, schemaKube, LoggingConfigMap.LOGGING_CONFIGMAP_NAME_IN_NAMESPACE,
+                LoggingConfigMap.expectedLoggingConfigMapData(
+                        config.getKubernetes(),
+                        settingsSpec.getLogLevelRoot(),
+                        settingsSpec.getLogLevelTh2(),
+                        schemaKube));
+        planConfigMap(plan, schemaKube, SchemaInitializer.BOOK_CONFIG_CM_NAME,
+                BookConfiguration.expectedBookConfigData(settingsSpec.getBookConfig(), schemaKube));
+        Th2BoxConfigurations.expectedBoxConfigMaps(
+                settingsSpec.getMqRouter(),
+                settingsSpec.getGrpcRouter(),
+                settingsSpec.getCradleManager(),
+                schemaKube
+        ).forEach((name, data) -> planConfigMap(plan, schemaKube, name, data));
+
+        diffCustomResources(repositoryMap, loadCustomResources(schemaKube)).forEach(plan::addResource);
+        return plan;
+    }
+
+    private static void planConfigMap(SyncPlan plan, Kubernetes kube, String name, Map<String, String> expected) {
+        if (expected != null) {
+            ConfigMap current = kube.getConfigMap(name);
+            plan.addConfigMap(name, current == null ? null : current.getData(), expected);
+        }
+    }
+
     public void synchronizeBranch(String branch, long detectionTime) {
+        synchronizeBranch(branch, detectionTime, () -> false);
+    }
+
+    private void synchronizeBranch(String branch, long detectionTime, BooleanSupplier superseded) {
 
         if (!K8sCustomResource.isSchemaNameValid(branch)) {
             logger.error("Schema name \"{}\" is invalid. " +
@@ -260,17 +613,22 @@ public class K8sSynchronization {
             return;
         }
 
+        SyncRun run = new SyncRun(branch);
+        boolean complete = false;
         try {
             logger.info("Checking settings for schema \"{}\"", branch);
 
             // get repository items
             GitterContext ctx = GitterContext.getContext(config.getGit());
             Gitter gitter = ctx.getGitter(branch);
+            Kubernetes schemaKube = kubernetesService.getKubernetes(branch);
             RepositorySnapshot snapshot;
             RepositorySettingsResource repositorySettings;
+            AppliedSchemaState appliedState;
             try {
                 gitter.lock();
                 repositorySettings = Repository.getSettings(gitter);
+                appliedState = incrementalBaseFor(branch, schemaKube.getNamespaceName());
                 if (repositorySettings != null && repositorySettings.getSpec().isK8sPropagationDenied()) {
                     deleteNamespace(branch);
                     return;
@@ -278,6 +636,7 @@ public class K8sSynchronization {
                 if (repositorySettings == null || !repositorySettings.getSpec().isK8sSynchronizationRequired()) {
                     logger.info("Ignoring schema \"{}\" as it is not configured for synchronization",
                             branch);
+                    forgetApplied(branch);
                     return;
                 }
                 if (repositorySettings.getSpec().getCradle().getKeyspace() == null) {
@@ -295,33 +654,124 @@ public class K8sSynchronization {
             String shortCommitRef = getShortCommitRef(fullCommitRef);
 
             logger.info("Proceeding with schema \"{}\" [{}]", branch, shortCommitRef);
+            run.setCommitRef(fullCommitRef);
 
             var repositoryMap = SchemaUtils.convertToRepositoryMap(repositoryResources);
+            Map<String, String> resourceHashes = AppliedSchemaState.hashesOf(repositoryMap);
+
+            // first synchronization after restart is skipped if nothing has changed since the recorded one
+            SyncLedger.Entry ledgerEntry = syncLedger.takeStartupRecord(branch);
+            if (ledgerEntry != null && isLedgerEntryActual(ledgerEntry, schemaKube, fullCommitRef, resourceHashes)) {
+                logger.info("Custom resources of schema \"{}\" match the sync ledger, "
+                        + "synchronizing only namespace resources [{}]", branch, shortCommitRef);
+                run.setMode(SyncRun.MODE_LEDGER);
+                // ledger covers only custom resources, namespace infrastructure and derived config maps
+                // depend on infra-mgr namespace as well and are checked as usual
+                runStage(run, "ensureSchema", () -> {
+                    SchemaInitializer.ensureSchema(config, schemaKube, repositorySettings.getSpec().getCradle());
+                    return null;
+                });
+                synchronizeConfigMaps(branch, schemaKube, repositorySettings.getSpec(), fullCommitRef, run);
+                // custom resources are not planned, so they are registered here as a full synchronization would do
+                trackRepositoryResources(branch, schemaKube.getNamespaceName(), repositoryMap);
+                appliedStates.put(branch, new AppliedSchemaState(
+                        fullCommitRef,
+                        resourceHashes,
+                        ledgerEntry.getTime(),
+                        repositorySettings.getSpec()
+                ));
+                complete = true;
+                return;
+            }
 
-            // compress Dictionaries
-            repositoryMap.get(ResourceType.Th2Dictionary.kind())
-                    .values()
-                    .forEach(Th2DictionaryProcessor::compressData);
+            Set<String> changedResources = null;
+            Set<String> removedResources = null;
+            if (appliedState != null) {
+                changedResources = appliedState.changedResources(resourceHashes);
+                removedResources = appliedState.removedResources(resourceHashes);
+                if (!(isIncrementallyApplicable(changedResources) && isIncrementallyApplicable(removedResources))) {
+                    logger.info("Schema \"{}\" requires full synchronization [{}]", branch, shortCommitRef);
+                    appliedState = null;
+                }
+            }
 
             // add commit reference in annotations to every resource
             stampResources(repositoryMap, fullCommitRef, detectionTime);
+
+            List<CustomResourceOperation> incrementalOperations = null;
+            if (appliedState != null) {
+                run.setMode(SyncRun.MODE_INCREMENTAL);
+                incrementalOperations = planIncrementalOperations(
+                        branch,
+                        schemaKube.getNamespaceName(),
+                        repositoryMap,
+                        appliedState,
+                        changedResources,
+                        removedResources
+                );
+            }
+
             // synchronize entries
-            synchronizeNamespace(branch, repositoryMap, repositorySettings, fullCommitRef);
+            long syncTime = System.currentTimeMillis();
+            complete = synchronizeNamespace(
+                    branch,
+                    repositoryMap,
+                    repositorySettings,
+                    fullCommitRef,
+                    incrementalOperations,
+                    superseded,
+                    run
+            );
+            if (complete) {
+                markApplied(branch, schemaKube.getNamespaceName(), new AppliedSchemaState(
+                        fullCommitRef,
+                        resourceHashes,
+                        appliedState == null ? syncTime : appliedState.getFullSyncTime(),
+                        repositorySettings.getSpec()
+                ));
+            } else {
+                forgetApplied(branch);
+            }
 
         } catch (Exception e) {
+            forgetApplied(branch);
             logger.error("Exception synchronizing schema \"{}\"", branch, e);
+        } finally {
+            if (run.getCommitRef() != null) {
+                run.complete(complete);
+                syncRunHistory.add(run);
+            }
         }
     }
 
     @PostConstruct
     public void start() {
         logger.info("Starting Kubernetes synchronization phase");
+        SyncCfg syncCfg = config.getSync();
+        Th2DictionaryProcessor.setCacheCapacity(syncCfg.getDictionaryCacheSizeMb() * 1024L * 1024L);
+        Th2DictionaryProcessor.setCompressionLevel(syncCfg.getDictionaryCompressionLevel());
+        jobQueue = new K8sSynchronizationJobQueue(
+                K8sSynchronizationJobQueue.DEFAULT_AGING_INTERVAL_MS,
+                syncCfg.getDebounceIntervalMs(),
+                syncCfg.isPreemptSupersededSync()
+        );
         subscribeToRepositoryEvents();
+        shardCoordinator.addRebalanceListener(this::releaseForeignSchemas);
+    }
+
+    private void releaseForeignSchemas(Predicate<String> ownedBefore) {
+        for (String schemaName : appliedStates.keySet()) {
+            if (ownedBefore.test(schemaName) && !shardCoordinator.owns(schemaName)) {
+                logger.info("Schema \"{}\" has been moved to another replica", schemaName);
+                forgetApplied(schemaName);
+                DynamicResourceProcessor.deleteSchema(schemaName);
+            }
+        }
     }
 
     private void subscribeToRepositoryEvents() {
-        ExecutorService executor = Executors.newCachedThreadPool();
-        for (int i = 0; i < SYNC_PARALLELIZATION_THREADS; i++) {
+        ExecutorService executor = BlockingTaskExecutors.shared();
+        for (int i = 0; i < config.getSync().getWorkerThreads(); i++) {
             executor.execute(this::processRepositoryEvents);
         }
 
@@ -332,23 +782,53 @@ public class K8sSynchronization {
                 .filter(event -> ((event instanceof SynchronizationRequestEvent
                         || (event instanceof RepositoryUpdateEvent && !((RepositoryUpdateEvent) event).isSyncingK8s()))
                 ))
-                .subscribe(event -> jobQueue.addJob(new K8sSynchronizationJobQueue.Job(event.getSchema())));
+                .filter(event -> shardCoordinator.owns(event.getSchema()))
+                .subscribe(event -> {
+                    if (event instanceof SynchronizationRequestEvent) {
+                        // recovery requests always reconcile the whole namespace
+                        forgetApplied(event.getSchema());
+                        InitializerFingerprints.INSTANCE.invalidate(
+                                kubernetesService.getKubernetes(event.getSchema()).getNamespaceName());
+                    }
+                    jobQueue.addJob(new K8sSynchronizationJobQueue.Job(event.getSchema(), priorityOf(event)));
+                });
 
         logger.info("Kubernetes synchronization process subscribed to repository events");
     }
 
+    private static K8sSynchronizationJobQueue.Priority priorityOf(SchemaEvent event) {
+        if (event instanceof RepositoryUpdateEvent) {
+            RepositoryUpdateEvent updateEvent = (RepositoryUpdateEvent) event;
+            if (updateEvent.isUserCommit()) {
+                return K8sSynchronizationJobQueue.Priority.HIGH;
+            }
+            return updateEvent.isInitialSync()
+                    ? K8sSynchronizationJobQueue.Priority.LOW
+                    : K8sSynchronizationJobQueue.Priority.NORMAL;
+        }
+        return K8sSynchronizationJobQueue.Priority.HIGH;
+    }
+
     private void processRepositoryEvents() {
 
         logger.info("Kubernetes synchronization thread started. waiting for synchronization events");
         while (!Thread.currentThread().isInterrupted()) {
             try {
-                K8sSynchronizationJobQueue.Job job = jobQueue.takeJob();
-                if (job == null) {
-                    Thread.sleep(1000);
-                    continue;
+                K8sSynchronizationJobQueue.Job job = jobQueue.awaitJob();
+                try {
+                    // schema could have been moved to another replica while the job was queued
+                    if (!shardCoordinator.owns(job.getSchema())) {
+                        logger.info("Schema \"{}\" is owned by another replica, skipping synchronization",
+                                job.getSchema());
+                        continue;
+                    }
+                    if (job.isSynchronize()) {
+                        synchronizeBranch(job.getSchema(), job.getCreationTime(), job::isSuperseded);
+                    }
+                    job.getSourceChanges().forEach(name -> propagateSourceChange(job.getSchema(), name));
+                } finally {
+                    jobQueue.completeJob(job);
                 }
-                synchronizeBranch(job.getSchema(), job.getCreationTime());
-                jobQueue.completeJob(job);
             } catch (InterruptedException e) {
                 logger.info("Interrupt signal received. Exiting synchronization thread");
                 break;
@@ -1,5 +1,5 @@
 /*
- * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
+ * Copyright 2020-2023 Exactpro (Exactpro Systems Limited)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,89 +16,200 @@
 
 package com.exactpro.th2.inframgr.k8s;
 
+import com.exactpro.th2.inframgr.metrics.ManagerMetrics;
+
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 
+/*
+    Queue of schema synchronization jobs.
+    Only one job per schema is queued and only one job per schema can be in progress at a time.
+    Jobs are taken by priority, waiting jobs are promoted one priority level per aging interval
+    so that background synchronizations are not starved by user activity.
+    Job becomes available only after the schema had no updates during debounce interval,
+    so bursts of commits are coalesced in a single synchronization of the latest commit.
+    High priority jobs are not debounced.
+    Changes of source config maps are queued as jobs too, so they never run concurrently with synchronization
+    of the same schema
+ */
 public class K8sSynchronizationJobQueue {
+
+    public static final long DEFAULT_AGING_INTERVAL_MS = 30_000;
+
+    // job is not delayed by debouncing for longer than this number of debounce intervals
+    private static final int MAX_DEBOUNCE_INTERVALS = 10;
+
+    public enum Priority {
+        // user requests and commits made through the editor
+        HIGH,
+        // commits detected in the remote repository
+        NORMAL,
+        // startup and other background synchronizations
+        LOW
+    }
+
     public static class Job {
 
         private String schema;
 
+        private Priority priority;
+
         private long creationTime;
 
+        private long updateTime;
+
         private long processingTime;
 
         private long completionTime;
 
-        private int callId;
+        private volatile boolean superseded;
+
+        private boolean synchronize = true;
+
+        private final Set<String> sourceChanges = new LinkedHashSet<>();
 
         public Job(String schema) {
+            this(schema, Priority.NORMAL);
+        }
+
+        public Job(String schema, Priority priority) {
             this.schema = schema;
+            this.priority = priority;
             this.creationTime = System.currentTimeMillis();
+            this.updateTime = creationTime;
+        }
+
+        /**
+         * @return job which only pushes changed config map of infra-mgr namespace to the schema namespace
+         */
+        public static Job sourceChange(String schema, String configMapName) {
+            Job job = new Job(schema, Priority.NORMAL);
+            job.synchronize = false;
+            job.sourceChanges.add(configMapName);
+            return job;
         }
 
         public String getSchema() {
             return schema;
         }
 
+        /**
+         * @return false if job only propagates source changes and the schema itself is not synchronized
+         */
+        public boolean isSynchronize() {
+            return synchronize;
+        }
+
+        /**
+         * @return names of changed config maps of infra-mgr namespace, which are propagated after synchronization
+         */
+        public Set<String> getSourceChanges() {
+            return sourceChanges;
+        }
+
+        public Priority getPriority() {
+            return priority;
+        }
+
         public long getCreationTime() {
             return creationTime;
         }
+
+        /**
+         * @return true if newer job for the same schema was queued while this job is in progress
+         */
+        public boolean isSuperseded() {
+            return superseded;
+        }
     }
 
-    private LinkedHashMap<String, Job> jobQueue;
+    private final LinkedHashMap<String, Job> jobQueue;
+
+    private final Map<String, Job> jobsInProgress;
 
-    private Map<String, Job> jobsInProgress;
+    private final long agingIntervalMs;
+
+    private final long debounceIntervalMs;
+
+    private final boolean preemptSuperseded;
 
     public K8sSynchronizationJobQueue() {
+        this(DEFAULT_AGING_INTERVAL_MS);
+    }
+
+    public K8sSynchronizationJobQueue(long agingIntervalMs) {
+        this(agingIntervalMs, 0, false);
+    }
+
+    public K8sSynchronizationJobQueue(long agingIntervalMs, long debounceIntervalMs, boolean preemptSuperseded) {
         jobQueue = new LinkedHashMap<>();
         jobsInProgress = new HashMap<>();
+        this.agingIntervalMs = agingIntervalMs;
+        this.debounceIntervalMs = debounceIntervalMs;
+        this.preemptSuperseded = preemptSuperseded;
     }
 
     public synchronized void addJob(Job job) {
 
-        if (!jobQueue.containsKey(job.schema)) {
+        Job inProgress = jobsInProgress.get(job.schema);
+        if (inProgress != null && preemptSuperseded && job.synchronize) {
+            inProgress.superseded = true;
+        }
+
+        Job queued = jobQueue.get(job.schema);
+        if (queued == null) {
             jobQueue.put(job.schema, job);
+            ManagerMetrics.setSyncQueueDepth(jobQueue.size());
+            notifyAll();
+            return;
+        }
+        // keep position and creation time of the queued job, extend its quiet period and raise priority
+        queued.updateTime = job.updateTime;
+        if (job.priority.compareTo(queued.priority) < 0) {
+            queued.priority = job.priority;
         }
+        queued.synchronize |= job.synchronize;
+        queued.sourceChanges.addAll(job.sourceChanges);
     }
 
-    private volatile int callId = 0;
-
+    /**
+     * @return job which can be processed right now or null if there is no such job
+     */
     public synchronized Job takeJob() {
-        return takeJob(++callId);
-    }
-
-    private synchronized Job takeJob(int callId) {
 
-        if (jobQueue.isEmpty()) {
+        Job job = selectJob(System.currentTimeMillis());
+        if (job == null) {
             return null;
         }
 
-        Iterator<Job> iterator = jobQueue.values().iterator();
-        Job job = iterator.next();
-        iterator.remove();
+        jobQueue.remove(job.schema);
+        job.processingTime = System.currentTimeMillis();
+        jobsInProgress.put(job.schema, job);
 
-        // check if we are not already processing the job
-        // and return it as a result
-        if (!jobsInProgress.containsKey(job.schema)) {
-            job.processingTime = System.currentTimeMillis();
-            jobsInProgress.put(job.schema, job);
-            return job;
-        }
+        ManagerMetrics.setSyncQueueDepth(jobQueue.size());
+        ManagerMetrics.setSyncJobsInProgress(jobsInProgress.size());
+        ManagerMetrics.observeSyncQueueWaitTime(job.processingTime - job.creationTime);
+        return job;
+    }
 
-        // at this stage we are already processing this job in some thread
-        // return it and  take another
-        addJob(job);
+    /**
+     * Waits until some job can be processed
+     */
+    public synchronized Job awaitJob() throws InterruptedException {
 
-        if (job.callId == callId) {
-            // we have completed circle, no jobs can be taken at this point
-            return null;
+        Job job;
+        while ((job = takeJob()) == null) {
+            long delay = nextReadyDelay(System.currentTimeMillis());
+            if (delay > 0) {
+                wait(delay);
+            } else {
+                wait();
+            }
         }
-
-        job.callId = callId;
-        return takeJob(callId);
+        return job;
     }
 
     public synchronized Job completeJob(Job job) throws IllegalStateException {
@@ -107,8 +218,53 @@ public class K8sSynchronizationJobQueue {
             throw new IllegalStateException("Job \"" + job.schema + "\" was not found in active job list");
         }
         jobsInProgress.remove(job.schema);
+        ManagerMetrics.setSyncJobsInProgress(jobsInProgress.size());
+        // job for the same schema might be waiting in the queue
+        notifyAll();
 
         job.completionTime = System.currentTimeMillis();
         return job;
     }
+
+    private Job selectJob(long now) {
+
+        // queue keeps insertion order, so the oldest job wins among jobs with the same rank
+        Job selected = null;
+        long selectedRank = Long.MAX_VALUE;
+        for (Job job : jobQueue.values()) {
+            if (jobsInProgress.containsKey(job.schema) || readyTime(job) > now) {
+                continue;
+            }
+            long rank = job.priority.ordinal() - (now - job.creationTime) / agingIntervalMs;
+            if (rank < selectedRank) {
+                selected = job;
+                selectedRank = rank;
+            }
+        }
+        return selected;
+    }
+
+    private long readyTime(Job job) {
+        if (job.priority == Priority.HIGH) {
+            // user commits and synchronization requests are not delayed
+            return job.creationTime;
+        }
+        return Math.min(job.updateTime + debounceIntervalMs,
+                job.creationTime + debounceIntervalMs * MAX_DEBOUNCE_INTERVALS);
+    }
+
+    /**
+     * @return time until the first debounced job becomes available or 0 if there are no such jobs
+     */
+    private long nextReadyDelay(long now) {
+
+        long delay = 0;
+        for (Job job : jobQueue.values()) {
+            long jobDelay = readyTime(job) - now;
+            if (!jobsInProgress.containsKey(job.schema) && jobDelay > 0 && (delay == 0 || jobDelay < delay)) {
+                delay = jobDelay;
+            }
+        }
+        return delay;
+    }
 }
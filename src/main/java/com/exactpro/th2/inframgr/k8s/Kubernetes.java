@@ -23,6 +23,7 @@ import com.exactpro.th2.infrarepo.ResourceType;
 import com.exactpro.th2.infrarepo.repo.RepositoryResource;
 import io.fabric8.kubernetes.api.model.*;
 import io.fabric8.kubernetes.api.model.apps.Deployment;
+import io.fabric8.kubernetes.api.model.coordination.v1.Lease;
 import io.fabric8.kubernetes.client.*;
 import io.fabric8.kubernetes.client.ConfigBuilder;
 import io.fabric8.kubernetes.client.dsl.MixedOperation;
@@ -35,7 +36,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.Closeable;
+import java.net.HttpURLConnection;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.Lock;
 
 import static com.exactpro.th2.inframgr.initializer.SchemaInitializer.HELM_ANNOTATION_KEY_PREFIX;
@@ -54,6 +57,8 @@ public class Kubernetes implements Closeable {
 
     public static final String KIND_POD = "Pod";
 
+    public static final String KIND_NAMESPACE = "Namespace";
+
     public static final String PHASE_ACTIVE = "Active";
 
     public static final String SECRET_TYPE_OPAQUE = "Opaque";
@@ -62,6 +67,10 @@ public class Kubernetes implements Closeable {
 
     private static final String ANTECEDENT_ANNOTATION_KEY = "th2.exactpro.com/antecedent";
 
+    private static final String NAMESPACE_INDEX = "th2-namespace";
+
+    private static final int CONFLICT_RETRY_ATTEMPTS = 3;
+
     private final boolean permittedToRemoveNamespace;
 
     private final String namespacePrefix;
@@ -124,36 +133,34 @@ public class Kubernetes implements Closeable {
             String namespace) {
 
         K8sResourceCache cache = K8sResourceCache.INSTANCE;
-        Lock lock = cache.lockFor(namespace, repoResource.getKind(), repoResource.getMetadata().getName());
+        String name = repoResource.getMetadata().getName();
+        Lock lock = cache.lockFor(namespace, repoResource.getKind(), name);
 
         try {
             lock.lock();
 
             MixedOperation<T, L, Resource<T>> operation = operations.get(repoResource.getKind());
-            var customResourceList = operation.inNamespace(namespace).list();
-            List<T> customResources = customResourceList.getItems();
-            boolean resourceUpdated = false;
-
-            if (!customResources.isEmpty()) {
-                for (T k8sResource : customResources) {
-                    if (k8sResource.getMetadata().getName().equals(repoResource.getMetadata().getName())) {
-                        k8sResource.getMetadata().setAnnotations(repoResource.getMetadata().getAnnotations());
-                        k8sResource.setSpec(repoResource.getSpec());
-                        k8sResource.setSourceHash(repoResource.getSourceHash());
-                        operation.inNamespace(namespace).resource(k8sResource).createOrReplace();
-
-                        cache.add(namespace, k8sResource);
-                        resourceUpdated = true;
-                        break;
+            for (int attempt = 1; ; attempt++) {
+                T k8sResource = operation.inNamespace(namespace).withName(name).get();
+                try {
+                    if (k8sResource == null) {
+                        K8sCustomResource newResource = buildCustomResource(repoResource, namespace);
+                        operation.inNamespace(namespace).resource((T) newResource).create();
+
+                        cache.add(namespace, newResource);
+                        return;
                     }
-                }
-            }
 
-            if (!resourceUpdated) {
-                K8sCustomResource k8sResource = buildCustomResource(repoResource, namespace);
-                operation.inNamespace(namespace).resource((T) k8sResource).create();
+                    k8sResource.getMetadata().setAnnotations(copyOf(repoResource.getMetadata().getAnnotations()));
+                    k8sResource.setSpec(repoResource.getSpec());
+                    k8sResource.setSourceHash(repoResource.getSourceHash());
+                    operation.inNamespace(namespace).resource(k8sResource).update();
 
-                cache.add(namespace, k8sResource);
+                    cache.add(namespace, k8sResource);
+                    return;
+                } catch (KubernetesClientException e) {
+                    checkConflictRetry(e, attempt, namespace, repoResource);
+                }
             }
 
         } finally {
@@ -161,10 +168,27 @@ public class Kubernetes implements Closeable {
         }
     }
 
+    private void checkConflictRetry(KubernetesClientException e,
+                                    int attempt,
+                                    String namespace,
+                                    RepositoryResource repoResource) {
+        // resource was modified or created concurrently, re-read it and try again
+        if (e.getCode() != HttpURLConnection.HTTP_CONFLICT || attempt >= CONFLICT_RETRY_ATTEMPTS) {
+            throw e;
+        }
+        LOGGER.warn("Conflict writing \"{}:{}/{}\", retrying ({}/{})", namespace, repoResource.getKind(),
+                repoResource.getMetadata().getName(), attempt, CONFLICT_RETRY_ATTEMPTS);
+    }
+
     private K8sCustomResource buildCustomResource(RepositoryResource repoResource, String namespace) {
         K8sCustomResource k8sResource = new K8sCustomResource();
-        ObjectMeta metaData = repoResource.getMetadata();
+        // repository resources may belong to shared snapshots, so their metadata is never modified
+        ObjectMeta source = repoResource.getMetadata();
+        ObjectMeta metaData = new ObjectMeta();
+        metaData.setName(source.getName());
         metaData.setNamespace(namespace);
+        metaData.setLabels(copyOf(source.getLabels()));
+        metaData.setAnnotations(copyOf(source.getAnnotations()));
         k8sResource.setMetadata(metaData);
         k8sResource.setSourceHash(repoResource.getSourceHash());
         k8sResource.setCommitHash(repoResource.getCommitHash());
@@ -175,6 +199,10 @@ public class Kubernetes implements Closeable {
         return k8sResource;
     }
 
+    private static Map<String, String> copyOf(Map<String, String> map) {
+        return map == null ? null : new HashMap<>(map);
+    }
+
     public void createCustomResource(RepositoryResource repoResource) {
         createCustomResource(repoResource, namespace);
     }
@@ -209,32 +237,33 @@ public class Kubernetes implements Closeable {
             String namespace) throws ResourceNotFoundException {
 
         K8sResourceCache cache = K8sResourceCache.INSTANCE;
-        Lock lock = cache.lockFor(namespace, repoResource.getKind(), repoResource.getMetadata().getName());
+        String name = repoResource.getMetadata().getName();
+        Lock lock = cache.lockFor(namespace, repoResource.getKind(), name);
 
         try {
             lock.lock();
 
             MixedOperation<T, L, Resource<T>> operation = operations.get(repoResource.getKind());
-            var customResourceList = operation.inNamespace(namespace).list();
-            List<T> customResources = customResourceList.getItems();
-
-            if (!customResources.isEmpty()) {
-                for (T k8sResource : customResources) {
-                    if (k8sResource.getMetadata().getName().equals(repoResource.getMetadata().getName())) {
-
-                        k8sResource.getMetadata().setAnnotations(repoResource.getMetadata().getAnnotations());
-                        k8sResource.setSpec(repoResource.getSpec());
-                        k8sResource.setSourceHash(repoResource.getSourceHash());
-                        k8sResource.setCommitHash(repoResource.getCommitHash());
-                        k8sResource.setDetectionTime(repoResource.getDetectionTime());
-                        operation.inNamespace(namespace).resource(k8sResource).createOrReplace();
+            for (int attempt = 1; ; attempt++) {
+                T k8sResource = operation.inNamespace(namespace).withName(name).get();
+                if (k8sResource == null) {
+                    throw new ResourceNotFoundException("Resource to replace does not exists");
+                }
 
-                        cache.add(namespace, k8sResource);
-                        return;
-                    }
+                k8sResource.getMetadata().setAnnotations(copyOf(repoResource.getMetadata().getAnnotations()));
+                k8sResource.setSpec(repoResource.getSpec());
+                k8sResource.setSourceHash(repoResource.getSourceHash());
+                k8sResource.setCommitHash(repoResource.getCommitHash());
+                k8sResource.setDetectionTime(repoResource.getDetectionTime());
+                try {
+                    operation.inNamespace(namespace).resource(k8sResource).update();
+
+                    cache.add(namespace, k8sResource);
+                    return;
+                } catch (KubernetesClientException e) {
+                    checkConflictRetry(e, attempt, namespace, repoResource);
                 }
             }
-            throw new ResourceNotFoundException("Resource to replace does not exists");
 
         } finally {
             lock.unlock();
@@ -302,25 +331,30 @@ public class Kubernetes implements Closeable {
     }
 
     public boolean existsNamespace() {
-
-        NamespaceList list = client.namespaces().list();
-        for (Namespace ns : list.getItems()) {
-            if (ns.getMetadata().getName().equals(namespace)) {
-                return true;
-            }
-        }
-        return false;
+        return getNamespace(namespace) != null;
     }
 
     public boolean namespaceActive() {
-        String namespacePhase = client.namespaces().withName(namespace).get().getStatus().getPhase();
+        String namespacePhase = getNamespace(namespace).getStatus().getPhase();
         return namespacePhase.equals(Kubernetes.PHASE_ACTIVE);
     }
 
     public Namespace getNamespace(String namespace) {
+        NamespaceCache cache = NamespaceCache.INSTANCE;
+        if (cache.isSynced() && cache.isServed(namespace)) {
+            Namespace cached = cache.get(namespace);
+            // informer can lag behind namespace which has just been created by this process
+            if (cached != null || !cache.takeCreated(namespace)) {
+                return cached;
+            }
+        }
         return client.namespaces().withName(namespace).get();
     }
 
+    public SharedIndexInformer<Namespace> informNamespaces() {
+        return client.namespaces().inform();
+    }
+
     public void deleteNamespace() {
         if (permittedToRemoveNamespace) {
             Collection<StatusDetails> statusDetails = client.namespaces().withName(namespace).delete();
@@ -339,6 +373,7 @@ public class Kubernetes implements Closeable {
         ns.setMetadata(meta);
 
         client.resource(ns).create();
+        NamespaceCache.INSTANCE.created(namespace);
     }
 
     public ConfigMap getConfigMap(String configMapName) {
@@ -395,6 +430,7 @@ public class Kubernetes implements Closeable {
 
     private SharedIndexInformer<K8sCustomResource> registerSharedInformerForCustomResource(
             ResourceEventHandler<K8sCustomResource> eventHandler,
+            ResourceType resourceType,
             Class type) {
 
         SharedIndexInformer<K8sCustomResource> customResourceInformer = informerFactory.sharedIndexInformerFor(
@@ -402,7 +438,11 @@ public class Kubernetes implements Closeable {
                 0
         );
 
+        customResourceInformer.addIndexers(Map.of(
+                NAMESPACE_INDEX, resource -> List.of(resource.getMetadata().getNamespace())
+        ));
         customResourceInformer.addEventHandler(new FilteringResourceEventHandler().wrap(eventHandler));
+        customResourceInformers.put(resourceType.kind(), customResourceInformer);
 
         return customResourceInformer;
     }
@@ -421,11 +461,28 @@ public class Kubernetes implements Closeable {
         registerCustomKind(ResourceType.Th2Mstore.k8sApiVersion(), ResourceType.Th2Mstore.kind(), Th2Mstore.Type.class);
 
         //Register informers for custom resources
-        registerSharedInformerForCustomResource(eventHandler, Th2Box.Type.class);
-        registerSharedInformerForCustomResource(eventHandler, Th2CoreBox.Type.class);
-        registerSharedInformerForCustomResource(eventHandler, Th2Dictionary.Type.class);
-        registerSharedInformerForCustomResource(eventHandler, Th2Estore.Type.class);
-        registerSharedInformerForCustomResource(eventHandler, Th2Mstore.Type.class);
+        registerSharedInformerForCustomResource(eventHandler, ResourceType.Th2Box, Th2Box.Type.class);
+        registerSharedInformerForCustomResource(eventHandler, ResourceType.Th2CoreBox, Th2CoreBox.Type.class);
+        registerSharedInformerForCustomResource(eventHandler, ResourceType.Th2Dictionary, Th2Dictionary.Type.class);
+        registerSharedInformerForCustomResource(eventHandler, ResourceType.Th2Estore, Th2Estore.Type.class);
+        registerSharedInformerForCustomResource(eventHandler, ResourceType.Th2Mstore, Th2Mstore.Type.class);
+    }
+
+    /**
+     * Reads custom resources of the given type from the shared informer store instead of the API server.
+     * @return resources mapped by name or null if informer for the type is not registered or not synced yet
+     */
+    public Map<String, K8sCustomResource> getCachedCustomResources(ResourceType type, String namespace) {
+        SharedIndexInformer<K8sCustomResource> informer = customResourceInformers.get(type.kind());
+        if (informer == null || !informer.hasSynced()) {
+            return null;
+        }
+
+        Map<String, K8sCustomResource> resources = new HashMap<>();
+        for (K8sCustomResource k8sResource : informer.getIndexer().byIndex(NAMESPACE_INDEX, namespace)) {
+            resources.put(k8sResource.getMetadata().getName(), k8sResource);
+        }
+        return resources;
     }
 
     public void registerSharedInformersAll(ResourceEventHandler eventHandler) {
@@ -446,16 +503,19 @@ public class Kubernetes implements Closeable {
                 .addEventHandler(filteringEventHandled);
     }
 
-    private Map<String, Secret> mapOf(List<Secret> secrets) {
-        Map<String, Secret> map = new HashMap<>();
-        if (secrets != null) {
-            secrets.forEach(secret -> map.put(secret.getMetadata().getName(), secret));
+    private <T extends HasMetadata> Map<String, T> mapOf(List<T> resources) {
+        Map<String, T> map = new HashMap<>();
+        if (resources != null) {
+            resources.forEach(resource -> map.put(resource.getMetadata().getName(), resource));
         }
         return map;
     }
 
     private SharedInformerFactory informerFactory;
 
+    private final Map<String, SharedIndexInformer<K8sCustomResource>> customResourceInformers =
+            new ConcurrentHashMap<>();
+
     private synchronized SharedInformerFactory getInformerFactory() {
         if (informerFactory == null) {
             informerFactory = client.informers();
@@ -485,7 +545,7 @@ public class Kubernetes implements Closeable {
         this.currentNamespace = new CurrentNamespace();
 
         if (!config.useCustomConfig()) {
-            client = new KubernetesClientBuilder().build();
+            client = KubernetesRateLimiter.clientBuilder().build();
             generateMixedOperations();
             return;
         }
@@ -515,7 +575,7 @@ public class Kubernetes implements Closeable {
             configBuilder.withClientKeyFile(config.getClientKeyFile());
         }
 
-        client = new KubernetesClientBuilder().withConfig(configBuilder.build()).build();
+        client = KubernetesRateLimiter.clientBuilder().withConfig(configBuilder.build()).build();
         generateMixedOperations();
     }
 
@@ -568,13 +628,58 @@ public class Kubernetes implements Closeable {
 
     public final class CurrentNamespace {
         public ConfigMap getConfigMap(String name) {
+            if (SourceResourceCache.INSTANCE.isSynced()) {
+                return SourceResourceCache.INSTANCE.getConfigMap(name);
+            }
             return client.configMaps().withName(name).get();
         }
 
+        public Secret getSecret(String name) {
+            if (SourceResourceCache.INSTANCE.isSynced()) {
+                return SourceResourceCache.INSTANCE.getSecret(name);
+            }
+            return client.secrets().withName(name).get();
+        }
+
         public Map<String, Secret> getSecrets() {
+            if (SourceResourceCache.INSTANCE.isSynced()) {
+                return SourceResourceCache.INSTANCE.getSecrets();
+            }
             return mapOf(client.secrets().list().getItems());
         }
 
+        public Map<String, ConfigMap> getConfigMaps() {
+            if (SourceResourceCache.INSTANCE.isSynced()) {
+                return SourceResourceCache.INSTANCE.getConfigMaps();
+            }
+            return mapOf(client.configMaps().list().getItems());
+        }
+
+        public String getNamespaceName() {
+            return client.getNamespace();
+        }
+
+        public SharedIndexInformer<ConfigMap> informConfigMaps(ResourceEventHandler<ConfigMap> handler) {
+            return client.configMaps().inform(handler);
+        }
+
+        public SharedIndexInformer<Secret> informSecrets(ResourceEventHandler<Secret> handler) {
+            return client.secrets().inform(handler);
+        }
+
+        public List<Lease> getLeases(String label, String value) {
+            return client.resources(Lease.class).withLabel(label, value).list().getItems();
+        }
+
+        public Lease createOrReplaceLease(Lease lease) {
+            lease.getMetadata().setNamespace(client.getNamespace());
+            return client.resource(lease).createOrReplace();
+        }
+
+        public void deleteLease(String name) {
+            client.resources(Lease.class).withName(name).delete();
+        }
+
         public ServiceMonitor.Type loadServiceMonitor(String name) {
             return Kubernetes.this.loadServiceMonitor(client.getNamespace(), name);
         }
@@ -0,0 +1,273 @@
+/*
+ * Copyright 2023 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exactpro.th2.inframgr.k8s;
+
+import com.exactpro.th2.inframgr.metrics.ManagerMetrics;
+import com.exactpro.th2.inframgr.util.cfg.K8sRateLimitCfg;
+import io.fabric8.kubernetes.client.KubernetesClientBuilder;
+import io.fabric8.kubernetes.client.http.BasicBuilder;
+import io.fabric8.kubernetes.client.http.HttpRequest;
+import io.fabric8.kubernetes.client.http.HttpResponse;
+import io.fabric8.kubernetes.client.http.Interceptor;
+import io.fabric8.kubernetes.client.http.RequestTags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+    Client side throttling shared by all kubernetes clients of the application.
+    Requests are limited by token buckets per verb (read/write) and per namespace,
+    rate is halved when API server responds with 429 and slowly restored afterwards (AIMD).
+    Retry-After header of throttled responses pauses requests of the verb.
+    Waiting blocks the calling thread, so watch requests are never throttled
+    to keep informer and watch threads from stalling
+ */
+public enum KubernetesRateLimiter implements Interceptor {
+    INSTANCE;
+
+    public static final String INTERCEPTOR_NAME = "th2-rate-limiter";
+
+    private static final Logger logger = LoggerFactory.getLogger(KubernetesRateLimiter.class);
+
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+
+    private static final long DEFAULT_RETRY_AFTER_MS = 1000;
+
+    // rate is not restored until there were no throttled responses during this interval
+    private static final long RECOVERY_DELAY_MS = 10_000;
+
+    // share of the maximum rate restored per second of recovery
+    private static final double RECOVERY_STEP = 0.05;
+
+    private static final Pattern NAMESPACE_PATTERN = Pattern.compile("/namespaces/([^/?]+)/");
+
+    private static final Pattern WATCH_PATTERN = Pattern.compile("(^|&)watch=(true|1)(&|$)");
+
+    public enum Verb {
+        READ,
+        WRITE
+    }
+
+    private static class TokenBucket {
+
+        private final double maxRate;
+
+        private double rate;
+
+        private double tokens;
+
+        private long lastRefill;
+
+        private long pausedUntil;
+
+        private long lastThrottled;
+
+        TokenBucket(double maxRate, long now) {
+            this.maxRate = maxRate;
+            this.rate = maxRate;
+            this.tokens = Math.max(1, maxRate);
+            this.lastRefill = now;
+        }
+
+        /**
+         * Halves the rate, it is restored up to the configured maximum once throttling stops
+         */
+        void decrease(double minRate, long now) {
+            refill(now);
+            rate = Math.max(minRate, rate / 2);
+            tokens = Math.min(tokens, 0);
+            lastThrottled = now;
+        }
+
+        void refill(long now) {
+            double elapsedSec = (now - lastRefill) / 1e9;
+            lastRefill = now;
+            if (rate < maxRate && now - lastThrottled > TimeUnit.MILLISECONDS.toNanos(RECOVERY_DELAY_MS)) {
+                rate = Math.min(maxRate, rate + maxRate * RECOVERY_STEP * elapsedSec);
+            }
+            tokens = Math.min(Math.max(1, rate), tokens + rate * elapsedSec);
+        }
+
+        /**
+         * @return nanoseconds to wait before the next attempt or 0 if token was taken
+         */
+        long tryTake(long now) {
+            refill(now);
+            if (pausedUntil > now) {
+                return pausedUntil - now;
+            }
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) ((1 - tokens) / rate * 1e9);
+        }
+    }
+
+    private volatile K8sRateLimitCfg config = new K8sRateLimitCfg();
+
+    private final Map<Verb, TokenBucket> verbBuckets = new ConcurrentHashMap<>();
+
+    private final Map<String, TokenBucket> namespaceBuckets = new ConcurrentHashMap<>();
+
+    public synchronized void configure(K8sRateLimitCfg config) {
+        this.config = config;
+        verbBuckets.clear();
+        namespaceBuckets.clear();
+    }
+
+    /**
+     * @return builder of kubernetes clients throttled by this limiter
+     */
+    public static KubernetesClientBuilder clientBuilder() {
+        return new KubernetesClientBuilder().withHttpClientBuilderConsumer(
+                builder -> builder.addOrReplaceInterceptor(INTERCEPTOR_NAME, INSTANCE)
+        );
+    }
+
+    @Override
+    public void before(BasicBuilder builder, HttpRequest request, RequestTags tags) {
+        if (!config.isEnabled() || isWatch(request.uri().getQuery())) {
+            return;
+        }
+        Verb verb = verbOf(request.method());
+        String namespace = namespaceOf(request.uri().getPath());
+        long start = System.nanoTime();
+        try {
+            acquire(verb, namespace);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            ManagerMetrics.observeK8sLimiterWaitTime(verb.name().toLowerCase(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    @Override
+    public CompletableFuture<Boolean> afterFailure(BasicBuilder builder,
+                                                   HttpResponse<?> response,
+                                                   RequestTags tags) {
+        if (response.code() == HTTP_TOO_MANY_REQUESTS) {
+            throttled(verbOf(response.request().method()), retryAfterMs(response.header("Retry-After")));
+        }
+        return CompletableFuture.completedFuture(false);
+    }
+
+    private void acquire(Verb verb, String namespace) throws InterruptedException {
+        while (true) {
+            long waitNanos;
+            synchronized (this) {
+                long now = System.nanoTime();
+                TokenBucket verbBucket = verbBucket(verb, now);
+                TokenBucket namespaceBucket = namespace == null ? null : namespaceBucket(verb, namespace, now);
+                waitNanos = namespaceBucket == null ? 0 : namespaceBucket.tryTake(now);
+                if (waitNanos == 0) {
+                    waitNanos = verbBucket.tryTake(now);
+                    if (waitNanos > 0 && namespaceBucket != null) {
+                        // give namespace token back as request is not sent yet
+                        namespaceBucket.tokens += 1;
+                    }
+                }
+            }
+            if (waitNanos == 0) {
+                return;
+            }
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    private void throttled(Verb verb, long retryAfterMs) {
+        throttled(verb, retryAfterMs, System.nanoTime());
+    }
+
+    /**
+     * Halves rates of the verb after API server responded with 429
+     *
+     * @param now time of the response in {@link System#nanoTime()} units
+     */
+    public synchronized void throttled(Verb verb, long retryAfterMs, long now) {
+        TokenBucket bucket = verbBucket(verb, now);
+        bucket.decrease(config.getMinQps(), now);
+        bucket.pausedUntil = Math.max(bucket.pausedUntil, now + TimeUnit.MILLISECONDS.toNanos(retryAfterMs));
+        // maximum rates stay as configured, so that recovery restores them after every 429
+        namespaceBuckets.forEach((key, namespaceBucket) -> {
+            if (key.startsWith(verb + ":")) {
+                namespaceBucket.decrease(config.getMinQps(), now);
+            }
+        });
+        logger.warn("Kubernetes API throttled {} requests, limiting rate to {} per second for {} ms",
+                verb, String.format("%.1f", bucket.rate), retryAfterMs);
+        ManagerMetrics.countK8sThrottledRequest(verb.name().toLowerCase());
+        ManagerMetrics.setK8sLimiterRate(verb.name().toLowerCase(), bucket.rate);
+    }
+
+    /**
+     * @param namespace namespace of the requests or null for the rate of the whole verb
+     * @param now       time in {@link System#nanoTime()} units
+     * @return current rate of the requests per second
+     */
+    public synchronized double getRate(Verb verb, String namespace, long now) {
+        TokenBucket bucket = namespace == null ? verbBucket(verb, now) : namespaceBucket(verb, namespace, now);
+        bucket.refill(now);
+        return bucket.rate;
+    }
+
+    private TokenBucket verbBucket(Verb verb, long now) {
+        return verbBuckets.computeIfAbsent(verb, v -> new TokenBucket(maxRate(v), now));
+    }
+
+    private TokenBucket namespaceBucket(Verb verb, String namespace, long now) {
+        return namespaceBuckets.computeIfAbsent(verb + ":" + namespace,
+                key -> new TokenBucket(maxRate(verb) * config.getNamespaceShare(), now));
+    }
+
+    private double maxRate(Verb verb) {
+        return verb == Verb.READ ? config.getReadQps() : config.getWriteQps();
+    }
+
+    static Verb verbOf(String method) {
+        return "GET".equalsIgnoreCase(method) || "HEAD".equalsIgnoreCase(method) ? Verb.READ : Verb.WRITE;
+    }
+
+    static boolean isWatch(String query) {
+        return query != null && WATCH_PATTERN.matcher(query).find();
+    }
+
+    static String namespaceOf(String path) {
+        if (path == null) {
+            return null;
+        }
+        Matcher matcher = NAMESPACE_PATTERN.matcher(path + "/");
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    static long retryAfterMs(String retryAfter) {
+        if (retryAfter == null) {
+            return DEFAULT_RETRY_AFTER_MS;
+        }
+        try {
+            return TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter.trim()));
+        } catch (NumberFormatException e) {
+            return DEFAULT_RETRY_AFTER_MS;
+        }
+    }
+}
@@ -56,6 +56,7 @@ public class KubernetesService {
     @PostConstruct
     private void postConstruct() {
         LOGGER.info("Initialising kubernetes controller");
+        KubernetesRateLimiter.INSTANCE.configure(config.getKubernetes().getRateLimit());
         defaultClient = new Kubernetes(config.getBehaviour(), config.getKubernetes(), null);
     }
 
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2023 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.inframgr.k8s;
+
+import io.fabric8.kubernetes.api.model.Namespace;
+import io.fabric8.kubernetes.api.model.NamespaceBuilder;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+    Informer backed cache of schema namespaces, only namespaces with the configured prefix are served.
+    Copies are returned as callers are free to modify loaded resources.
+    Namespaces created by this process are remembered until they are first looked up,
+    as informer can lag behind such namespace
+ */
+public enum NamespaceCache {
+    INSTANCE;
+
+    private volatile String namespacePrefix;
+
+    private volatile SharedIndexInformer<Namespace> informer;
+
+    private final Set<String> created = ConcurrentHashMap.newKeySet();
+
+    void start(String namespacePrefix, SharedIndexInformer<Namespace> informer) {
+        this.namespacePrefix = namespacePrefix;
+        this.informer = informer;
+    }
+
+    void stop() {
+        SharedIndexInformer<Namespace> namespaces = informer;
+        informer = null;
+        if (namespaces != null) {
+            namespaces.stop();
+        }
+    }
+
+    public boolean isSynced() {
+        SharedIndexInformer<Namespace> namespaces = informer;
+        return namespaces != null && namespaces.isRunning() && namespaces.hasSynced();
+    }
+
+    public boolean isServed(String name) {
+        return name.startsWith(namespacePrefix);
+    }
+
+    void created(String name) {
+        created.add(name);
+    }
+
+    /**
+     * @return true only for the first call after namespace has been created by this process
+     */
+    boolean takeCreated(String name) {
+        return created.remove(name);
+    }
+
+    /**
+     * @return namespace or null if it does not exist or does not match the prefix
+     */
+    public Namespace get(String name) {
+        if (!name.startsWith(namespacePrefix)) {
+            return null;
+        }
+        Namespace namespace = informer.getStore().getByKey(name);
+        if (namespace == null) {
+            return null;
+        }
+        created.remove(name);
+        return new NamespaceBuilder(namespace).build();
+    }
+
+    public List<String> getNames() {
+        return informer.getStore().list().stream()
+                .map(namespace -> namespace.getMetadata().getName())
+                .filter(name -> name.startsWith(namespacePrefix))
+                .toList();
+    }
+}
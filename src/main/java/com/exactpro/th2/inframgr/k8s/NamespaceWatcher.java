@@ -0,0 +1,71 @@
+/*
+ * Copyright 2023 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.inframgr.k8s;
+
+import com.exactpro.th2.inframgr.Config;
+import io.fabric8.kubernetes.api.model.Namespace;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/*
+    Keeps schema namespaces in NamespaceCache, so that namespace existence and phase checks
+    and lookups of extinct namespaces do not list or get namespaces from Kubernetes
+ */
+@Component
+public class NamespaceWatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(NamespaceWatcher.class);
+
+    @Autowired
+    private Config config;
+
+    @Autowired
+    private KubernetesService kubernetesService;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    private void startInformer() {
+        try {
+            SharedIndexInformer<Namespace> informer = kubernetesService.getKubernetes().informNamespaces();
+            NamespaceCache.INSTANCE.start(config.getKubernetes().getNamespacePrefix(), informer);
+            logger.info("Watching namespaces with prefix \"{}\"", config.getKubernetes().getNamespacePrefix());
+        } catch (Exception e) {
+            logger.error("Exception starting namespace informer, namespaces will be loaded from Kubernetes", e);
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        if (config.getSync().isWatchNamespaces()) {
+            executor.execute(this::startInformer);
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        NamespaceCache.INSTANCE.stop();
+        executor.shutdown();
+    }
+}
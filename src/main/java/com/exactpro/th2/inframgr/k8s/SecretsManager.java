@@ -17,10 +17,11 @@
 package com.exactpro.th2.inframgr.k8s;
 
 import com.exactpro.th2.inframgr.SecretsController;
+import com.exactpro.th2.inframgr.initializer.InitializerFingerprints;
+import com.exactpro.th2.inframgr.initializer.SchemaInitializer;
 import com.exactpro.th2.inframgr.statuswatcher.ResourcePath;
 import io.fabric8.kubernetes.api.model.Secret;
 import io.fabric8.kubernetes.client.KubernetesClient;
-import io.fabric8.kubernetes.client.KubernetesClientBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -36,7 +37,7 @@ public class SecretsManager {
 
     public static final String DEFAULT_SECRET_NAME = "secret-custom-config";
 
-    private final KubernetesClient kubernetesClient = new KubernetesClientBuilder().build();
+    private final KubernetesClient kubernetesClient = KubernetesRateLimiter.clientBuilder().build();
 
     private final String prefix;
 
@@ -47,9 +48,14 @@ public class SecretsManager {
     public Secret getCustomSecret(String schemaName) {
         String namespace = prefix + schemaName;
         try {
-            return kubernetesClient.secrets()
+            Secret secret = kubernetesClient.secrets()
                     .inNamespace(namespace)
                     .withName(DEFAULT_SECRET_NAME).get();
+            if (secret == null) {
+                // let the next synchronization recreate it
+                InitializerFingerprints.INSTANCE.invalidate(namespace, SchemaInitializer.CUSTOM_SECRETS_STEP);
+            }
+            return secret;
         } catch (Exception e) {
             logger.error("Exception while getting secrets from \"{}\"", namespace, e);
             throw e;
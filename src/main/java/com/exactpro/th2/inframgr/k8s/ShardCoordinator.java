@@ -0,0 +1,235 @@
+/*
+ * Copyright 2023 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.inframgr.k8s;
+
+import com.exactpro.th2.inframgr.Config;
+import com.exactpro.th2.inframgr.util.cfg.K8sShardingCfg;
+import io.fabric8.kubernetes.api.model.MicroTime;
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import io.fabric8.kubernetes.api.model.coordination.v1.Lease;
+import io.fabric8.kubernetes.api.model.coordination.v1.LeaseSpec;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/*
+    Splits schemas between infra-mgr replicas.
+    Every replica renews its own Lease in infra-mgr namespace, replicas with live leases
+    form consistent hashing ring which decides what replica owns the schema.
+    Replica which could not renew its lease in time gives up all schemas until renewal succeeds
+ */
+@Component
+public class ShardCoordinator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardCoordinator.class);
+
+    public static final String SHARD_LABEL = "th2.exactpro.com/infra-mgr-shard";
+
+    private static final DateTimeFormatter MICRO_TIME_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSSSSXXX").withZone(ZoneOffset.UTC);
+
+    public interface RebalanceListener {
+
+        /**
+         * Called after the set of replicas has changed
+         *
+         * @param ownedBefore tells if schema was owned by this replica before the change
+         */
+        void onRebalance(Predicate<String> ownedBefore);
+    }
+
+    @Autowired
+    private Config config;
+
+    @Autowired
+    private KubernetesService kubernetesService;
+
+    private final List<RebalanceListener> listeners = new CopyOnWriteArrayList<>();
+
+    private K8sShardingCfg shardingCfg;
+
+    private Kubernetes kube;
+
+    private volatile ConsistentHashRing ring;
+
+    private volatile long lastRenewTime;
+
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    public void start() {
+        start(config.getKubernetes().getSharding(), kubernetesService.getKubernetes());
+    }
+
+    /**
+     * Starts sharding through leases of the current namespace of the given client
+     */
+    public void start(K8sShardingCfg shardingCfg, Kubernetes kube) {
+        this.shardingCfg = shardingCfg;
+        this.kube = kube;
+        ring = new ConsistentHashRing(Set.of(shardingCfg.getReplicaId()), shardingCfg.getVirtualNodes());
+        if (!shardingCfg.isEnabled()) {
+            return;
+        }
+        logger.info("Starting schema sharding as replica \"{}\"", shardingCfg.getReplicaId());
+
+        // discover other replicas before synchronization starts to avoid processing all schemas on startup
+        heartbeat();
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        scheduler.scheduleWithFixedDelay(this::heartbeat,
+                shardingCfg.getRenewIntervalSec(),
+                shardingCfg.getRenewIntervalSec(),
+                TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        try {
+            // let other replicas take over schemas without waiting for lease expiration
+            kube.currentNamespace().deleteLease(leaseName());
+        } catch (Exception e) {
+            logger.error("Exception deleting lease \"{}\"", leaseName(), e);
+        }
+    }
+
+    public boolean isEnabled() {
+        return shardingCfg != null && shardingCfg.isEnabled();
+    }
+
+    /**
+     * @return true if schema has to be processed by this replica
+     */
+    public boolean owns(String schemaName) {
+        if (!isEnabled()) {
+            return true;
+        }
+        return shardingCfg.getReplicaId().equals(ring.ownerOf(schemaName));
+    }
+
+    public Set<String> getReplicas() {
+        return ring.getMembers();
+    }
+
+    public void addRebalanceListener(RebalanceListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Renews own lease and updates the set of replicas, runs every renew interval
+     */
+    public synchronized void heartbeat() {
+        long now = System.currentTimeMillis();
+        try {
+            Kubernetes.CurrentNamespace currentNamespace = kube.currentNamespace();
+            currentNamespace.createOrReplaceLease(ownLease(now));
+            lastRenewTime = now;
+
+            Set<String> members = new TreeSet<>();
+            members.add(shardingCfg.getReplicaId());
+            for (Lease lease : currentNamespace.getLeases(SHARD_LABEL, shardingCfg.getLeasePrefix())) {
+                if (isAlive(lease, now)) {
+                    members.add(lease.getSpec().getHolderIdentity());
+                }
+            }
+            updateMembers(members);
+        } catch (Exception e) {
+            logger.error("Exception renewing lease \"{}\"", leaseName(), e);
+            if (now - lastRenewTime >= TimeUnit.SECONDS.toMillis(shardingCfg.getLeaseDurationSec())) {
+                // other replicas consider this one gone and have already taken over its schemas
+                updateMembers(Collections.emptySet());
+            }
+        }
+    }
+
+    private void updateMembers(Set<String> members) {
+        ConsistentHashRing previous = ring;
+        if (previous.getMembers().equals(members)) {
+            return;
+        }
+        ring = new ConsistentHashRing(members, shardingCfg.getVirtualNodes());
+        logger.info("Replicas changed from {} to {}, rebalancing schemas", previous.getMembers(), members);
+
+        String replicaId = shardingCfg.getReplicaId();
+        Predicate<String> ownedBefore = schemaName -> replicaId.equals(previous.ownerOf(schemaName));
+        for (RebalanceListener listener : listeners) {
+            try {
+                listener.onRebalance(ownedBefore);
+            } catch (Exception e) {
+                logger.error("Exception rebalancing schemas", e);
+            }
+        }
+    }
+
+    private String leaseName() {
+        return shardingCfg.getLeasePrefix() + "-" + shardingCfg.getReplicaId();
+    }
+
+    private Lease ownLease(long now) {
+        ObjectMeta meta = new ObjectMeta();
+        meta.setName(leaseName());
+        meta.setLabels(Map.of(SHARD_LABEL, shardingCfg.getLeasePrefix()));
+
+        LeaseSpec spec = new LeaseSpec();
+        spec.setHolderIdentity(shardingCfg.getReplicaId());
+        spec.setLeaseDurationSeconds(shardingCfg.getLeaseDurationSec());
+        spec.setRenewTime(new MicroTime(MICRO_TIME_FORMAT.format(Instant.ofEpochMilli(now))));
+
+        Lease lease = new Lease();
+        lease.setMetadata(meta);
+        lease.setSpec(spec);
+        return lease;
+    }
+
+    private static boolean isAlive(Lease lease, long now) {
+        LeaseSpec spec = lease.getSpec();
+        if (spec == null || spec.getHolderIdentity() == null || spec.getRenewTime() == null
+                || spec.getLeaseDurationSeconds() == null) {
+            return false;
+        }
+        try {
+            long renewTime = OffsetDateTime.parse(spec.getRenewTime().getTime()).toInstant().toEpochMilli();
+            return renewTime + TimeUnit.SECONDS.toMillis(spec.getLeaseDurationSeconds()) > now;
+        } catch (DateTimeParseException e) {
+            logger.warn("Lease \"{}\" has unexpected renew time \"{}\"",
+                    lease.getMetadata().getName(), spec.getRenewTime().getTime());
+            return false;
+        }
+    }
+}
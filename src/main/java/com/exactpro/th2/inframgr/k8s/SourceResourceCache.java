@@ -0,0 +1,110 @@
+/*
+ * Copyright 2023 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.inframgr.k8s;
+
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.ConfigMapBuilder;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.api.model.SecretBuilder;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import io.fabric8.kubernetes.client.informers.cache.Cache;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+    Informer backed cache of config maps and secrets of infra-mgr namespace,
+    which are used as sources of the resources copied to schema namespaces.
+    Copies are returned as callers are free to modify loaded resources
+ */
+public enum SourceResourceCache {
+    INSTANCE;
+
+    private volatile String namespace;
+
+    private volatile SharedIndexInformer<ConfigMap> configMapInformer;
+
+    private volatile SharedIndexInformer<Secret> secretInformer;
+
+    void start(String namespace,
+               SharedIndexInformer<ConfigMap> configMapInformer,
+               SharedIndexInformer<Secret> secretInformer) {
+        this.namespace = namespace;
+        this.configMapInformer = configMapInformer;
+        this.secretInformer = secretInformer;
+    }
+
+    void stop() {
+        SharedIndexInformer<ConfigMap> configMaps = configMapInformer;
+        SharedIndexInformer<Secret> secrets = secretInformer;
+        configMapInformer = null;
+        secretInformer = null;
+        if (configMaps != null) {
+            configMaps.stop();
+        }
+        if (secrets != null) {
+            secrets.stop();
+        }
+    }
+
+    public boolean isSynced() {
+        SharedIndexInformer<ConfigMap> configMaps = configMapInformer;
+        SharedIndexInformer<Secret> secrets = secretInformer;
+        return configMaps != null && secrets != null
+                && configMaps.isRunning() && secrets.isRunning()
+                && configMaps.hasSynced() && secrets.hasSynced();
+    }
+
+    public ConfigMap getConfigMap(String name) {
+        ConfigMap configMap = configMapInformer.getStore().getByKey(Cache.namespaceKeyFunc(namespace, name));
+        return configMap == null ? null : new ConfigMapBuilder(configMap).build();
+    }
+
+    public String getConfigMapVersion(String name) {
+        return versionOf(configMapInformer.getStore().getByKey(Cache.namespaceKeyFunc(namespace, name)));
+    }
+
+    public Secret getSecret(String name) {
+        Secret secret = secretInformer.getStore().getByKey(Cache.namespaceKeyFunc(namespace, name));
+        return secret == null ? null : new SecretBuilder(secret).build();
+    }
+
+    public String getSecretVersion(String name) {
+        return versionOf(secretInformer.getStore().getByKey(Cache.namespaceKeyFunc(namespace, name)));
+    }
+
+    public Map<String, ConfigMap> getConfigMaps() {
+        Map<String, ConfigMap> configMaps = new HashMap<>();
+        for (ConfigMap configMap : configMapInformer.getStore().list()) {
+            configMaps.put(configMap.getMetadata().getName(), new ConfigMapBuilder(configMap).build());
+        }
+        return configMaps;
+    }
+
+    public Map<String, Secret> getSecrets() {
+        Map<String, Secret> secrets = new HashMap<>();
+        for (Secret secret : secretInformer.getStore().list()) {
+            secrets.put(secret.getMetadata().getName(), new SecretBuilder(secret).build());
+        }
+        return secrets;
+    }
+
+    private static String versionOf(HasMetadata resource) {
+        return resource == null || resource.getMetadata() == null ? null : resource.getMetadata().getResourceVersion();
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2023 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.inframgr.k8s;
+
+import com.exactpro.th2.inframgr.Config;
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/*
+    Watches config maps and secrets of infra-mgr namespace and keeps them in SourceResourceCache.
+    Changes of config maps are propagated to derived config maps of schema namespaces.
+    Secrets are only cached: they are copied to schema namespaces once, when the namespace is initialized
+ */
+@Component
+public class SourceResourceWatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(SourceResourceWatcher.class);
+
+    @Autowired
+    private Config config;
+
+    @Autowired
+    private KubernetesService kubernetesService;
+
+    @Autowired
+    private K8sSynchronization k8sSynchronization;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    private volatile boolean synced;
+
+    private void startInformers() {
+        Kubernetes.CurrentNamespace currentNamespace = kubernetesService.getKubernetes().currentNamespace();
+        try {
+            SharedIndexInformer<ConfigMap> configMapInformer = currentNamespace.informConfigMaps(
+                    new SourceEventHandler<>(Kubernetes.KIND_CONFIGMAP, ConfigMap::getData, true));
+            SharedIndexInformer<Secret> secretInformer = currentNamespace.informSecrets(
+                    new SourceEventHandler<>(Kubernetes.KIND_SECRET, Secret::getData, false));
+            SourceResourceCache.INSTANCE.start(currentNamespace.getNamespaceName(), configMapInformer, secretInformer);
+            synced = true;
+            logger.info("Watching config maps and secrets of namespace \"{}\"", currentNamespace.getNamespaceName());
+        } catch (Exception e) {
+            logger.error("Exception starting informers of infra-mgr namespace, " +
+                    "source resources will be loaded on every synchronization", e);
+        }
+    }
+
+    private final class SourceEventHandler<T extends HasMetadata> implements ResourceEventHandler<T> {
+
+        private final String kind;
+
+        private final Function<T, Object> data;
+
+        private final boolean propagated;
+
+        private SourceEventHandler(String kind, Function<T, Object> data, boolean propagated) {
+            this.kind = kind;
+            this.data = data;
+            this.propagated = propagated;
+        }
+
+        @Override
+        public void onAdd(T obj) {
+            // initial listing is not a change
+            if (synced) {
+                propagate(obj);
+            }
+        }
+
+        @Override
+        public void onUpdate(T oldObj, T newObj) {
+            if (!Objects.equals(data.apply(oldObj), data.apply(newObj))) {
+                propagate(newObj);
+            }
+        }
+
+        @Override
+        public void onDelete(T obj, boolean deletedFinalStateUnknown) {
+            logger.warn("{} \"{}\" has been deleted from infra-mgr namespace", kind, obj.getMetadata().getName());
+        }
+
+        private void propagate(T obj) {
+            String name = obj.getMetadata().getName();
+            logger.info("Detected change of {} \"{}\" in infra-mgr namespace", kind, name);
+            if (!propagated) {
+                return;
+            }
+            try {
+                k8sSynchronization.propagateSourceChange(name);
+            } catch (Exception e) {
+                logger.error("Exception propagating change of {} \"{}\"", kind, name, e);
+            }
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        if (config.getSync().isWatchSourceResources()) {
+            executor.execute(this::startInformers);
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        SourceResourceCache.INSTANCE.stop();
+        executor.shutdown();
+    }
+}
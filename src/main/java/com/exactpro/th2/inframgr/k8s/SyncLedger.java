@@ -0,0 +1,272 @@
+/*
+ * Copyright 2023 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.inframgr.k8s;
+
+import com.exactpro.th2.inframgr.Config;
+import com.exactpro.th2.inframgr.util.cfg.SyncCfg;
+import com.exactpro.th2.infrarepo.ResourceType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+    Append-only file with the last successfully applied commit and resource hashes of every schema.
+    Every change is appended as a separate json line, the latest line of the schema wins.
+    File is compacted on startup and when it grows much larger than the number of schemas
+ */
+@Component
+public class SyncLedger {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyncLedger.class);
+
+    private static final String DEFAULT_FILE_NAME = ".sync-ledger.jsonl";
+
+    private static final int COMPACTION_THRESHOLD = 100;
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    public static class Entry {
+
+        private String schema;
+
+        private String namespace;
+
+        private String commitRef;
+
+        private long time;
+
+        private Map<String, String> resourceHashes;
+
+        private boolean removed;
+
+        public Entry() {
+        }
+
+        public Entry(String schema, String namespace, String commitRef, long time,
+                     Map<String, String> resourceHashes) {
+            this.schema = schema;
+            this.namespace = namespace;
+            this.commitRef = commitRef;
+            this.time = time;
+            this.resourceHashes = resourceHashes;
+        }
+
+        private static Entry removed(String schema) {
+            Entry entry = new Entry();
+            entry.setSchema(schema);
+            entry.setRemoved(true);
+            return entry;
+        }
+
+        public String getSchema() {
+            return schema;
+        }
+
+        public void setSchema(String schema) {
+            this.schema = schema;
+        }
+
+        public String getNamespace() {
+            return namespace;
+        }
+
+        public void setNamespace(String namespace) {
+            this.namespace = namespace;
+        }
+
+        public String getCommitRef() {
+            return commitRef;
+        }
+
+        public void setCommitRef(String commitRef) {
+            this.commitRef = commitRef;
+        }
+
+        public long getTime() {
+            return time;
+        }
+
+        public void setTime(long time) {
+            this.time = time;
+        }
+
+        public Map<String, String> getResourceHashes() {
+            return resourceHashes == null ? Collections.emptyMap() : resourceHashes;
+        }
+
+        public void setResourceHashes(Map<String, String> resourceHashes) {
+            this.resourceHashes = resourceHashes;
+        }
+
+        public boolean isRemoved() {
+            return removed;
+        }
+
+        public void setRemoved(boolean removed) {
+            this.removed = removed;
+        }
+    }
+
+    @Autowired
+    private Config config;
+
+    private Path file;
+
+    private final Map<String, Entry> records = new HashMap<>();
+
+    private final Map<String, Entry> startupRecords = new ConcurrentHashMap<>();
+
+    private int appendedRecords;
+
+    @PostConstruct
+    private void start() {
+        SyncCfg syncCfg = config.getSync();
+        if (!syncCfg.isLedger()) {
+            return;
+        }
+        Path ledgerFile = StringUtils.isEmpty(syncCfg.getLedgerFile())
+                ? Path.of(config.getGit().getLocalRepositoryRoot(), DEFAULT_FILE_NAME)
+                : Path.of(syncCfg.getLedgerFile());
+        open(ledgerFile);
+        rehydrateResourceCache();
+    }
+
+    /**
+     * Loads records of the ledger file, following changes are appended to it
+     */
+    public synchronized void open(Path ledgerFile) {
+        file = ledgerFile;
+        records.clear();
+        startupRecords.clear();
+        if (Files.exists(file)) {
+            try {
+                List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+                for (String line : lines) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    try {
+                        Entry entry = mapper.readValue(line, Entry.class);
+                        if (entry.isRemoved()) {
+                            records.remove(entry.getSchema());
+                        } else {
+                            records.put(entry.getSchema(), entry);
+                        }
+                    } catch (IOException e) {
+                        // most likely the last line was not completely written
+                        logger.warn("Skipping corrupted sync ledger record in \"{}\"", file);
+                    }
+                }
+                logger.info("Loaded {} schema record(s) from sync ledger \"{}\"", records.size(), file);
+            } catch (IOException e) {
+                logger.error("Exception reading sync ledger \"{}\"", file, e);
+                records.clear();
+            }
+        }
+        startupRecords.putAll(records);
+        compact();
+    }
+
+    private void rehydrateResourceCache() {
+        K8sResourceCache cache = K8sResourceCache.INSTANCE;
+        for (Entry entry : startupRecords.values()) {
+            cache.addNamespace(entry.getNamespace());
+            entry.getResourceHashes().forEach((key, hash) -> {
+                ResourceType type = ResourceType.forKind(AppliedSchemaState.kindOf(key));
+                if (type != null && type.isMangedResource()) {
+                    cache.add(entry.getNamespace(), type.kind(), AppliedSchemaState.nameOf(key), hash);
+                }
+            });
+        }
+    }
+
+    /**
+     * @return record which was loaded on startup, each record is returned only once,
+     * as it is relevant only for the first synchronization of the schema after restart
+     */
+    public Entry takeStartupRecord(String schema) {
+        return startupRecords.remove(schema);
+    }
+
+    public synchronized void recordApplied(String schema,
+                                           String namespace,
+                                           String commitRef,
+                                          Map<String, String> resourceHashes) {
+        if (file == null) {
+            return;
+        }
+        Entry entry = new Entry(schema, namespace, commitRef, System.currentTimeMillis(), resourceHashes);
+        records.put(schema, entry);
+        append(entry);
+    }
+
+    public synchronized void recordRemoved(String schema) {
+        startupRecords.remove(schema);
+        if (file == null || records.remove(schema) == null) {
+            return;
+        }
+        append(Entry.removed(schema));
+    }
+
+    private void append(Entry entry) {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            writer.write(mapper.writeValueAsString(entry));
+            writer.newLine();
+        } catch (IOException e) {
+            logger.error("Exception writing sync ledger \"{}\"", file, e);
+        }
+        appendedRecords++;
+        if (appendedRecords > records.size() + COMPACTION_THRESHOLD) {
+            compact();
+        }
+    }
+
+    private void compact() {
+        Path tmpFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (BufferedWriter writer = Files.newBufferedWriter(tmpFile, StandardCharsets.UTF_8)) {
+                for (Entry entry : records.values()) {
+                    writer.write(mapper.writeValueAsString(entry));
+                    writer.newLine();
+                }
+            }
+            Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            appendedRecords = 0;
+        } catch (IOException e) {
+            logger.error("Exception compacting sync ledger \"{}\"", file, e);
+        }
+    }
+}
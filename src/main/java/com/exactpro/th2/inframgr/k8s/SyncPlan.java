@@ -0,0 +1,203 @@
+/*
+ * Copyright 2023 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.inframgr.k8s;
+
+import com.exactpro.th2.validator.ValidationReport;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/*
+    Changes that synchronization of the current commit would make in kubernetes namespace
+ */
+public class SyncPlan {
+
+    public static final String ACTION_SYNCHRONIZE = "synchronize";
+
+    public static final String ACTION_DELETE_NAMESPACE = "deleteNamespace";
+
+    public static final String ACTION_IGNORE = "ignore";
+
+    public static class ResourceChange {
+
+        private final String operation;
+
+        private final String kind;
+
+        private final String name;
+
+        private final String sourceHash;
+
+        private final String k8sSourceHash;
+
+        public ResourceChange(CustomResourceOperation operation) {
+            this.operation = operation.getType().name().toLowerCase();
+            this.kind = operation.getKind();
+            this.name = operation.getName();
+            this.sourceHash = operation.getSourceHash();
+            this.k8sSourceHash = operation.getK8sSourceHash();
+        }
+
+        public String getOperation() {
+            return operation;
+        }
+
+        public String getKind() {
+            return kind;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getSourceHash() {
+            return sourceHash;
+        }
+
+        public String getK8sSourceHash() {
+            return k8sSourceHash;
+        }
+    }
+
+    public static class DataChange {
+
+        private final String current;
+
+        private final String expected;
+
+        public DataChange(String current, String expected) {
+            this.current = current;
+            this.expected = expected;
+        }
+
+        public String getCurrent() {
+            return current;
+        }
+
+        public String getExpected() {
+            return expected;
+        }
+    }
+
+    public static class ConfigMapChange {
+
+        private final String operation;
+
+        private final String name;
+
+        private final Map<String, DataChange> data = new TreeMap<>();
+
+        public ConfigMapChange(String name, Map<String, String> currentData, Map<String, String> expectedData) {
+            this.operation = currentData == null ? "create" : "update";
+            this.name = name;
+            Map<String, String> current = currentData == null ? Map.of() : currentData;
+            expectedData.forEach((key, value) -> {
+                if (!Objects.equals(value, current.get(key))) {
+                    data.put(key, new DataChange(current.get(key), value));
+                }
+            });
+        }
+
+        public String getOperation() {
+            return operation;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return changed data keys with their current and expected values
+         */
+        public Map<String, DataChange> getData() {
+            return data;
+        }
+    }
+
+    private final String schema;
+
+    private final String commitRef;
+
+    private String action = ACTION_SYNCHRONIZE;
+
+    private ValidationReport validationErrors;
+
+    private final List<String> initializerTargets = new ArrayList<>();
+
+    private final List<ConfigMapChange> configMaps = new ArrayList<>();
+
+    private final List<ResourceChange> resources = new ArrayList<>();
+
+    public SyncPlan(String schema, String commitRef) {
+        this.schema = schema;
+        this.commitRef = commitRef;
+    }
+
+    public String getSchema() {
+        return schema;
+    }
+
+    public String getCommitRef() {
+        return commitRef;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public void setAction(String action) {
+        this.action = action;
+    }
+
+    public ValidationReport getValidationErrors() {
+        return validationErrors;
+    }
+
+    public void setValidationErrors(ValidationReport validationErrors) {
+        this.validationErrors = validationErrors;
+    }
+
+    /**
+     * @return namespace and resources which schema initializer would create or update
+     */
+    public List<String> getInitializerTargets() {
+        return initializerTargets;
+    }
+
+    public List<ConfigMapChange> getConfigMaps() {
+        return configMaps;
+    }
+
+    public List<ResourceChange> getResources() {
+        return resources;
+    }
+
+    public void addInitializerTarget(String target) {
+        initializerTargets.add(target);
+    }
+
+    public void addConfigMap(String name, Map<String, String> currentData, Map<String, String> expectedData) {
+        configMaps.add(new ConfigMapChange(name, currentData, expectedData));
+    }
+
+    public void addResource(CustomResourceOperation operation) {
+        resources.add(new ResourceChange(operation));
+    }
+}
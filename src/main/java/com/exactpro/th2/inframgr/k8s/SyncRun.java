@@ -0,0 +1,156 @@
+/*
+ * Copyright 2023 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.inframgr.k8s;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/*
+    Timings and outcome of a single schema synchronization
+ */
+public class SyncRun {
+
+    public static final String OUTCOME_SUCCESS = "success";
+
+    public static final String OUTCOME_FAILURE = "failure";
+
+    public static final String OPERATION_SKIP = "skip";
+
+    public static final String MODE_FULL = "full";
+
+    public static final String MODE_INCREMENTAL = "incremental";
+
+    public static final String MODE_LEDGER = "ledger";
+
+    public static class Stage {
+
+        private final String name;
+
+        private final String outcome;
+
+        private final long durationMs;
+
+        public Stage(String name, String outcome, long durationMs) {
+            this.name = name;
+            this.outcome = outcome;
+            this.durationMs = durationMs;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getOutcome() {
+            return outcome;
+        }
+
+        public long getDurationMs() {
+            return durationMs;
+        }
+    }
+
+    private final String schema;
+
+    private final long startTime;
+
+    private String commitRef;
+
+    private String mode = MODE_FULL;
+
+    private String outcome;
+
+    private long durationMs;
+
+    private int failedOperations;
+
+    private final Map<String, Integer> operations = new TreeMap<>();
+
+    private final List<Stage> stages = Collections.synchronizedList(new ArrayList<>());
+
+    public SyncRun(String schema) {
+        this.schema = schema;
+        this.startTime = System.currentTimeMillis();
+    }
+
+    public String getSchema() {
+        return schema;
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public String getCommitRef() {
+        return commitRef;
+    }
+
+    public void setCommitRef(String commitRef) {
+        this.commitRef = commitRef;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public void setMode(String mode) {
+        this.mode = mode;
+    }
+
+    public String getOutcome() {
+        return outcome;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public int getFailedOperations() {
+        return failedOperations;
+    }
+
+    public synchronized Map<String, Integer> getOperations() {
+        return new TreeMap<>(operations);
+    }
+
+    public List<Stage> getStages() {
+        synchronized (stages) {
+            return new ArrayList<>(stages);
+        }
+    }
+
+    public void addStage(String name, String outcome, long durationMs) {
+        stages.add(new Stage(name, outcome, durationMs));
+    }
+
+    public synchronized void addOperations(List<CustomResourceOperation> resourceOperations, int failures) {
+        resourceOperations.forEach(operation ->
+                operations.merge(operation.getType().name().toLowerCase(), 1, Integer::sum));
+        failedOperations += failures;
+    }
+
+    public synchronized void addSkippedOperations(int skipped) {
+        operations.merge(OPERATION_SKIP, skipped, Integer::sum);
+    }
+
+    public void complete(boolean success) {
+        this.outcome = success ? OUTCOME_SUCCESS : OUTCOME_FAILURE;
+        this.durationMs = System.currentTimeMillis() - startTime;
+    }
+}
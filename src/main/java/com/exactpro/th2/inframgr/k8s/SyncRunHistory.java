@@ -0,0 +1,59 @@
+/*
+ * Copyright 2023 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.inframgr.k8s;
+
+import com.exactpro.th2.inframgr.Config;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/*
+    Bounded in-memory history of recent schema synchronizations
+ */
+@Component
+public class SyncRunHistory {
+
+    @Autowired
+    private Config config;
+
+    private final Deque<SyncRun> runs = new ArrayDeque<>();
+
+    public synchronized void add(SyncRun run) {
+        runs.addFirst(run);
+        while (runs.size() > config.getSync().getHistorySize()) {
+            runs.removeLast();
+        }
+    }
+
+    /**
+     * @param schema name of the schema or null for all schemas
+     * @return synchronization runs, most recent first
+     */
+    public synchronized List<SyncRun> getRuns(String schema) {
+        List<SyncRun> result = new ArrayList<>();
+        for (SyncRun run : runs) {
+            if (schema == null || schema.equals(run.getSchema())) {
+                result.add(run);
+            }
+        }
+        return result;
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
+ * Copyright 2020-2023 Exactpro (Exactpro Systems Limited)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,8 @@
 
 package com.exactpro.th2.inframgr.metrics;
 
+import io.prometheus.client.Counter;
+import io.prometheus.client.Gauge;
 import io.prometheus.client.Histogram;
 
 public class ManagerMetrics {
@@ -26,7 +28,131 @@ public class ManagerMetrics {
             .buckets(DEFAULT_BUCKETS)
             .register();
 
+    private static Histogram syncStageTime = Histogram
+            .build("th2_infra_mgr_sync_stage_time", "Time it took to process synchronization stage")
+            .labelNames("stage", "outcome")
+            .buckets(DEFAULT_BUCKETS)
+            .register();
+
+    private static Counter resourceOperations = Counter
+            .build("th2_infra_mgr_resource_operations", "Custom resource operations done by synchronization")
+            .labelNames("operation", "outcome")
+            .register();
+
+    private static Counter dictionaryCacheRequests = Counter
+            .build("th2_infra_mgr_dictionary_cache_requests", "Compressed dictionary cache lookups")
+            .labelNames("result")
+            .register();
+
+    private static Gauge dictionaryCacheBytes = Gauge
+            .build("th2_infra_mgr_dictionary_cache_bytes", "Size of compressed dictionaries kept in cache")
+            .register();
+
+    private static Histogram k8sLimiterWaitTime = Histogram
+            .build("th2_infra_mgr_k8s_limiter_wait_time", "Time Kubernetes API request was delayed by rate limiter")
+            .labelNames("verb")
+            .buckets(DEFAULT_BUCKETS)
+            .register();
+
+    private static Counter k8sThrottledRequests = Counter
+            .build("th2_infra_mgr_k8s_throttled_requests", "Kubernetes API requests rejected with 429 status")
+            .labelNames("verb")
+            .register();
+
+    private static Gauge k8sLimiterRate = Gauge
+            .build("th2_infra_mgr_k8s_limiter_rate", "Current rate limit of Kubernetes API requests per second")
+            .labelNames("verb")
+            .register();
+
+    private static Gauge syncQueueDepth = Gauge
+            .build("th2_infra_mgr_sync_queue_depth", "Number of schemas waiting for synchronization")
+            .register();
+
+    private static Gauge syncJobsInProgress = Gauge
+            .build("th2_infra_mgr_sync_jobs_in_progress", "Number of schemas being synchronized")
+            .register();
+
+    private static Histogram syncQueueWaitTime = Histogram
+            .build("th2_infra_mgr_sync_queue_wait_time", "Time synchronization job spent in the queue")
+            .buckets(DEFAULT_BUCKETS)
+            .register();
+
+    private static Histogram commitDetectionLatency = Histogram
+            .build("th2_infra_mgr_commit_detection_latency", "Time from commit timestamp to detection of the commit")
+            .buckets(DEFAULT_BUCKETS)
+            .register();
+
+    private static Counter commitDetections = Counter
+            .build("th2_infra_mgr_commit_detections", "Commits detected by repository polling or webhooks")
+            .labelNames("source")
+            .register();
+
+    private static Counter snapshotCacheRequests = Counter
+            .build("th2_infra_mgr_snapshot_cache_requests", "Repository snapshot cache lookups")
+            .labelNames("result")
+            .register();
+
     public static Histogram.Timer getCommitTimer() {
         return commitProcessingTime.startTimer();
     }
+
+    public static void observeSyncStageTime(String stage, String outcome, long durationMs) {
+        syncStageTime.labels(stage, outcome).observe(durationMs / 1000.0);
+    }
+
+    public static void countResourceOperations(String operation, String outcome, int count) {
+        resourceOperations.labels(operation, outcome).inc(count);
+    }
+
+    public static void countDictionaryCacheHit() {
+        dictionaryCacheRequests.labels("hit").inc();
+    }
+
+    public static void countDictionaryCacheMiss() {
+        dictionaryCacheRequests.labels("miss").inc();
+    }
+
+    public static void setDictionaryCacheBytes(long bytes) {
+        dictionaryCacheBytes.set(bytes);
+    }
+
+    public static void observeK8sLimiterWaitTime(String verb, long waitTimeMs) {
+        k8sLimiterWaitTime.labels(verb).observe(waitTimeMs / 1000.0);
+    }
+
+    public static void countK8sThrottledRequest(String verb) {
+        k8sThrottledRequests.labels(verb).inc();
+    }
+
+    public static void setK8sLimiterRate(String verb, double rate) {
+        k8sLimiterRate.labels(verb).set(rate);
+    }
+
+    public static void setSyncQueueDepth(int depth) {
+        syncQueueDepth.set(depth);
+    }
+
+    public static void setSyncJobsInProgress(int jobs) {
+        syncJobsInProgress.set(jobs);
+    }
+
+    public static void observeSyncQueueWaitTime(long waitTimeMs) {
+        syncQueueWaitTime.observe(waitTimeMs / 1000.0);
+    }
+
+    public static void observeCommitDetectionLatency(long latencyMs) {
+        commitDetectionLatency.observe(Math.max(latencyMs, 0) / 1000.0);
+    }
+
+    public static void countCommitDetection(String source) {
+        commitDetections.labels(source).inc();
+    }
+
+    public static void countSnapshotCacheHit() {
+        snapshotCacheRequests.labels("hit").inc();
+    }
+
+    public static void countSnapshotCacheMiss() {
+        snapshotCacheRequests.labels("miss").inc();
+    }
 }
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2023 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.inframgr.repository;
+
+import com.exactpro.th2.infrarepo.git.GitterContext;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+    Latest known commit of every branch of the remote repository.
+    Map is published by repository watcher and by infra-mgr itself after it creates or updates branches,
+    readers get an immutable map without remote git requests.
+    Remote repository is listed again only when the map is not loaded yet or the requested branch is missing
+ */
+public enum BranchRegistry {
+    INSTANCE;
+
+    private volatile Map<String, String> commits;
+
+    // latest commit of every branch made by infra-mgr itself
+    private final Map<String, String> localCommits = new ConcurrentHashMap<>();
+
+    private volatile long publishTime;
+
+    // heads advanced after the last publication of the whole map
+    private final Map<String, Long> updateTimes = new ConcurrentHashMap<>();
+
+    /**
+     * @return immutable map of branches and their latest commits
+     */
+    public Map<String, String> getCommits(GitterContext ctx) throws Exception {
+        Map<String, String> current = commits;
+        return current != null ? current : refresh(ctx);
+    }
+
+    /**
+     * @return latest known commit of the branch or null if it is not known
+     */
+    public String getCommitRef(String branch) {
+        Map<String, String> current = commits;
+        return current != null ? current.get(branch) : null;
+    }
+
+    /**
+     * @param maxAgeMs maximum time since the head was listed in the remote repository or committed by infra-mgr
+     * @return latest commit of the branch or null if it is not known or may be outdated
+     */
+    public String getFreshCommitRef(String branch, long maxAgeMs, long now) {
+        Map<String, String> current = commits;
+        if (current == null) {
+            return null;
+        }
+        long knownSince = Math.max(publishTime, updateTimes.getOrDefault(branch, 0L));
+        return now - knownSince <= maxAgeMs ? current.get(branch) : null;
+    }
+
+    /**
+     * Checks if branch exists, remote repository is listed again if the branch is not known
+     */
+    public boolean contains(GitterContext ctx, String branch) throws Exception {
+        Map<String, String> current = commits;
+        if (current != null && current.containsKey(branch)) {
+            return true;
+        }
+        return refresh(ctx).containsKey(branch);
+    }
+
+    public Map<String, String> refresh(GitterContext ctx) throws Exception {
+        Map<String, String> fetched = ctx.getAllBranchesCommits();
+        publish(fetched);
+        return commits;
+    }
+
+    public void publish(Map<String, String> fetched) {
+        publish(fetched, System.currentTimeMillis());
+    }
+
+    public synchronized void publish(Map<String, String> fetched, long now) {
+        commits = Map.copyOf(fetched);
+        publishTime = now;
+        updateTimes.clear();
+    }
+
+    /**
+     * Records new head of the branch only if the branch still points to the expected commit,
+     * so that a snapshot loaded from a stale local repository can not move the head back
+     *
+     * @param expectedRef head read before loading the new commit, null if the branch was not known
+     * @return true if the branch points to the new commit after the call
+     */
+    public synchronized boolean compareAndUpdate(String branch, String expectedRef, String commitRef) {
+        String current = getCommitRef(branch);
+        if (Objects.equals(current, commitRef)) {
+            return true;
+        }
+        if (!Objects.equals(current, expectedRef)) {
+            return false;
+        }
+        Map<String, String> updated = commits != null ? new HashMap<>(commits) : new HashMap<>();
+        updated.put(branch, commitRef);
+        commits = Map.copyOf(updated);
+        updateTimes.put(branch, System.currentTimeMillis());
+        return true;
+    }
+
+    /**
+     * Records commit pushed by infra-mgr itself
+     */
+    public void localCommit(String branch, String commitRef) {
+        localCommits.put(branch, commitRef);
+    }
+
+    /**
+     * @return true if the commit is the latest one made by infra-mgr in the branch,
+     * such commits are not missed by webhooks and do not need to be detected by polling
+     */
+    public boolean isLocalCommit(String branch, String commitRef) {
+        return commitRef.equals(localCommits.get(branch));
+    }
+}
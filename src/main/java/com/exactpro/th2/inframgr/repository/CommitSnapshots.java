@@ -0,0 +1,199 @@
+/*
+ * Copyright 2023 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exactpro.th2.inframgr.repository;
+
+import com.exactpro.th2.infrarepo.ResourceType;
+import com.exactpro.th2.infrarepo.git.GitConfig;
+import com.exactpro.th2.infrarepo.git.Gitter;
+import com.exactpro.th2.infrarepo.repo.RepositoryResource;
+import com.exactpro.th2.infrarepo.repo.RepositorySnapshot;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+    Resources of any commit of the schema read from the local repository of its branch with jgit.
+    Commits are immutable, so resources are cached per commit and never invalidated.
+    The head commit is served from the repository snapshot, resources of other commits are parsed here
+    and have no source hash as infra-repo computes it only for snapshots
+ */
+public enum CommitSnapshots {
+    INSTANCE;
+
+    private static final Logger logger = LoggerFactory.getLogger(CommitSnapshots.class);
+
+    private static final int CACHE_SIZE = 16;
+
+    private static final ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
+
+    private static final TypeReference<Map<String, Object>> SPEC_TYPE = new TypeReference<>() { };
+
+    public record CommitResources(String commitRef, List<RepositoryResource> resources) { }
+
+    private record ResourceFile(String path, byte[] content) { }
+
+    private final Map<String, CommitResources> commits = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CommitResources> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    /**
+     * Resolves commit of the branch and reads its resources.
+     * Local repository is accessed under gitter lock, files are parsed after the lock is released
+     *
+     * @param gitConfig configuration the gitter was created with
+     * @param head      snapshot of the head of the branch
+     * @param commitRef full or abbreviated commit or any other revision understood by git
+     * @return resources of the commit or null if the commit does not exist in the local repository
+     */
+    public CommitResources load(Gitter gitter,
+                                GitConfig gitConfig,
+                                RepositorySnapshot head,
+                                String commitRef) throws IOException {
+        String branch = gitter.getBranch();
+        String commitId;
+        List<ResourceFile> files;
+        try {
+            gitter.lock();
+            try (Repository repository = openRepository(gitConfig, branch)) {
+                ObjectId resolved = repository.resolve(commitRef + "^{commit}");
+                if (resolved == null) {
+                    return null;
+                }
+                commitId = resolved.getName();
+                if (commitId.equals(head.getCommitRef())) {
+                    return new CommitResources(commitId, List.copyOf(head.getResources()));
+                }
+                synchronized (commits) {
+                    CommitResources cached = commits.get(cacheKey(branch, commitId));
+                    if (cached != null) {
+                        return cached;
+                    }
+                }
+                files = readFiles(repository, resolved);
+            }
+        } finally {
+            gitter.unlock();
+        }
+
+        List<RepositoryResource> resources = new ArrayList<>();
+        for (ResourceFile file : files) {
+            RepositoryResource resource = parse(file);
+            if (resource != null) {
+                resources.add(resource);
+            }
+        }
+        CommitResources loaded = new CommitResources(commitId, Collections.unmodifiableList(resources));
+        synchronized (commits) {
+            commits.put(cacheKey(branch, commitId), loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * Opens the clone of the branch which infra-repo keeps under the local repository root.
+     * Clone is checked to be on the branch, so that a different layout is reported instead of comparing
+     * commits of an unrelated repository
+     */
+    private static Repository openRepository(GitConfig gitConfig, String branch) throws IOException {
+        File gitDir = Path.of(gitConfig.getLocalRepositoryRoot(), branch, Constants.DOT_GIT).toFile();
+        Repository repository = new FileRepositoryBuilder()
+                .setGitDir(gitDir)
+                .setMustExist(true)
+                .build();
+        if (!branch.equals(repository.getBranch())) {
+            String actual = repository.getBranch();
+            repository.close();
+            throw new IllegalStateException("Local repository \"" + gitDir + "\" is on branch \"" + actual
+                    + "\" instead of \"" + branch + "\"");
+        }
+        return repository;
+    }
+
+    private static List<ResourceFile> readFiles(Repository repository, ObjectId commitId) throws IOException {
+        List<ResourceFile> files = new ArrayList<>();
+        try (RevWalk revWalk = new RevWalk(repository);
+             TreeWalk treeWalk = new TreeWalk(repository)) {
+
+            RevCommit commit = revWalk.parseCommit(commitId);
+            treeWalk.addTree(commit.getTree());
+            treeWalk.setRecursive(true);
+            while (treeWalk.next()) {
+                String path = treeWalk.getPathString();
+                if (path.endsWith(".yml") || path.endsWith(".yaml")) {
+                    byte[] content = repository.open(treeWalk.getObjectId(0), Constants.OBJ_BLOB).getBytes();
+                    files.add(new ResourceFile(path, content));
+                }
+            }
+        }
+        return files;
+    }
+
+    private static RepositoryResource parse(ResourceFile file) {
+        try {
+            JsonNode node = mapper.readTree(file.content());
+            if (node == null || !node.isObject()) {
+                return null;
+            }
+            String kind = node.path("kind").asText(null);
+            String name = node.path("metadata").path("name").asText(null);
+            if (kind == null || name == null || ResourceType.forKind(kind) == null) {
+                return null;
+            }
+            ObjectMeta meta = new ObjectMeta();
+            meta.setName(name);
+            RepositoryResource resource = new RepositoryResource();
+            resource.setApiVersion(node.path("apiVersion").asText(null));
+            resource.setKind(kind);
+            resource.setMetadata(meta);
+            if (node.has("spec")) {
+                resource.setSpec(mapper.convertValue(node.get("spec"), SPEC_TYPE));
+            }
+            return resource;
+        } catch (IOException | IllegalArgumentException e) {
+            logger.warn("Skipping \"{}\" which is not a valid resource", file.path(), e);
+            return null;
+        }
+    }
+
+    private static String cacheKey(String branch, String commitRef) {
+        return branch + ":" + commitRef;
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2023 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.inframgr.repository;
+
+/*
+    Interval of repository polling. While webhooks keep arriving it is doubled up to the maximum interval,
+    it is reset to the base interval when webhooks stop or polling detects a commit not reported by a webhook.
+    Commits made by infra-mgr itself are not counted as missed
+ */
+public class PollInterval {
+
+    private final long baseIntervalMs;
+
+    private volatile long intervalMs;
+
+    private volatile long lastWebhookTime;
+
+    public PollInterval(long baseIntervalMs) {
+        this.baseIntervalMs = baseIntervalMs;
+        this.intervalMs = baseIntervalMs;
+    }
+
+    public long getIntervalMs() {
+        return intervalMs;
+    }
+
+    public void webhookReceived(long time) {
+        lastWebhookTime = time;
+    }
+
+    /**
+     * @param missedCommits true if the poll detected commits which were not reported by webhooks
+     * @return interval until the next poll
+     */
+    public long adapt(long pollTime, long maxIntervalMs, boolean missedCommits) {
+        boolean webhooksActive = pollTime - lastWebhookTime < maxIntervalMs;
+        intervalMs = missedCommits || !webhooksActive
+                ? baseIntervalMs
+                : Math.min(intervalMs * 2, Math.max(maxIntervalMs, baseIntervalMs));
+        return intervalMs;
+    }
+}
@@ -26,6 +26,10 @@ public class RepositoryUpdateEvent extends SchemaEvent {
 
     private boolean syncingK8s;
 
+    private boolean userCommit;
+
+    private boolean initialSync;
+
     public RepositoryUpdateEvent(String branch, String commitRef) {
         super(branch);
         this.commitRef = commitRef;
@@ -39,6 +43,22 @@ public class RepositoryUpdateEvent extends SchemaEvent {
         this.syncingK8s = syncingK8s;
     }
 
+    public boolean isUserCommit() {
+        return userCommit;
+    }
+
+    public void setUserCommit(boolean userCommit) {
+        this.userCommit = userCommit;
+    }
+
+    public boolean isInitialSync() {
+        return initialSync;
+    }
+
+    public void setInitialSync(boolean initialSync) {
+        this.initialSync = initialSync;
+    }
+
     @Override
     public String getEventType() {
         return EVENT_TYPE;
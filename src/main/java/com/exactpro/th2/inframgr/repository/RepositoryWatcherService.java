@@ -20,23 +20,32 @@ import com.exactpro.th2.inframgr.Config;
 import com.exactpro.th2.inframgr.SchemaEventRouter;
 import com.exactpro.th2.inframgr.docker.monitoring.DynamicResourceProcessor;
 import com.exactpro.th2.inframgr.k8s.K8sResourceCache;
+import com.exactpro.th2.inframgr.k8s.KubernetesRateLimiter;
+import com.exactpro.th2.inframgr.k8s.NamespaceCache;
+import com.exactpro.th2.inframgr.k8s.ShardCoordinator;
+import com.exactpro.th2.inframgr.metrics.ManagerMetrics;
 import com.exactpro.th2.infrarepo.git.GitterContext;
 import io.fabric8.kubernetes.api.model.Namespace;
 import io.fabric8.kubernetes.client.KubernetesClient;
-import io.fabric8.kubernetes.client.KubernetesClientBuilder;
 import io.fabric8.kubernetes.client.dsl.Resource;
+import jakarta.annotation.PostConstruct;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
 
 import static com.exactpro.th2.inframgr.SchemaController.SOURCE_BRANCH;
 
@@ -45,33 +54,80 @@ public class RepositoryWatcherService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(RepositoryWatcherService.class);
 
+    private static final String DETECTED_BY_POLLING = "polling";
+
+    private static final String DETECTED_BY_WEBHOOK = "webhook";
+
     private static volatile boolean startupSynchronizationComplete;
 
     private final Map<String, String> commitHistory;
 
     private final SchemaEventRouter eventRouter;
 
-    private final KubernetesClient kubeClient = new KubernetesClientBuilder().build();
+    private final KubernetesClient kubeClient = KubernetesRateLimiter.clientBuilder().build();
+
+    // polls and webhook checks wait for git fetches while holding the lock,
+    // unlike a monitor it does not pin the carrier when they run on virtual threads
+    private final Lock lock = new ReentrantLock();
 
     private Set<String> prevBranches = Collections.emptySet();
 
+    @Value("${GIT_FETCH_INTERVAL:14000}")
+    private long fetchIntervalMs;
+
+    private PollInterval pollInterval;
+
+    private volatile long lastPollTime;
+
     @Autowired
     private Config config;
 
+    @Autowired
+    private ShardCoordinator shardCoordinator;
+
     public RepositoryWatcherService() {
-        commitHistory = new HashMap<>();
+        commitHistory = new ConcurrentHashMap<>();
         eventRouter = SchemaEventRouter.getInstance();
     }
 
+    @PostConstruct
+    public void start() {
+        pollInterval = new PollInterval(fetchIntervalMs);
+        shardCoordinator.addRebalanceListener(this::synchronizeAcquiredSchemas);
+    }
+
+    private void synchronizeAcquiredSchemas(Predicate<String> ownedBefore) {
+        commitHistory.forEach((branch, commitRef) -> {
+            if (!SOURCE_BRANCH.equals(branch) && !ownedBefore.test(branch) && shardCoordinator.owns(branch)) {
+                LOGGER.info("Schema \"{}\" has been moved to this replica", branch);
+                eventRouter.addEvent(branch, new RepositoryUpdateEvent(branch, commitRef));
+            }
+        });
+    }
+
     @Scheduled(fixedDelayString = "${GIT_FETCH_INTERVAL:14000}")
     private void scheduledJob() {
+        // polling is backed off while webhooks deliver pushes
+        if (System.currentTimeMillis() - lastPollTime < pollInterval.getIntervalMs()) {
+            return;
+        }
+        poll();
+    }
+
+    private void poll() {
+        long pollTime = System.currentTimeMillis();
         try {
+            lock.lock();
             LOGGER.debug("fetching changes from git");
             GitterContext ctx = GitterContext.getContext(config.getGit());
             Map<String, String> commits = ctx.getAllBranchesCommits();
+            BranchRegistry.INSTANCE.publish(commits);
             if (!prevBranches.equals(commits.keySet())) {
                 LOGGER.info("Fetched branches: {}, previous branches: {}", commits.keySet(), prevBranches);
                 removeExtinctedNamespaces(commits.keySet());
+                prevBranches.stream()
+                        .filter(branch -> !commits.containsKey(branch))
+                        .forEach(SnapshotCache.INSTANCE::remove);
             } else {
                 notifyAboutExtinctedNamespaces(commits.keySet());
             }
@@ -79,24 +135,81 @@ public class RepositoryWatcherService {
             if (commitHistory.isEmpty()) {
                 doInitialSynchronization(commits);
             }
-            commits.forEach((branch, commitRef) -> {
-
-                if (!(SOURCE_BRANCH.equals(branch)
-                        || commitHistory.isEmpty()
-                        || commitHistory.getOrDefault(branch, "").equals(commitRef))) {
-                    LOGGER.info("New commit \"{}\" detected for branch \"{}\"", commitRef, branch);
-
-                    RepositoryUpdateEvent event = new RepositoryUpdateEvent(branch, commitRef);
-                    boolean sent = eventRouter.addEventIfNotCached(branch, event);
-                    if (!sent) {
-                        LOGGER.info("Event is recently processed, ignoring");
-                    }
+            boolean missedCommits = false;
+            for (Map.Entry<String, String> entry : commits.entrySet()) {
+                if (!commitHistory.isEmpty() && notifyAboutCommit(entry.getKey(), entry.getValue())
+                        && !BranchRegistry.INSTANCE.isLocalCommit(entry.getKey(), entry.getValue())) {
+                    // commits pushed by infra-mgr itself are not missed by webhooks and keep the backoff
+                    ManagerMetrics.countCommitDetection(DETECTED_BY_POLLING);
+                    missedCommits = true;
                 }
-            });
+            }
 
             commitHistory.putAll(commits);
+            adaptPollInterval(pollTime, missedCommits);
         } catch (Exception e) {
             LOGGER.error("Error fetching repository", e);
+        } finally {
+            lock.unlock();
+        }
+        lastPollTime = pollTime;
+    }
+
+    /**
+     * Checks the branch reported by webhook without waiting for the next poll
+     *
+     * @param commitRef commit reported by webhook, can be null
+     * @param commitTime commit timestamp reported by webhook in milliseconds, 0 if unknown
+     */
+    public void checkPushedBranch(String branch, String commitRef, long commitTime) {
+        try {
+            lock.lock();
+            pollInterval.webhookReceived(System.currentTimeMillis());
+            if (commitHistory.isEmpty()) {
+                // startup synchronization is done by the first poll
+                return;
+            }
+            GitterContext ctx = GitterContext.getContext(config.getGit());
+            String headRef = BranchRegistry.INSTANCE.refresh(ctx).get(branch);
+            if (headRef == null) {
+                // removed branches are handled by polling
+                lastPollTime = 0;
+                return;
+            }
+            if (notifyAboutCommit(branch, headRef)) {
+                ManagerMetrics.countCommitDetection(DETECTED_BY_WEBHOOK);
+                if (commitTime > 0 && headRef.equals(commitRef)) {
+                    ManagerMetrics.observeCommitDetectionLatency(System.currentTimeMillis() - commitTime);
+                }
+            }
+            commitHistory.put(branch, headRef);
+        } catch (Exception e) {
+            LOGGER.error("Error checking branch \"{}\" reported by webhook", branch, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean notifyAboutCommit(String branch, String commitRef) {
+        if (SOURCE_BRANCH.equals(branch) || commitHistory.getOrDefault(branch, "").equals(commitRef)) {
+            return false;
+        }
+        LOGGER.info("New commit \"{}\" detected for branch \"{}\"", commitRef, branch);
+
+        RepositoryUpdateEvent event = new RepositoryUpdateEvent(branch, commitRef);
+        boolean sent = eventRouter.addEventIfNotCached(branch, event);
+        if (!sent) {
+            LOGGER.info("Event is recently processed, ignoring");
+        }
+        return true;
+    }
+
+    private void adaptPollInterval(long pollTime, boolean missedCommits) {
+        long previousMs = pollInterval.getIntervalMs();
+        long intervalMs = pollInterval.adapt(pollTime,
+                TimeUnit.SECONDS.toMillis(config.getGit().getMaxFetchIntervalSec()), missedCommits);
+        if (intervalMs != previousMs) {
+            LOGGER.info("Repository polling interval changed to {} ms", intervalMs);
         }
     }
 
@@ -105,6 +218,7 @@ public class RepositoryWatcherService {
         commits.forEach((branch, commitRef) -> {
             if (!SOURCE_BRANCH.equals(branch)) {
                 RepositoryUpdateEvent event = new RepositoryUpdateEvent(branch, commitRef);
+                event.setInitialSync(true);
                 boolean sent = eventRouter.addEventIfNotCached(branch, event);
                 if (!sent) {
                     LOGGER.info("Event is recently processed, ignoring");
@@ -120,6 +234,9 @@ public class RepositoryWatcherService {
 
         for (String extinctNamespace : extinctNamespaces) {
             String schemaName = extinctNamespace.substring(config.getKubernetes().getNamespacePrefix().length());
+            if (!shardCoordinator.owns(schemaName)) {
+                continue;
+            }
             DynamicResourceProcessor.deleteSchema(schemaName);
             K8sResourceCache.INSTANCE.removeNamespace(extinctNamespace);
             Resource<Namespace> namespaceResource = kubeClient.namespaces().withName(extinctNamespace);
@@ -160,11 +277,11 @@ public class RepositoryWatcherService {
     @NotNull
     private List<String> getExtinctNamespaces(Set<String> existingBranches) {
         String namespacePrefix = config.getKubernetes().getNamespacePrefix();
-        return kubeClient.namespaces()
-                .list()
-                .getItems()
-                .stream()
-                .map(item -> item.getMetadata().getName())
+        NamespaceCache cache = NamespaceCache.INSTANCE;
+        List<String> namespaces = cache.isSynced()
+                ? cache.getNames()
+                : kubeClient.namespaces().list().getItems().stream().map(item -> item.getMetadata().getName()).toList();
+        return namespaces.stream()
                 .filter(namespace -> namespace.startsWith(namespacePrefix)
                         && !existingBranches.contains(namespace.substring(namespacePrefix.length())))
                 .toList();
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2023 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.inframgr.repository;
+
+import com.exactpro.th2.inframgr.models.ResourceEntry;
+import com.exactpro.th2.infrarepo.repo.RepositoryResource;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/*
+    Resources of a single commit of the schema grouped by kind and name.
+    Every resource is serialized once when the index is built, responses are written from the cached bytes
+ */
+public final class ResourceIndex {
+
+    private static final byte[] EMPTY_ARRAY = "[]".getBytes(StandardCharsets.UTF_8);
+
+    public record Entry(String sourceHash, byte[] body) { }
+
+    private final String commitRef;
+
+    private final Map<String, Map<String, Entry>> resources;
+
+    private final Map<String, byte[]> kindBodies;
+
+    private ResourceIndex(String commitRef,
+                          Map<String, Map<String, Entry>> resources,
+                          Map<String, byte[]> kindBodies) {
+        this.commitRef = commitRef;
+        this.resources = resources;
+        this.kindBodies = kindBodies;
+    }
+
+    public static ResourceIndex build(String commitRef,
+                                      Collection<RepositoryResource> repositoryResources,
+                                      ObjectMapper mapper) throws JsonProcessingException {
+        Map<String, Map<String, Entry>> resources = new HashMap<>();
+        for (RepositoryResource resource : repositoryResources) {
+            byte[] body = mapper.writeValueAsBytes(new ResourceEntry(resource));
+            resources.computeIfAbsent(resource.getKind(), kind -> new TreeMap<>())
+                    .put(resource.getMetadata().getName(), new Entry(resource.getSourceHash(), body));
+        }
+
+        Map<String, byte[]> kindBodies = new HashMap<>();
+        resources.forEach((kind, entries) -> {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            out.write('[');
+            boolean first = true;
+            for (Entry entry : entries.values()) {
+                if (!first) {
+                    out.write(',');
+                }
+                out.writeBytes(entry.body());
+                first = false;
+            }
+            out.write(']');
+            kindBodies.put(kind, out.toByteArray());
+        });
+        return new ResourceIndex(commitRef, resources, kindBodies);
+    }
+
+    public String getCommitRef() {
+        return commitRef;
+    }
+
+    /**
+     * @return resource or null if the schema does not contain it
+     */
+    public Entry get(String kind, String name) {
+        return resources.getOrDefault(kind, Collections.emptyMap()).get(name);
+    }
+
+    /**
+     * @return json array of all resources of the kind ordered by name
+     */
+    public byte[] getKindBody(String kind) {
+        return kindBodies.getOrDefault(kind, EMPTY_ARRAY);
+    }
+}
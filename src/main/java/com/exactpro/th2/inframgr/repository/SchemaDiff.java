@@ -0,0 +1,159 @@
+/*
+ * Copyright 2023 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.inframgr.repository;
+
+import com.exactpro.th2.inframgr.models.ResourceEntry;
+import com.exactpro.th2.inframgr.util.JsonPatch;
+import com.exactpro.th2.infrarepo.repo.RepositoryResource;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/*
+    Resources added, removed and changed between two commits of the schema.
+    Resources with equal source hashes are unchanged, others are compared by JSON patch of the spec,
+    so formatting of resource files and missing hashes of historical commits do not report changes
+ */
+public class SchemaDiff {
+
+    public static class ChangedResource {
+
+        private final String kind;
+
+        private final String name;
+
+        private final String fromSourceHash;
+
+        private final String toSourceHash;
+
+        private final JsonNode patch;
+
+        public ChangedResource(String kind, String name, String fromSourceHash, String toSourceHash, JsonNode patch) {
+            this.kind = kind;
+            this.name = name;
+            this.fromSourceHash = fromSourceHash;
+            this.toSourceHash = toSourceHash;
+            this.patch = patch;
+        }
+
+        public String getKind() {
+            return kind;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getFromSourceHash() {
+            return fromSourceHash;
+        }
+
+        public String getToSourceHash() {
+            return toSourceHash;
+        }
+
+        public JsonNode getPatch() {
+            return patch;
+        }
+    }
+
+    private final String fromCommitRef;
+
+    private final String toCommitRef;
+
+    private final List<ResourceEntry> added = new ArrayList<>();
+
+    private final List<ResourceEntry> removed = new ArrayList<>();
+
+    private final List<ChangedResource> changed = new ArrayList<>();
+
+    private SchemaDiff(String fromCommitRef, String toCommitRef) {
+        this.fromCommitRef = fromCommitRef;
+        this.toCommitRef = toCommitRef;
+    }
+
+    public static SchemaDiff compute(String fromCommitRef,
+                                     Collection<RepositoryResource> fromResources,
+                                     String toCommitRef,
+                                     Collection<RepositoryResource> toResources,
+                                     ObjectMapper mapper) {
+        SchemaDiff diff = new SchemaDiff(fromCommitRef, toCommitRef);
+        Map<String, RepositoryResource> from = byKey(fromResources);
+        Map<String, RepositoryResource> to = byKey(toResources);
+
+        from.forEach((key, source) -> {
+            RepositoryResource target = to.get(key);
+            if (target == null) {
+                diff.removed.add(new ResourceEntry(source));
+            } else if (source.getSourceHash() == null
+                    || !Objects.equals(source.getSourceHash(), target.getSourceHash())) {
+                JsonNode patch = JsonPatch.diff(
+                        mapper.valueToTree(source.getSpec()),
+                        mapper.valueToTree(target.getSpec()));
+                if (patch.isEmpty()) {
+                    return;
+                }
+                diff.changed.add(new ChangedResource(
+                        target.getKind(),
+                        target.getMetadata().getName(),
+                        source.getSourceHash(),
+                        target.getSourceHash(),
+                        patch));
+            }
+        });
+        to.forEach((key, target) -> {
+            if (!from.containsKey(key)) {
+                diff.added.add(new ResourceEntry(target));
+            }
+        });
+        return diff;
+    }
+
+    private static Map<String, RepositoryResource> byKey(Collection<RepositoryResource> resources) {
+        Map<String, RepositoryResource> map = new TreeMap<>();
+        for (RepositoryResource resource : resources) {
+            map.put(resource.getKind() + "/" + resource.getMetadata().getName(), resource);
+        }
+        return map;
+    }
+
+    public String getFromCommitRef() {
+        return fromCommitRef;
+    }
+
+    public String getToCommitRef() {
+        return toCommitRef;
+    }
+
+    public List<ResourceEntry> getAdded() {
+        return added;
+    }
+
+    public List<ResourceEntry> getRemoved() {
+        return removed;
+    }
+
+    public List<ChangedResource> getChanged() {
+        return changed;
+    }
+}
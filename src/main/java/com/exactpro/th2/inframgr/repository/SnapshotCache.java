@@ -0,0 +1,91 @@
+/*
+ * Copyright 2023 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.inframgr.repository;
+
+import com.exactpro.th2.inframgr.metrics.ManagerMetrics;
+import com.exactpro.th2.infrarepo.git.Gitter;
+import com.exactpro.th2.infrarepo.repo.Repository;
+import com.exactpro.th2.infrarepo.repo.RepositorySnapshot;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+    Snapshots of the latest known commit of every branch shared by read-only consumers.
+    Snapshot is served without gitter lock and repository parsing while it matches the head of its branch
+    in BranchRegistry.
+    Cached snapshots must not be modified by consumers
+ */
+public enum SnapshotCache {
+    INSTANCE;
+
+    private final Map<String, RepositorySnapshot> snapshots = new ConcurrentHashMap<>();
+
+    /**
+     * @return snapshot of the latest known commit of the branch or null if it is not cached
+     */
+    public RepositorySnapshot get(String branch) {
+        String head = BranchRegistry.INSTANCE.getCommitRef(branch);
+        RepositorySnapshot snapshot = snapshots.get(branch);
+        if (head != null && snapshot != null && head.equals(snapshot.getCommitRef())) {
+            ManagerMetrics.countSnapshotCacheHit();
+            return snapshot;
+        }
+        ManagerMetrics.countSnapshotCacheMiss();
+        return null;
+    }
+
+    /**
+     * Returns cached snapshot or loads it from repository under gitter lock and caches it
+     */
+    public RepositorySnapshot load(Gitter gitter) throws Exception {
+        String branch = gitter.getBranch();
+        RepositorySnapshot snapshot = get(branch);
+        if (snapshot != null) {
+            return snapshot;
+        }
+        try {
+            gitter.lock();
+            String head = BranchRegistry.INSTANCE.getCommitRef(branch);
+            snapshot = Repository.getSnapshot(gitter);
+            put(branch, head, snapshot);
+        } finally {
+            gitter.unlock();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Caches freshly loaded snapshot, its commit becomes the head of the branch
+     * only if the head has not moved since it was read
+     *
+     * @param expectedHead head of the branch in BranchRegistry read before the snapshot was loaded
+     */
+    public void put(String branch, String expectedHead, RepositorySnapshot snapshot) {
+        if (BranchRegistry.INSTANCE.compareAndUpdate(branch, expectedHead, snapshot.getCommitRef())) {
+            // concurrent put may have already cached the snapshot of a newer head
+            snapshots.compute(branch, (key, cached) ->
+                    cached != null && cached.getCommitRef().equals(BranchRegistry.INSTANCE.getCommitRef(branch))
+                            ? cached
+                            : snapshot);
+        }
+    }
+
+    public void remove(String branch) {
+        snapshots.remove(branch);
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2023 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.inframgr.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+    Executor for tasks which spend most of their time in blocking git, Kubernetes and registry requests.
+    Depending on the mode every task runs on a pooled platform thread or on its own virtual thread.
+    Platform pool is bounded, when all its threads are busy the task runs on the submitting thread,
+    so tasks waiting for their own subtasks cannot exhaust the pool and deadlock.
+    Virtual threads are looked up reflectively, as they are available only since JDK 21,
+    on older runtimes platform threads are used
+ */
+public final class BlockingTaskExecutors {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlockingTaskExecutors.class);
+
+    private static final String THREAD_NAME_PREFIX = "blocking-task-";
+
+    public static final int DEFAULT_MAX_THREADS = 64;
+
+    private static final long KEEP_ALIVE_SEC = 60;
+
+    public enum Mode {
+        PLATFORM,
+        VIRTUAL
+    }
+
+    private static volatile Mode mode = Mode.PLATFORM;
+
+    private static volatile int maxThreads = DEFAULT_MAX_THREADS;
+
+    private static volatile ExecutorService shared;
+
+    private BlockingTaskExecutors() {
+    }
+
+    /**
+     * Sets mode of the shared executor, must be called before the executor is used for the first time
+     */
+    public static synchronized void setMode(Mode mode) {
+        if (mode == Mode.VIRTUAL && !isVirtualThreadsSupported()) {
+            logger.warn("Virtual threads are not supported by Java {}, platform threads will be used",
+                    Runtime.version().feature());
+            mode = Mode.PLATFORM;
+        }
+        if (shared != null && mode != BlockingTaskExecutors.mode) {
+            logger.warn("Executor has been already started in {} mode, {} mode is ignored",
+                    BlockingTaskExecutors.mode, mode);
+            return;
+        }
+        BlockingTaskExecutors.mode = mode;
+    }
+
+    public static Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Sets maximum number of platform threads of the shared executor,
+     * must be called before the executor is used for the first time
+     */
+    public static synchronized void setMaxThreads(int maxThreads) {
+        if (maxThreads < 1) {
+            throw new IllegalArgumentException("Maximum number of threads must be positive");
+        }
+        if (shared != null && maxThreads != BlockingTaskExecutors.maxThreads) {
+            logger.warn("Executor has been already started with {} threads, {} threads are ignored",
+                    BlockingTaskExecutors.maxThreads, maxThreads);
+            return;
+        }
+        BlockingTaskExecutors.maxThreads = maxThreads;
+    }
+
+    public static int getMaxThreads() {
+        return maxThreads;
+    }
+
+    /**
+     * @return executor shared by all blocking tasks of infra-mgr
+     */
+    public static ExecutorService shared() {
+        ExecutorService executor = shared;
+        if (executor == null) {
+            synchronized (BlockingTaskExecutors.class) {
+                executor = shared;
+                if (executor == null) {
+                    executor = newExecutor(mode, maxThreads);
+                    shared = executor;
+                    logger.info("Blocking tasks are executed on {} threads", mode.name().toLowerCase());
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * @param maxThreads maximum number of threads of the platform pool, virtual threads are not limited
+     */
+    public static ExecutorService newExecutor(Mode mode, int maxThreads) {
+        if (mode == Mode.VIRTUAL) {
+            try {
+                return newVirtualThreadExecutor();
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Virtual threads are not supported", e);
+            }
+        }
+        return new ThreadPoolExecutor(0, maxThreads,
+                KEEP_ALIVE_SEC, TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                new PlatformThreadFactory(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public static boolean isVirtualThreadsSupported() {
+        try {
+            Thread.class.getMethod("ofVirtual");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static ExecutorService newVirtualThreadExecutor() throws ReflectiveOperationException {
+        Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+        Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+        builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, THREAD_NAME_PREFIX, 0L);
+        ThreadFactory factory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                .invoke(null, factory);
+    }
+
+    private static final class PlatformThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable task) {
+            return new Thread(task, THREAD_NAME_PREFIX + counter.getAndIncrement());
+        }
+    }
+}
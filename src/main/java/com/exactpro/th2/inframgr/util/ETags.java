@@ -0,0 +1,82 @@
+/*
+ * Copyright 2023 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exactpro.th2.inframgr.util;
+
+/*
+    If-None-Match evaluation according to RFC 7232.
+    Header is either "*" or a comma separated list of entity tags, which are compared using weak comparison
+ */
+public final class ETags {
+
+    private static final String ANY = "*";
+
+    private static final String WEAK_PREFIX = "W/";
+
+    private ETags() {
+    }
+
+    /**
+     * @param ifNoneMatch value of If-None-Match header, may be null
+     * @param eTag        current entity tag of the resource
+     * @return true if the header matches the current entity tag, so that 304 Not Modified should be returned
+     */
+    public static boolean isNotModified(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        if (ifNoneMatch.trim().equals(ANY)) {
+            return true;
+        }
+        String opaqueTag = opaqueTag(eTag);
+        int position = 0;
+        int length = ifNoneMatch.length();
+        while (position < length) {
+            char c = ifNoneMatch.charAt(position);
+            if (c == ',' || Character.isWhitespace(c)) {
+                position++;
+                continue;
+            }
+            int start = position;
+            if (ifNoneMatch.startsWith(WEAK_PREFIX, position)) {
+                position += WEAK_PREFIX.length();
+            }
+            int end;
+            if (position < length && ifNoneMatch.charAt(position) == '"') {
+                // quoted tag may contain commas
+                int closing = ifNoneMatch.indexOf('"', position + 1);
+                end = closing < 0 ? length : closing + 1;
+            } else {
+                int comma = ifNoneMatch.indexOf(',', position);
+                end = comma < 0 ? length : comma;
+            }
+            if (opaqueTag.equals(opaqueTag(ifNoneMatch.substring(start, end).trim()))) {
+                return true;
+            }
+            position = end;
+        }
+        return false;
+    }
+
+    private static String opaqueTag(String eTag) {
+        String tag = eTag.startsWith(WEAK_PREFIX) ? eTag.substring(WEAK_PREFIX.length()) : eTag;
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            return tag.substring(1, tag.length() - 1);
+        }
+        return tag;
+    }
+}
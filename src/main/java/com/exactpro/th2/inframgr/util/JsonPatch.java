@@ -0,0 +1,90 @@
+/*
+ * Copyright 2023 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.inframgr.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.Iterator;
+import java.util.Objects;
+
+/*
+    Builds RFC 6902 JSON patch which turns one document into another.
+    Objects are compared field by field, arrays element by element while their sizes are equal,
+    otherwise the whole array is replaced
+ */
+public final class JsonPatch {
+
+    private static final JsonNodeFactory factory = JsonNodeFactory.instance;
+
+    private JsonPatch() {
+    }
+
+    public static ArrayNode diff(JsonNode source, JsonNode target) {
+        ArrayNode patch = factory.arrayNode();
+        diff(patch, "", normalize(source), normalize(target));
+        return patch;
+    }
+
+    private static void diff(ArrayNode patch, String path, JsonNode source, JsonNode target) {
+        if (Objects.equals(source, target)) {
+            return;
+        }
+        if (source.isMissingNode()) {
+            patch.add(operation("add", path).set("value", target));
+        } else if (target.isMissingNode()) {
+            patch.add(operation("remove", path));
+        } else if (source.isObject() && target.isObject()) {
+            Iterator<String> sourceFields = source.fieldNames();
+            while (sourceFields.hasNext()) {
+                String field = sourceFields.next();
+                diff(patch, path + "/" + escape(field), source.get(field), target.path(field));
+            }
+            Iterator<String> targetFields = target.fieldNames();
+            while (targetFields.hasNext()) {
+                String field = targetFields.next();
+                if (!source.has(field)) {
+                    patch.add(operation("add", path + "/" + escape(field)).set("value", target.get(field)));
+                }
+            }
+        } else if (source.isArray() && target.isArray() && source.size() == target.size()) {
+            for (int i = 0; i < source.size(); i++) {
+                diff(patch, path + "/" + i, source.get(i), target.get(i));
+            }
+        } else {
+            patch.add(operation("replace", path).set("value", target));
+        }
+    }
+
+    private static ObjectNode operation(String op, String path) {
+        ObjectNode operation = factory.objectNode();
+        operation.put("op", op);
+        operation.put("path", path);
+        return operation;
+    }
+
+    private static JsonNode normalize(JsonNode node) {
+        return node == null ? MissingNode.getInstance() : node;
+    }
+
+    private static String escape(String field) {
+        return field.replace("~", "~0").replace("/", "~1");
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2023 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.inframgr.util;
+
+import com.exactpro.th2.inframgr.Config;
+import com.exactpro.th2.inframgr.util.cfg.SyncCfg;
+import com.exactpro.th2.infrarepo.repo.RepositoryResource;
+import com.exactpro.th2.infrarepo.settings.RepositorySettingsResource;
+import com.exactpro.th2.validator.SchemaValidationContext;
+import com.exactpro.th2.validator.SchemaValidator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/*
+    Validation results of recently validated schemas.
+    Results are keyed by content of the schema, so the same content validated by the editor
+    before commit is not validated again when resulting commit is synchronized
+ */
+@Component
+public class SchemaValidationCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaValidationCache.class);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+
+    private static class CacheEntry {
+
+        private final SchemaValidationContext context;
+
+        private final long creationTime;
+
+        CacheEntry(SchemaValidationContext context) {
+            this.context = context;
+            this.creationTime = System.currentTimeMillis();
+        }
+    }
+
+    @Autowired
+    private Config config;
+
+    private final Map<String, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+            return size() > config.getSync().getValidationCacheSize();
+        }
+    };
+
+    public SchemaValidationContext validate(String schemaName,
+                                            RepositorySettingsResource settings,
+                                            Map<String, Map<String, RepositoryResource>> repositoryMap) {
+
+        String namespacePrefix = config.getKubernetes().getNamespacePrefix();
+        String storageServiceUrl = config.getKubernetes().getStorageServiceUrl();
+        String key;
+        try {
+            key = contentKey(schemaName + ":" + namespacePrefix + ":" + storageServiceUrl, settings, repositoryMap);
+        } catch (JsonProcessingException e) {
+            logger.warn("Unable to build validation cache key for schema \"{}\"", schemaName, e);
+            return SchemaValidator.validate(schemaName, namespacePrefix, storageServiceUrl, settings, repositoryMap);
+        }
+
+        SyncCfg syncCfg = config.getSync();
+        synchronized (entries) {
+            CacheEntry entry = entries.get(key);
+            if (entry != null) {
+                if (System.currentTimeMillis() - entry.creationTime < syncCfg.getValidationCacheTtlSec() * 1000L) {
+                    logger.debug("Using cached validation result for schema \"{}\"", schemaName);
+                    return entry.context;
+                }
+                entries.remove(key);
+            }
+        }
+
+        SchemaValidationContext context = SchemaValidator.validate(
+                schemaName,
+                namespacePrefix,
+                storageServiceUrl,
+                settings,
+                repositoryMap
+        );
+        synchronized (entries) {
+            entries.put(key, new CacheEntry(context));
+        }
+        return context;
+    }
+
+    /**
+     * Key depends only on kinds, names and specs of resources,
+     * so annotations added during synchronization and the order of resources do not affect it
+     */
+    public static String contentKey(String prefix,
+                                    RepositorySettingsResource settings,
+                                    Map<String, Map<String, RepositoryResource>> repositoryMap)
+            throws JsonProcessingException {
+
+        Map<String, Object> specs = new TreeMap<>();
+        for (Map<String, RepositoryResource> resources : repositoryMap.values()) {
+            for (RepositoryResource resource : resources.values()) {
+                specs.put(resource.getKind() + "/" + resource.getMetadata().getName(), resource.getSpec());
+            }
+        }
+        String settingsSpec = MAPPER.writeValueAsString(settings == null ? null : settings.getSpec());
+        return AnnotationUtils.digest(prefix + settingsSpec + MAPPER.writeValueAsString(specs));
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
+ * Copyright 2020-2023 Exactpro (Exactpro Systems Limited)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,19 +16,31 @@
 
 package com.exactpro.th2.inframgr.util;
 
+import com.exactpro.th2.inframgr.metrics.ManagerMetrics;
 import com.exactpro.th2.infrarepo.repo.RepositoryResource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.Deflater;
 import java.util.zip.GZIPOutputStream;
 
 /*
     Class takes care of compressing and encoding data of TH2Dictionary
-    data if compression is not specified or is false
+    data if compression is not specified or is false.
+    Compressed data is cached by source hash of the dictionary,
+    cache is limited by total size of compressed data
  */
 
 public class Th2DictionaryProcessor {
@@ -42,15 +54,120 @@ public class Th2DictionaryProcessor {
 
     private static final String DATA_KEY = "data";
 
-    private static String encodeString(String value) throws IOException {
+    public static final long DEFAULT_CACHE_CAPACITY_BYTES = 64L * 1024 * 1024;
 
-        var baos = new ByteArrayOutputStream();
-        var gziposs = new GZIPOutputStream(baos);
+    private static final Map<String, String> compressedCache = new LinkedHashMap<>(16, 0.75f, true);
 
-        try (baos; gziposs) {
-            gziposs.write(value.getBytes());
-            gziposs.finish();
-            return new String(Base64.getEncoder().encode(baos.toByteArray()));
+    private static long cacheCapacityBytes = DEFAULT_CACHE_CAPACITY_BYTES;
+
+    private static long cachedBytes = 0;
+
+    public static synchronized void setCacheCapacity(long capacityBytes) {
+        cacheCapacityBytes = capacityBytes;
+        evict();
+    }
+
+    private static synchronized String getCached(String sourceHash) {
+        String compressed = compressedCache.get(sourceHash);
+        if (compressed == null) {
+            ManagerMetrics.countDictionaryCacheMiss();
+        } else {
+            ManagerMetrics.countDictionaryCacheHit();
+        }
+        return compressed;
+    }
+
+    private static synchronized void putCached(String sourceHash, String compressed) {
+        // base64 data is stored one byte per character
+        if (compressed.length() > cacheCapacityBytes) {
+            return;
+        }
+        String previous = compressedCache.put(sourceHash, compressed);
+        if (previous != null) {
+            cachedBytes -= previous.length();
+        }
+        cachedBytes += compressed.length();
+        evict();
+    }
+
+    private static void evict() {
+        Iterator<String> iterator = compressedCache.values().iterator();
+        while (cachedBytes > cacheCapacityBytes && iterator.hasNext()) {
+            cachedBytes -= iterator.next().length();
+            iterator.remove();
+        }
+        ManagerMetrics.setDictionaryCacheBytes(cachedBytes);
+    }
+
+    // pool retains at most BUFFER_POOL_SIZE * MAX_RETAINED_BUFFER_SIZE bytes regardless of number of threads,
+    // bigger buffers are dropped after compression
+    private static final int BUFFER_POOL_SIZE = 4;
+
+    private static final int MAX_RETAINED_BUFFER_SIZE = 2 * 1024 * 1024;
+
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+
+    private static final BlockingQueue<EncodedDataBuffer> buffers = new ArrayBlockingQueue<>(BUFFER_POOL_SIZE);
+
+    private static volatile int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+
+    /*
+        Output buffer which gives access to its content without copying
+     */
+    private static class EncodedDataBuffer extends ByteArrayOutputStream {
+
+        EncodedDataBuffer() {
+            super(STREAM_BUFFER_SIZE);
+        }
+
+        boolean isRetainable() {
+            return buf.length <= MAX_RETAINED_BUFFER_SIZE;
+        }
+
+        String toAsciiString() {
+            return new String(buf, 0, count, StandardCharsets.ISO_8859_1);
+        }
+    }
+
+    private static class LeveledGZIPOutputStream extends GZIPOutputStream {
+
+        LeveledGZIPOutputStream(OutputStream out, int level) throws IOException {
+            super(out, STREAM_BUFFER_SIZE);
+            def.setLevel(level);
+        }
+    }
+
+    public static void setCompressionLevel(int level) {
+        if (level == Deflater.DEFAULT_COMPRESSION || (level >= Deflater.NO_COMPRESSION
+                && level <= Deflater.BEST_COMPRESSION)) {
+            compressionLevel = level;
+        }
+    }
+
+    /**
+     * Streams value through gzip and base64 encoders into a pooled buffer,
+     * so that only the resulting string is allocated for each dictionary.
+     * New buffer is allocated when the pool is empty
+     */
+    static String encodeString(String value) throws IOException {
+
+        EncodedDataBuffer buffer = buffers.poll();
+        if (buffer == null) {
+            buffer = new EncodedDataBuffer();
+        }
+        try {
+            OutputStream base64 = Base64.getEncoder().wrap(buffer);
+            try (Writer writer = new OutputStreamWriter(new LeveledGZIPOutputStream(base64, compressionLevel),
+                    StandardCharsets.UTF_8)) {
+                writer.write(value);
+            }
+            return buffer.toAsciiString();
+        } finally {
+            if (buffer.isRetainable()) {
+                buffer.reset();
+                // buffer is dropped when the pool is full
+                buffers.offer(buffer);
+            }
         }
     }
 
@@ -59,8 +176,15 @@ public class Th2DictionaryProcessor {
             try {
                 Map<String, Object> specMap = (Map<String, Object>) repositoryResource.getSpec();
                 if (!specMap.containsKey(COMPRESSED_KEY) || specMap.get(COMPRESSED_KEY).toString().equals("false")) {
-                    String stringedData = specMap.get(DATA_KEY).toString();
-                    specMap.put(DATA_KEY, encodeString(stringedData));
+                    String sourceHash = repositoryResource.getSourceHash();
+                    String compressed = sourceHash == null ? null : getCached(sourceHash);
+                    if (compressed == null) {
+                        compressed = encodeString(specMap.get(DATA_KEY).toString());
+                        if (sourceHash != null) {
+                            putCached(sourceHash, compressed);
+                        }
+                    }
+                    specMap.put(DATA_KEY, compressed);
                     specMap.put(COMPRESSED_KEY, true);
                     repositoryResource.setSpec(specMap);
                 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
+ * Copyright 2020-2023 Exactpro (Exactpro Systems Limited)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -32,6 +32,10 @@ public class GitCfg implements GitConfig {
 
     private byte[] privateKeyBytes;
 
+    private String webhookSecret;
+
+    private int maxFetchIntervalSec = 120;
+
     @Override
     public String getRemoteRepository() {
         return remoteRepository;
@@ -81,4 +85,22 @@ public class GitCfg implements GitConfig {
     public void setHttpAuthPassword(String httpAuthPassword) {
         this.httpAuthPassword = httpAuthPassword;
     }
+
+    public String getWebhookSecret() {
+        return webhookSecret;
+    }
+
+    public void setWebhookSecret(String webhookSecret) {
+        this.webhookSecret = webhookSecret;
+    }
+
+    public int getMaxFetchIntervalSec() {
+        return maxFetchIntervalSec;
+    }
+
+    public void setMaxFetchIntervalSec(int maxFetchIntervalSec) {
+        if (maxFetchIntervalSec > 0) {
+            this.maxFetchIntervalSec = maxFetchIntervalSec;
+        }
+    }
 }
@@ -53,6 +53,10 @@ public class K8sConfig {
 
     private String storageServiceUrl = "storage-service:8080";
 
+    private K8sRateLimitCfg rateLimit = new K8sRateLimitCfg();
+
+    private K8sShardingCfg sharding = new K8sShardingCfg();
+
     private final SchemaInitializer.SchemaSyncMode schemaSyncMode = SchemaInitializer.SchemaSyncMode.CHECK_NAMESPACE;
 
     public boolean useCustomConfig() {
@@ -159,6 +163,22 @@ public class K8sConfig {
         return schemaSyncMode;
     }
 
+    public K8sRateLimitCfg getRateLimit() {
+        return rateLimit;
+    }
+
+    public void setRateLimit(K8sRateLimitCfg rateLimit) {
+        this.rateLimit = rateLimit;
+    }
+
+    public K8sShardingCfg getSharding() {
+        return sharding;
+    }
+
+    public void setSharding(K8sShardingCfg sharding) {
+        this.sharding = sharding;
+    }
+
     public String getStorageServiceUrl() {
         return storageServiceUrl;
     }
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2023 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exactpro.th2.inframgr.util.cfg;
+
+public class K8sRateLimitCfg {
+
+    /**
+     * Enables throttling of Kubernetes API requests, disabled by default.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Maximum rate of GET requests per second, including list requests. Watch requests are not throttled.
+     */
+    private double readQps = 50;
+
+    /**
+     * Maximum rate of POST, PUT, PATCH and DELETE requests per second.
+     */
+    private double writeQps = 20;
+
+    /**
+     * Share of the verb budget a single namespace can consume, from `0` to `1`.
+     */
+    private double namespaceShare = 0.5;
+
+    /**
+     * Lowest rate limiter backs off to after the server throttles requests.
+     */
+    private double minQps = 1;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public double getReadQps() {
+        return readQps;
+    }
+
+    public void setReadQps(double readQps) {
+        if (readQps > 0) {
+            this.readQps = readQps;
+        }
+    }
+
+    public double getWriteQps() {
+        return writeQps;
+    }
+
+    public void setWriteQps(double writeQps) {
+        if (writeQps > 0) {
+            this.writeQps = writeQps;
+        }
+    }
+
+    public double getNamespaceShare() {
+        return namespaceShare;
+    }
+
+    public void setNamespaceShare(double namespaceShare) {
+        if (namespaceShare > 0 && namespaceShare <= 1) {
+            this.namespaceShare = namespaceShare;
+        }
+    }
+
+    public double getMinQps() {
+        return minQps;
+    }
+
+    public void setMinQps(double minQps) {
+        if (minQps > 0) {
+            this.minQps = minQps;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2023 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.inframgr.util.cfg;
+
+import java.util.Objects;
+
+public class K8sShardingCfg {
+
+    /**
+     * Split schemas between several infra-mgr replicas, single replica handles all schemas when false.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Unique name of the replica, pod name is used by default.
+     */
+    private String replicaId = System.getenv("HOSTNAME");
+
+    /**
+     * Prefix of Lease objects which replicas renew in infra-mgr namespace to announce themselves.
+     */
+    private String leasePrefix = "th2-infra-mgr";
+
+    /**
+     * Replica is considered gone if its lease was not renewed during this interval.
+     */
+    private int leaseDurationSec = 15;
+
+    private int renewIntervalSec = 5;
+
+    /**
+     * Number of points every replica takes on the consistent hashing ring,
+     * more points give more even distribution of schemas.
+     */
+    private int virtualNodes = 64;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getReplicaId() {
+        return Objects.requireNonNullElse(replicaId, "infra-mgr");
+    }
+
+    public void setReplicaId(String replicaId) {
+        this.replicaId = replicaId;
+    }
+
+    public String getLeasePrefix() {
+        return leasePrefix;
+    }
+
+    public void setLeasePrefix(String leasePrefix) {
+        this.leasePrefix = leasePrefix;
+    }
+
+    public int getLeaseDurationSec() {
+        return leaseDurationSec;
+    }
+
+    public void setLeaseDurationSec(int leaseDurationSec) {
+        if (leaseDurationSec > 0) {
+            this.leaseDurationSec = leaseDurationSec;
+        }
+    }
+
+    public int getRenewIntervalSec() {
+        return renewIntervalSec;
+    }
+
+    public void setRenewIntervalSec(int renewIntervalSec) {
+        if (renewIntervalSec > 0) {
+            this.renewIntervalSec = renewIntervalSec;
+        }
+    }
+
+    public int getVirtualNodes() {
+        return virtualNodes;
+    }
+
+    public void setVirtualNodes(int virtualNodes) {
+        if (virtualNodes > 0) {
+            this.virtualNodes = virtualNodes;
+        }
+    }
+}
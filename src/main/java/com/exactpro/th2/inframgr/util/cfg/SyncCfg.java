@@ -0,0 +1,304 @@
+/*
+ * Copyright 2023 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.inframgr.util.cfg;
+
+import com.exactpro.th2.inframgr.util.BlockingTaskExecutors;
+
+public class SyncCfg {
+
+    /**
+     * Number of threads synchronizing schemas with Kubernetes.
+     */
+    private int workerThreads = 3;
+
+    /**
+     * Number of recent synchronization runs kept for `/sync/history` endpoint.
+     */
+    private int historySize = 100;
+
+    /**
+     * Number of schema validation results kept to skip validation of already validated content.
+     * Value `0` disables caching.
+     */
+    private int validationCacheSize = 32;
+
+    /**
+     * Validation also depends on the state of the cluster, e.g. secrets,
+     * so cached results expire after this interval.
+     */
+    private int validationCacheTtlSec = 300;
+
+    /**
+     * Total size of compressed dictionary data kept to skip compression of unchanged dictionaries.
+     * Value `0` disables caching.
+     */
+    private int dictionaryCacheSizeMb = 64;
+
+    /**
+     * Gzip compression level of dictionaries from `0` to `9`, `-1` is the default level of gzip.
+     */
+    private int dictionaryCompressionLevel = -1;
+
+    /**
+     * Schema is synchronized only after it had no updates during this interval,
+     * so bursts of commits are synchronized once.
+     * User commits and synchronization requests are not delayed. Value `0` disables debouncing.
+     */
+    private long debounceIntervalMs;
+
+    /**
+     * Stop applying resources of an outdated commit if a newer commit of the schema is queued.
+     */
+    private boolean preemptSupersededSync = false;
+
+    /**
+     * Maximum number of custom resource create/replace/delete requests
+     * that are sent to Kubernetes in parallel while synchronizing a single namespace.
+     * Value `1` applies resources one by one on the synchronization thread.
+     */
+    private int applyConcurrency = 1;
+
+    /**
+     * Apply only resources changed since the last successfully synchronized commit of the schema.
+     * Full reconciliation is still done for the first synchronization, after failures,
+     * on settings changes, on recovery requests and every `fullSyncIntervalSec` seconds.
+     */
+    private boolean incremental = false;
+
+    private int fullSyncIntervalSec = 600;
+
+    /**
+     * Namespace infrastructure resources (config maps and secrets copied from infra-mgr namespace)
+     * are not checked again while their sources and settings are unchanged during this interval.
+     * Value `0` checks them on every synchronization.
+     */
+    private int initializerFingerprintTtlSec = 600;
+
+    /**
+     * Keep config maps and secrets of infra-mgr namespace in an informer cache
+     * and push their changes to already synchronized schemas without waiting for the next synchronization.
+     */
+    private boolean watchSourceResources = true;
+
+    /**
+     * Keep schema namespaces in an informer cache instead of listing them on every repository poll.
+     */
+    private boolean watchNamespaces = true;
+
+    /**
+     * Record applied commits and resource hashes of schemas in a local file,
+     * so that schemas which are unchanged since the last run are not synchronized again after restart.
+     */
+    private boolean ledger = true;
+
+    /**
+     * Path of the ledger file, `.sync-ledger.jsonl` in `git.localRepositoryRoot` is used by default.
+     */
+    private String ledgerFile;
+
+    /**
+     * Threads executing blocking synchronization, registry and HTTP tasks.
+     * `VIRTUAL` requires Java 21, platform threads are used on older runtimes.
+     */
+    private BlockingTaskExecutors.Mode executorMode = BlockingTaskExecutors.Mode.PLATFORM;
+
+    /**
+     * Maximum number of platform threads executing blocking tasks, not used in `VIRTUAL` mode.
+     * When all threads are busy a task runs on the thread which submitted it.
+     */
+    private int executorMaxThreads = BlockingTaskExecutors.DEFAULT_MAX_THREADS;
+
+    /**
+     * Update requests of the same schema received within this interval are validated together
+     * and written in a single commit. Value `0` disables grouping.
+     */
+    private long groupCommitWindowMs;
+
+    public int getHistorySize() {
+        return historySize;
+    }
+
+    public void setHistorySize(int historySize) {
+        if (historySize > 0) {
+            this.historySize = historySize;
+        }
+    }
+
+    public int getValidationCacheSize() {
+        return validationCacheSize;
+    }
+
+    public void setValidationCacheSize(int validationCacheSize) {
+        if (validationCacheSize >= 0) {
+            this.validationCacheSize = validationCacheSize;
+        }
+    }
+
+    public int getValidationCacheTtlSec() {
+        return validationCacheTtlSec;
+    }
+
+    public void setValidationCacheTtlSec(int validationCacheTtlSec) {
+        if (validationCacheTtlSec >= 0) {
+            this.validationCacheTtlSec = validationCacheTtlSec;
+        }
+    }
+
+    public int getDictionaryCacheSizeMb() {
+        return dictionaryCacheSizeMb;
+    }
+
+    public void setDictionaryCacheSizeMb(int dictionaryCacheSizeMb) {
+        if (dictionaryCacheSizeMb >= 0) {
+            this.dictionaryCacheSizeMb = dictionaryCacheSizeMb;
+        }
+    }
+
+    public int getDictionaryCompressionLevel() {
+        return dictionaryCompressionLevel;
+    }
+
+    public void setDictionaryCompressionLevel(int dictionaryCompressionLevel) {
+        this.dictionaryCompressionLevel = dictionaryCompressionLevel;
+    }
+
+    public int getWorkerThreads() {
+        return workerThreads;
+    }
+
+    public void setWorkerThreads(int workerThreads) {
+        if (workerThreads > 0) {
+            this.workerThreads = workerThreads;
+        }
+    }
+
+    public long getDebounceIntervalMs() {
+        return debounceIntervalMs;
+    }
+
+    public void setDebounceIntervalMs(long debounceIntervalMs) {
+        if (debounceIntervalMs >= 0) {
+            this.debounceIntervalMs = debounceIntervalMs;
+        }
+    }
+
+    public boolean isPreemptSupersededSync() {
+        return preemptSupersededSync;
+    }
+
+    public void setPreemptSupersededSync(boolean preemptSupersededSync) {
+        this.preemptSupersededSync = preemptSupersededSync;
+    }
+
+    public int getApplyConcurrency() {
+        return applyConcurrency;
+    }
+
+    public void setApplyConcurrency(int applyConcurrency) {
+        if (applyConcurrency > 0) {
+            this.applyConcurrency = applyConcurrency;
+        }
+    }
+
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    public int getFullSyncIntervalSec() {
+        return fullSyncIntervalSec;
+    }
+
+    public void setFullSyncIntervalSec(int fullSyncIntervalSec) {
+        if (fullSyncIntervalSec > 0) {
+            this.fullSyncIntervalSec = fullSyncIntervalSec;
+        }
+    }
+
+    public int getInitializerFingerprintTtlSec() {
+        return initializerFingerprintTtlSec;
+    }
+
+    public void setInitializerFingerprintTtlSec(int initializerFingerprintTtlSec) {
+        if (initializerFingerprintTtlSec >= 0) {
+            this.initializerFingerprintTtlSec = initializerFingerprintTtlSec;
+        }
+    }
+
+    public boolean isWatchSourceResources() {
+        return watchSourceResources;
+    }
+
+    public void setWatchSourceResources(boolean watchSourceResources) {
+        this.watchSourceResources = watchSourceResources;
+    }
+
+    public boolean isWatchNamespaces() {
+        return watchNamespaces;
+    }
+
+    public void setWatchNamespaces(boolean watchNamespaces) {
+        this.watchNamespaces = watchNamespaces;
+    }
+
+    public boolean isLedger() {
+        return ledger;
+    }
+
+    public void setLedger(boolean ledger) {
+        this.ledger = ledger;
+    }
+
+    public String getLedgerFile() {
+        return ledgerFile;
+    }
+
+    public void setLedgerFile(String ledgerFile) {
+        this.ledgerFile = ledgerFile;
+    }
+
+    public BlockingTaskExecutors.Mode getExecutorMode() {
+        return executorMode;
+    }
+
+    public void setExecutorMode(BlockingTaskExecutors.Mode executorMode) {
+        if (executorMode != null) {
+            this.executorMode = executorMode;
+        }
+    }
+
+    public int getExecutorMaxThreads() {
+        return executorMaxThreads;
+    }
+
+    public void setExecutorMaxThreads(int executorMaxThreads) {
+        this.executorMaxThreads = executorMaxThreads;
+    }
+
+    public long getGroupCommitWindowMs() {
+        return groupCommitWindowMs;
+    }
+
+    public void setGroupCommitWindowMs(long groupCommitWindowMs) {
+        if (groupCommitWindowMs >= 0) {
+            this.groupCommitWindowMs = groupCommitWindowMs;
+        }
+    }
+}
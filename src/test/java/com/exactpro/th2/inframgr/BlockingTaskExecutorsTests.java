@@ -0,0 +1,121 @@
+/*
+ * Copyright 2023 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.inframgr;
+
+import com.exactpro.th2.inframgr.util.BlockingTaskExecutors;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/*
+    Runs tasks which block like git and Kubernetes requests do in every executor mode.
+    Comparison of the modes is a benchmark, it is excluded from the build and run by `gradle benchmark`
+ */
+class BlockingTaskExecutorsTests {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlockingTaskExecutorsTests.class);
+
+    private static final int TASKS = 20;
+
+    private static final int BENCHMARK_TASKS = 2000;
+
+    private static final long TASK_BLOCKING_MS = 50;
+
+    private static long runBlockingTasks(BlockingTaskExecutors.Mode mode, int tasks) throws Exception {
+        ExecutorService executor = BlockingTaskExecutors.newExecutor(mode, BlockingTaskExecutors.DEFAULT_MAX_THREADS);
+        try {
+            long start = System.nanoTime();
+            List<Future<Integer>> results = new ArrayList<>(tasks);
+            for (int i = 0; i < tasks; i++) {
+                int task = i;
+                results.add(executor.submit(() -> {
+                    Thread.sleep(TASK_BLOCKING_MS);
+                    return task;
+                }));
+            }
+            for (int i = 0; i < tasks; i++) {
+                assertEquals(i, results.get(i).get());
+            }
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testPlatformMode() throws Exception {
+        runBlockingTasks(BlockingTaskExecutors.Mode.PLATFORM, TASKS);
+    }
+
+    @Test
+    void testSaturatedPlatformPoolRunsTaskOnCaller() throws Exception {
+        ExecutorService executor = BlockingTaskExecutors.newExecutor(BlockingTaskExecutors.Mode.PLATFORM, 2);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(2);
+        try {
+            List<Future<Thread>> blocked = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                blocked.add(executor.submit(() -> {
+                    started.countDown();
+                    release.await();
+                    return Thread.currentThread();
+                }));
+            }
+            started.await();
+
+            Thread caller = Thread.currentThread();
+            assertEquals(caller, executor.submit(Thread::currentThread).get());
+
+            release.countDown();
+            for (Future<Thread> future : blocked) {
+                assertNotEquals(caller, future.get());
+            }
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testVirtualMode() throws Exception {
+        assumeTrue(BlockingTaskExecutors.isVirtualThreadsSupported(), "virtual threads require Java 21");
+        runBlockingTasks(BlockingTaskExecutors.Mode.VIRTUAL, TASKS);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void benchmarkModes() throws Exception {
+        long platform = runBlockingTasks(BlockingTaskExecutors.Mode.PLATFORM, BENCHMARK_TASKS);
+        logger.info("{} blocking tasks on platform threads: {} ms", BENCHMARK_TASKS, platform);
+        if (BlockingTaskExecutors.isVirtualThreadsSupported()) {
+            long virtual = runBlockingTasks(BlockingTaskExecutors.Mode.VIRTUAL, BENCHMARK_TASKS);
+            logger.info("{} blocking tasks on virtual threads: {} ms", BENCHMARK_TASKS, virtual);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2023 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exactpro.th2.inframgr;
+
+import com.exactpro.th2.inframgr.repository.BranchRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BranchRegistryTests {
+
+    private static final BranchRegistry registry = BranchRegistry.INSTANCE;
+
+    @Test
+    void testHeadAdvancesFromExpectedCommit() {
+        assertTrue(registry.compareAndUpdate("cas-advance", null, "commit-1"));
+        assertTrue(registry.compareAndUpdate("cas-advance", "commit-1", "commit-2"));
+        assertEquals("commit-2", registry.getCommitRef("cas-advance"));
+    }
+
+    @Test
+    void testStaleSnapshotDoesNotMoveHeadBack() {
+        registry.compareAndUpdate("cas-stale", null, "commit-1");
+        // watcher publishes newer head while older snapshot is being loaded
+        registry.compareAndUpdate("cas-stale", "commit-1", "commit-2");
+
+        assertFalse(registry.compareAndUpdate("cas-stale", "commit-1", "commit-0"));
+        assertEquals("commit-2", registry.getCommitRef("cas-stale"));
+    }
+
+    @Test
+    void testSameHeadIsAccepted() {
+        registry.compareAndUpdate("cas-same", null, "commit-1");
+        assertTrue(registry.compareAndUpdate("cas-same", "commit-0", "commit-1"));
+        assertEquals("commit-1", registry.getCommitRef("cas-same"));
+    }
+
+    @Test
+    void testLocalCommit() {
+        registry.localCommit("local-commit", "commit-1");
+        assertTrue(registry.isLocalCommit("local-commit", "commit-1"));
+
+        // snapshot loads advance the head, but only commits made by infra-mgr are local
+        registry.compareAndUpdate("local-commit", null, "commit-2");
+        assertFalse(registry.isLocalCommit("local-commit", "commit-2"));
+        assertFalse(registry.isLocalCommit("other-branch", "commit-1"));
+    }
+
+    @Test
+    void testHeadIsFreshWithinMaxAge() {
+        registry.publish(Map.of("fresh-head", "commit-1"), 1_000);
+
+        assertEquals("commit-1", registry.getFreshCommitRef("fresh-head", 500, 1_500));
+        assertNull(registry.getFreshCommitRef("fresh-head", 500, 1_501));
+    }
+}
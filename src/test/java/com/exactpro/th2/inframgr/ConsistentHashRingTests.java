@@ -0,0 +1,61 @@
+/*
+ * Copyright 2023 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.inframgr;
+
+import com.exactpro.th2.inframgr.k8s.ConsistentHashRing;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConsistentHashRingTests {
+
+    private static final int SCHEMAS = 1000;
+
+    @Test
+    void testEmptyRing() {
+        assertNull(new ConsistentHashRing(List.of(), 64).ownerOf("schema"));
+    }
+
+    @Test
+    void testSchemasAreDistributed() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("replica-0", "replica-1", "replica-2"), 64);
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < SCHEMAS; i++) {
+            counts.merge(ring.ownerOf("schema" + i), 1, Integer::sum);
+        }
+        assertEquals(3, counts.size());
+        counts.values().forEach(count -> assertTrue(count > SCHEMAS / 6, "unbalanced distribution " + counts));
+    }
+
+    @Test
+    void testOnlySchemasOfJoinedReplicaAreMoved() {
+        ConsistentHashRing before = new ConsistentHashRing(List.of("replica-0", "replica-1"), 64);
+        ConsistentHashRing after = new ConsistentHashRing(List.of("replica-0", "replica-1", "replica-2"), 64);
+        for (int i = 0; i < SCHEMAS; i++) {
+            String owner = after.ownerOf("schema" + i);
+            if (!owner.equals("replica-2")) {
+                assertEquals(before.ownerOf("schema" + i), owner);
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2023 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exactpro.th2.inframgr;
+
+import com.exactpro.th2.inframgr.docker.monitoring.DynamicResourceProcessor;
+import com.exactpro.th2.inframgr.docker.monitoring.DynamicResourcesCache;
+import com.exactpro.th2.inframgr.k8s.CustomResourceApplier;
+import com.exactpro.th2.inframgr.k8s.CustomResourceOperation;
+import com.exactpro.th2.inframgr.k8s.Kubernetes;
+import com.exactpro.th2.infrarepo.ResourceType;
+import com.exactpro.th2.infrarepo.repo.RepositoryResource;
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.exactpro.th2.inframgr.docker.util.SpecUtils.IMAGE_NAME_ALIAS;
+import static com.exactpro.th2.inframgr.docker.util.SpecUtils.IMAGE_VERSION_ALIAS;
+import static com.exactpro.th2.inframgr.docker.util.SpecUtils.VERSION_RANGE_ALIAS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CustomResourceApplierTests {
+
+    private static final String SCHEMA = "applier-schema";
+
+    private static final String COMMIT = "0123456";
+
+    private Kubernetes kube;
+
+    @BeforeEach
+    void init() {
+        kube = mock(Kubernetes.class);
+        when(kube.getSchemaName()).thenReturn(SCHEMA);
+        when(kube.getNamespaceName()).thenReturn("th2-" + SCHEMA);
+        DynamicResourcesCache.INSTANCE.removeSchema(SCHEMA);
+    }
+
+    private static RepositoryResource box(String name) {
+        RepositoryResource resource = new RepositoryResource(null, ResourceType.Th2Box.kind(), null, null);
+        ObjectMeta meta = new ObjectMeta();
+        meta.setName(name);
+        resource.setMetadata(meta);
+        resource.setSpec(Map.of(
+                VERSION_RANGE_ALIAS, "1.+",
+                IMAGE_NAME_ALIAS, name + "-image",
+                IMAGE_VERSION_ALIAS, "1.2.3"
+        ));
+        resource.setSourceHash(name + "-hash");
+        return resource;
+    }
+
+    @Test
+    void testOperationsAreAppliedInOrder() throws Exception {
+        RepositoryResource codec = box("codec");
+        RepositoryResource act = box("act");
+        var delete = CustomResourceOperation.delete(ResourceType.Th2Box.kind(), "check1", "check1-hash");
+
+        int failures = new CustomResourceApplier(1).apply(kube, List.of(
+                CustomResourceOperation.create(codec),
+                CustomResourceOperation.replace(act, "act-old-hash"),
+                delete
+        ), COMMIT, () -> false);
+
+        assertEquals(0, failures);
+        InOrder order = inOrder(kube);
+        order.verify(kube).createCustomResource(codec);
+        order.verify(kube).replaceCustomResource(act);
+        order.verify(kube).deleteCustomResource(delete.getResource());
+    }
+
+    @Test
+    void testFailuresAreCounted() throws Exception {
+        RepositoryResource codec = box("codec");
+        RepositoryResource act = box("act");
+        doThrow(new IllegalStateException("rejected")).when(kube).createCustomResource(codec);
+
+        int failures = new CustomResourceApplier(1).apply(kube, List.of(
+                CustomResourceOperation.create(codec),
+                CustomResourceOperation.create(act)
+        ), COMMIT, () -> false);
+
+        assertEquals(1, failures);
+        verify(kube).createCustomResource(act);
+    }
+
+    @Test
+    void testSupersededSyncSkipsRemainingOperations() throws Exception {
+        AtomicInteger checks = new AtomicInteger();
+        List<CustomResourceOperation> operations = List.of(
+                CustomResourceOperation.create(box("codec")),
+                CustomResourceOperation.create(box("act")),
+                CustomResourceOperation.create(box("check1"))
+        );
+
+        // newer commit arrives after the first operation
+        int failures = new CustomResourceApplier(1).apply(kube, operations, COMMIT,
+                () -> checks.getAndIncrement() > 0);
+
+        assertEquals(2, failures);
+        verify(kube, times(1)).createCustomResource(any(RepositoryResource.class));
+    }
+
+    @Test
+    void testConcurrentApply() throws Exception {
+        List<CustomResourceOperation> operations = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            operations.add(CustomResourceOperation.create(box("box" + i)));
+        }
+
+        assertEquals(0, new CustomResourceApplier(4).apply(kube, operations, COMMIT, () -> false));
+        verify(kube, times(20)).createCustomResource(any(RepositoryResource.class));
+    }
+
+    @Test
+    void testDynamicResourceIsReleasedOnlyAfterDelete() throws Exception {
+        DynamicResourceProcessor.checkResource(box("codec"), SCHEMA);
+        var delete = CustomResourceOperation.delete(ResourceType.Th2Box.kind(), "codec", "codec-hash");
+        doThrow(new IllegalStateException("rejected")).doReturn(List.of())
+                .when(kube).deleteCustomResource(any(RepositoryResource.class));
+
+        assertEquals(1, new CustomResourceApplier(1).apply(kube, List.of(delete), COMMIT, () -> false));
+        assertEquals(1, DynamicResourcesCache.INSTANCE.getDynamicResourcesCopy(SCHEMA).size());
+
+        // deleted by the next synchronization
+        assertEquals(0, new CustomResourceApplier(1).apply(kube, List.of(delete), COMMIT, () -> false));
+        assertTrue(DynamicResourcesCache.INSTANCE.getDynamicResourcesCopy(SCHEMA).isEmpty());
+        verify(kube, never()).createCustomResource(any(RepositoryResource.class));
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2023 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exactpro.th2.inframgr;
+
+import com.exactpro.th2.inframgr.util.ETags;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ETagsTests {
+
+    private static final String ETAG = "\"9f2c1a7\"";
+
+    @Test
+    void testMissingHeader() {
+        assertFalse(ETags.isNotModified(null, ETAG));
+        assertFalse(ETags.isNotModified(" ", ETAG));
+    }
+
+    @Test
+    void testStrongAndWeakTags() {
+        assertTrue(ETags.isNotModified("\"9f2c1a7\"", ETAG));
+        assertTrue(ETags.isNotModified("W/\"9f2c1a7\"", ETAG));
+        assertFalse(ETags.isNotModified("\"9f2c1a8\"", ETAG));
+        assertFalse(ETags.isNotModified("W/\"9f2c1a\"", ETAG));
+    }
+
+    @Test
+    void testTagLists() {
+        assertTrue(ETags.isNotModified("\"a\", W/\"9f2c1a7\"", ETAG));
+        assertTrue(ETags.isNotModified("\"a,b\",\"9f2c1a7\"", ETAG));
+        assertFalse(ETags.isNotModified("\"a\", \"b\"", ETAG));
+        assertFalse(ETags.isNotModified("\"a,9f2c1a7\"", ETAG));
+    }
+
+    @Test
+    void testAnyTag() {
+        assertTrue(ETags.isNotModified("*", ETAG));
+        assertTrue(ETags.isNotModified(" * ", ETAG));
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2023 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exactpro.th2.inframgr;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GitWebhookControllerTests {
+
+    private static final String SECRET = "It's a Secret to Everybody";
+
+    private static final String BODY = "Hello, World!";
+
+    // example of GitHub documentation on validating webhook deliveries
+    private static final String SIGNATURE =
+            "sha256=757107ea0eb2509fc211221cce984b8a37570b6d7586c22c46f4379c8b043e17";
+
+    @Test
+    void testGithubSignature() {
+        assertTrue(GitWebhookController.isValidGithubSignature(SECRET, SIGNATURE, BODY));
+        assertFalse(GitWebhookController.isValidGithubSignature(SECRET, SIGNATURE, BODY + " "));
+        assertFalse(GitWebhookController.isValidGithubSignature("other secret", SIGNATURE, BODY));
+        assertFalse(GitWebhookController.isValidGithubSignature(SECRET, SIGNATURE.substring(7), BODY));
+        assertFalse(GitWebhookController.isValidGithubSignature(SECRET, "sha256=not-hex", BODY));
+        assertFalse(GitWebhookController.isValidGithubSignature(SECRET, null, BODY));
+    }
+
+    @Test
+    void testGitlabToken() {
+        assertTrue(GitWebhookController.isValidGitlabToken(SECRET, SECRET));
+        assertFalse(GitWebhookController.isValidGitlabToken(SECRET, SECRET.toUpperCase()));
+        assertFalse(GitWebhookController.isValidGitlabToken(SECRET, ""));
+        assertFalse(GitWebhookController.isValidGitlabToken(SECRET, null));
+    }
+}
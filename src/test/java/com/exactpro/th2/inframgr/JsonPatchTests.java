@@ -0,0 +1,55 @@
+/*
+ * Copyright 2023 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.inframgr;
+
+import com.exactpro.th2.inframgr.util.JsonPatch;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class JsonPatchTests {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private static String diff(String source, String target) throws Exception {
+        return JsonPatch.diff(mapper.readTree(source), mapper.readTree(target)).toString();
+    }
+
+    @Test
+    void testEqualDocuments() throws Exception {
+        assertEquals("[]", diff("{\"a\":[1,{\"b\":2}]}", "{\"a\":[1,{\"b\":2}]}"));
+    }
+
+    @Test
+    void testObjectFields() throws Exception {
+        assertEquals("[{\"op\":\"replace\",\"path\":\"/image-version\",\"value\":\"2.0\"},"
+                        + "{\"op\":\"remove\",\"path\":\"/extended-settings\"},"
+                        + "{\"op\":\"add\",\"path\":\"/custom~1config\",\"value\":{\"x\":1}}]",
+                diff("{\"image-version\":\"1.0\",\"extended-settings\":{}}",
+                        "{\"image-version\":\"2.0\",\"custom/config\":{\"x\":1}}"));
+    }
+
+    @Test
+    void testArrays() throws Exception {
+        assertEquals("[{\"op\":\"replace\",\"path\":\"/pins/1/name\",\"value\":\"out\"}]",
+                diff("{\"pins\":[{\"name\":\"in\"},{\"name\":\"in2\"}]}",
+                        "{\"pins\":[{\"name\":\"in\"},{\"name\":\"out\"}]}"));
+        assertEquals("[{\"op\":\"replace\",\"path\":\"/pins\",\"value\":[1]}]",
+                diff("{\"pins\":[1,2]}", "{\"pins\":[1]}"));
+    }
+}
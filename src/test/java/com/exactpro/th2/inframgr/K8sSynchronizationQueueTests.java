@@ -1,5 +1,5 @@
 /*
- * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
+ * Copyright 2020-2023 Exactpro (Exactpro Systems Limited)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,12 @@ package com.exactpro.th2.inframgr;
 import com.exactpro.th2.inframgr.k8s.K8sSynchronizationJobQueue;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class K8sSynchronizationQueueTests {
@@ -101,4 +107,120 @@ class K8sSynchronizationQueueTests {
         assertTrue(job7 == null);
 
     }
+
+    @Test
+    void testPriority() {
+        K8sSynchronizationJobQueue queue = new K8sSynchronizationJobQueue();
+
+        queue.addJob(new K8sSynchronizationJobQueue.Job("schema1", K8sSynchronizationJobQueue.Priority.LOW));
+        queue.addJob(new K8sSynchronizationJobQueue.Job("schema2", K8sSynchronizationJobQueue.Priority.NORMAL));
+        queue.addJob(new K8sSynchronizationJobQueue.Job("schema3", K8sSynchronizationJobQueue.Priority.LOW));
+        queue.addJob(new K8sSynchronizationJobQueue.Job("schema3", K8sSynchronizationJobQueue.Priority.HIGH));
+
+        K8sSynchronizationJobQueue.Job job1 = queue.takeJob();
+        assertTrue(job1.getSchema().equals("schema3"));
+
+        K8sSynchronizationJobQueue.Job job2 = queue.takeJob();
+        assertTrue(job2.getSchema().equals("schema2"));
+
+        K8sSynchronizationJobQueue.Job job3 = queue.takeJob();
+        assertTrue(job3.getSchema().equals("schema1"));
+    }
+
+    @Test
+    void testAging() throws InterruptedException {
+        K8sSynchronizationJobQueue queue = new K8sSynchronizationJobQueue(10);
+
+        queue.addJob(new K8sSynchronizationJobQueue.Job("schema1", K8sSynchronizationJobQueue.Priority.LOW));
+        Thread.sleep(50);
+        queue.addJob(new K8sSynchronizationJobQueue.Job("schema2", K8sSynchronizationJobQueue.Priority.HIGH));
+
+        K8sSynchronizationJobQueue.Job job1 = queue.takeJob();
+        assertTrue(job1.getSchema().equals("schema1"));
+    }
+
+    @Test
+    void testAwait() throws InterruptedException {
+        K8sSynchronizationJobQueue queue = new K8sSynchronizationJobQueue();
+
+        queue.addJob(new K8sSynchronizationJobQueue.Job("schema1"));
+        K8sSynchronizationJobQueue.Job job1 = queue.awaitJob();
+        queue.addJob(new K8sSynchronizationJobQueue.Job("schema1"));
+
+        Thread worker = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException ignored) {
+                return;
+            }
+            queue.completeJob(job1);
+        });
+        worker.start();
+
+        K8sSynchronizationJobQueue.Job job2 = queue.awaitJob();
+        assertTrue(job2.getSchema().equals("schema1"));
+        worker.join();
+    }
+
+    @Test
+    void testDebounce() throws InterruptedException {
+        K8sSynchronizationJobQueue queue = new K8sSynchronizationJobQueue(
+                K8sSynchronizationJobQueue.DEFAULT_AGING_INTERVAL_MS, 100, true);
+
+        queue.addJob(new K8sSynchronizationJobQueue.Job("schema1"));
+        assertTrue(queue.takeJob() == null);
+
+        K8sSynchronizationJobQueue.Job job1 = queue.awaitJob();
+        assertTrue(job1.getSchema().equals("schema1"));
+        assertTrue(!job1.isSuperseded());
+
+        queue.addJob(new K8sSynchronizationJobQueue.Job("schema1"));
+        assertTrue(job1.isSuperseded());
+        queue.completeJob(job1);
+
+        K8sSynchronizationJobQueue.Job job2 = queue.awaitJob();
+        assertTrue(job2.getSchema().equals("schema1"));
+    }
+
+    @Test
+    void testHighPriorityIsNotDebounced() {
+        K8sSynchronizationJobQueue queue = new K8sSynchronizationJobQueue(
+                K8sSynchronizationJobQueue.DEFAULT_AGING_INTERVAL_MS, 60_000, false);
+
+        queue.addJob(new K8sSynchronizationJobQueue.Job("schema1"));
+        assertTrue(queue.takeJob() == null);
+
+        queue.addJob(new K8sSynchronizationJobQueue.Job("schema2", K8sSynchronizationJobQueue.Priority.HIGH));
+        assertTrue(queue.takeJob().getSchema().equals("schema2"));
+
+        // user commit of the debounced schema makes it available immediately
+        queue.addJob(new K8sSynchronizationJobQueue.Job("schema1", K8sSynchronizationJobQueue.Priority.HIGH));
+        assertTrue(queue.takeJob().getSchema().equals("schema1"));
+    }
+
+    @Test
+    void testSourceChangesAreMerged() {
+        K8sSynchronizationJobQueue queue = new K8sSynchronizationJobQueue(
+                K8sSynchronizationJobQueue.DEFAULT_AGING_INTERVAL_MS, 0, true);
+
+        queue.addJob(K8sSynchronizationJobQueue.Job.sourceChange("schema1", "mq-router"));
+        queue.addJob(K8sSynchronizationJobQueue.Job.sourceChange("schema1", "book-config"));
+        K8sSynchronizationJobQueue.Job job1 = queue.takeJob();
+        assertFalse(job1.isSynchronize());
+        assertEquals(List.of("mq-router", "book-config"), List.copyOf(job1.getSourceChanges()));
+
+        // source change does not preempt synchronization in progress, it waits for it
+        queue.addJob(new K8sSynchronizationJobQueue.Job("schema2"));
+        K8sSynchronizationJobQueue.Job job2 = queue.takeJob();
+        queue.addJob(K8sSynchronizationJobQueue.Job.sourceChange("schema2", "mq-router"));
+        assertFalse(job2.isSuperseded());
+        assertNull(queue.takeJob());
+
+        queue.addJob(new K8sSynchronizationJobQueue.Job("schema2"));
+        assertTrue(job2.isSuperseded());
+        queue.completeJob(job2);
+        K8sSynchronizationJobQueue.Job job3 = queue.takeJob();
+        assertTrue(job3.isSynchronize());
+        assertEquals(Set.of("mq-router"), job3.getSourceChanges());
+    }
 }
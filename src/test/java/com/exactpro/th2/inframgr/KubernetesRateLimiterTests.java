@@ -0,0 +1,88 @@
+/*
+ * Copyright 2023 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exactpro.th2.inframgr;
+
+import com.exactpro.th2.inframgr.k8s.KubernetesRateLimiter;
+import com.exactpro.th2.inframgr.util.cfg.K8sRateLimitCfg;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.exactpro.th2.inframgr.k8s.KubernetesRateLimiter.Verb.READ;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class KubernetesRateLimiterTests {
+
+    private static final KubernetesRateLimiter limiter = KubernetesRateLimiter.INSTANCE;
+
+    private static final String NAMESPACE = "th2-schema";
+
+    private static final double DELTA = 1e-9;
+
+    @BeforeEach
+    void configure() {
+        K8sRateLimitCfg config = new K8sRateLimitCfg();
+        config.setEnabled(true);
+        config.setReadQps(40);
+        config.setNamespaceShare(0.5);
+        config.setMinQps(1);
+        limiter.configure(config);
+    }
+
+    @AfterEach
+    void reset() {
+        limiter.configure(new K8sRateLimitCfg());
+    }
+
+    private static long seconds(long start, long seconds) {
+        return start + TimeUnit.SECONDS.toNanos(seconds);
+    }
+
+    @Test
+    void testRateIsHalvedAndRestored() {
+        long start = System.nanoTime();
+        assertEquals(20, limiter.getRate(READ, NAMESPACE, start), DELTA);
+
+        limiter.throttled(READ, 1000, start);
+        assertEquals(20, limiter.getRate(READ, null, start), DELTA);
+        assertEquals(10, limiter.getRate(READ, NAMESPACE, start), DELTA);
+
+        // rate is kept while throttling is recent
+        assertEquals(10, limiter.getRate(READ, NAMESPACE, seconds(start, 5)), DELTA);
+
+        long recovered = seconds(start, 60);
+        assertEquals(40, limiter.getRate(READ, null, recovered), DELTA);
+        assertEquals(20, limiter.getRate(READ, NAMESPACE, recovered), DELTA);
+    }
+
+    @Test
+    void testRepeatedThrottlingDoesNotLowerMaximum() {
+        long start = System.nanoTime();
+        limiter.getRate(READ, NAMESPACE, start);
+        for (int i = 0; i < 10; i++) {
+            limiter.throttled(READ, 1000, start);
+        }
+        assertEquals(1, limiter.getRate(READ, NAMESPACE, start), DELTA);
+
+        long recovered = seconds(start, 120);
+        assertEquals(40, limiter.getRate(READ, null, recovered), DELTA);
+        assertEquals(20, limiter.getRate(READ, NAMESPACE, recovered), DELTA);
+    }
+}
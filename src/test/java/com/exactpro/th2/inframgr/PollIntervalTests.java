@@ -0,0 +1,73 @@
+/*
+ * Copyright 2023 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exactpro.th2.inframgr;
+
+import com.exactpro.th2.inframgr.repository.PollInterval;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PollIntervalTests {
+
+    private static final long BASE_MS = 14_000;
+
+    private static final long MAX_MS = 120_000;
+
+    @Test
+    void testWithoutWebhooks() {
+        PollInterval interval = new PollInterval(BASE_MS);
+        assertEquals(BASE_MS, interval.adapt(1_000_000, MAX_MS, false));
+        assertEquals(BASE_MS, interval.adapt(1_100_000, MAX_MS, false));
+    }
+
+    @Test
+    void testBackoffWhileWebhooksArrive() {
+        PollInterval interval = new PollInterval(BASE_MS);
+        long now = 1_000_000;
+        interval.webhookReceived(now);
+        assertEquals(28_000, interval.adapt(now, MAX_MS, false));
+        assertEquals(56_000, interval.adapt(now, MAX_MS, false));
+        assertEquals(112_000, interval.adapt(now, MAX_MS, false));
+        assertEquals(MAX_MS, interval.adapt(now, MAX_MS, false));
+        assertEquals(MAX_MS, interval.getIntervalMs());
+    }
+
+    @Test
+    void testResetOnMissedCommit() {
+        PollInterval interval = new PollInterval(BASE_MS);
+        long now = 1_000_000;
+        interval.webhookReceived(now);
+        interval.adapt(now, MAX_MS, false);
+        assertEquals(BASE_MS, interval.adapt(now, MAX_MS, true));
+    }
+
+    @Test
+    void testResetWhenWebhooksStop() {
+        PollInterval interval = new PollInterval(BASE_MS);
+        long now = 1_000_000;
+        interval.webhookReceived(now);
+        interval.adapt(now, MAX_MS, false);
+        assertEquals(BASE_MS, interval.adapt(now + MAX_MS, MAX_MS, false));
+    }
+
+    @Test
+    void testMaxIntervalBelowBase() {
+        PollInterval interval = new PollInterval(BASE_MS);
+        long now = 1_000_000;
+        interval.webhookReceived(now);
+        assertEquals(BASE_MS, interval.adapt(now, 10_000, false));
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2023 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.inframgr;
+
+import com.exactpro.th2.inframgr.repository.ResourceIndex;
+import com.exactpro.th2.infrarepo.repo.RepositoryResource;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ResourceIndexTests {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private static RepositoryResource resource(String kind, String name, String hash) {
+        ObjectMeta meta = new ObjectMeta();
+        meta.setName(name);
+        RepositoryResource resource = new RepositoryResource();
+        resource.setKind(kind);
+        resource.setMetadata(meta);
+        resource.setSpec(Map.of("image-name", name));
+        resource.setSourceHash(hash);
+        return resource;
+    }
+
+    @Test
+    void testResourcesAreIndexedByKindAndName() throws Exception {
+        ResourceIndex index = ResourceIndex.build("commit", List.of(
+                resource("Th2Box", "codec", "hash-1"),
+                resource("Th2Box", "act", "hash-2"),
+                resource("Th2Dictionary", "dictionary", "hash-3")
+        ), mapper);
+
+        assertEquals("commit", index.getCommitRef());
+        assertEquals("hash-1", index.get("Th2Box", "codec").sourceHash());
+        assertEquals("codec", mapper.readTree(index.get("Th2Box", "codec").body()).get("name").asText());
+        assertNull(index.get("Th2Box", "dictionary"));
+        assertNull(index.get("Th2Dictionary", "codec"));
+
+        JsonNode boxes = mapper.readTree(index.getKindBody("Th2Box"));
+        assertEquals(2, boxes.size());
+        assertEquals("act", boxes.get(0).get("name").asText());
+        assertEquals("codec", boxes.get(1).get("name").asText());
+        assertEquals(0, mapper.readTree(index.getKindBody("Th2CoreBox")).size());
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2023 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exactpro.th2.inframgr;
+
+import com.exactpro.th2.inframgr.models.ResourceEntry;
+import com.exactpro.th2.inframgr.repository.SchemaDiff;
+import com.exactpro.th2.infrarepo.repo.RepositoryResource;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SchemaDiffTests {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private static RepositoryResource resource(String kind, String name, String imageVersion, String hash) {
+        ObjectMeta meta = new ObjectMeta();
+        meta.setName(name);
+        RepositoryResource resource = new RepositoryResource();
+        resource.setKind(kind);
+        resource.setMetadata(meta);
+        resource.setSpec(Map.of("image-name", name, "image-version", imageVersion));
+        resource.setSourceHash(hash);
+        return resource;
+    }
+
+    @Test
+    void testAddedRemovedAndChangedResources() {
+        SchemaDiff diff = SchemaDiff.compute(
+                "commit-1",
+                List.of(
+                        resource("Th2Box", "codec", "1.0", "hash-1"),
+                        resource("Th2Box", "act", "1.0", "hash-2"),
+                        resource("Th2CoreBox", "estore", "1.0", "hash-3")
+                ),
+                "commit-2",
+                List.of(
+                        resource("Th2Box", "codec", "2.0", "hash-4"),
+                        resource("Th2CoreBox", "estore", "1.0", "hash-3"),
+                        resource("Th2Box", "check1", "1.0", "hash-5")
+                ),
+                mapper
+        );
+
+        assertEquals("commit-1", diff.getFromCommitRef());
+        assertEquals("commit-2", diff.getToCommitRef());
+        assertEquals(List.of("check1"), diff.getAdded().stream().map(ResourceEntry::getName).toList());
+        assertEquals(List.of("act"), diff.getRemoved().stream().map(ResourceEntry::getName).toList());
+
+        assertEquals(1, diff.getChanged().size());
+        SchemaDiff.ChangedResource changed = diff.getChanged().get(0);
+        assertEquals("Th2Box", changed.getKind());
+        assertEquals("codec", changed.getName());
+        assertEquals("hash-1", changed.getFromSourceHash());
+        assertEquals("hash-4", changed.getToSourceHash());
+        assertEquals("[{\"op\":\"replace\",\"path\":\"/image-version\",\"value\":\"2.0\"}]",
+                changed.getPatch().toString());
+    }
+
+    @Test
+    void testSameNameOfDifferentKinds() {
+        SchemaDiff diff = SchemaDiff.compute(
+                "commit-1",
+                List.of(resource("Th2Box", "codec", "1.0", "hash-1")),
+                "commit-2",
+                List.of(resource("Th2Dictionary", "codec", "1.0", "hash-1")),
+                mapper
+        );
+
+        assertEquals(1, diff.getAdded().size());
+        assertEquals(1, diff.getRemoved().size());
+        assertTrue(diff.getChanged().isEmpty());
+    }
+
+    @Test
+    void testEqualSpecsWithDifferentHashes() {
+        SchemaDiff diff = SchemaDiff.compute(
+                "commit-1",
+                List.of(resource("Th2Box", "codec", "1.0", null)),
+                "commit-2",
+                List.of(resource("Th2Box", "codec", "1.0", "hash-2")),
+                mapper
+        );
+
+        assertTrue(diff.getAdded().isEmpty());
+        assertTrue(diff.getRemoved().isEmpty());
+        assertTrue(diff.getChanged().isEmpty());
+    }
+
+    @Test
+    void testChangedSpecWithoutHashes() {
+        SchemaDiff diff = SchemaDiff.compute(
+                "commit-1",
+                List.of(resource("Th2Box", "codec", "1.0", null)),
+                "commit-2",
+                List.of(resource("Th2Box", "codec", "2.0", null)),
+                mapper
+        );
+
+        assertEquals(1, diff.getChanged().size());
+        assertEquals("codec", diff.getChanged().get(0).getName());
+    }
+
+    @Test
+    void testEqualCommits() {
+        List<RepositoryResource> resources = List.of(resource("Th2Box", "codec", "1.0", "hash-1"));
+        SchemaDiff diff = SchemaDiff.compute("commit-1", resources, "commit-1", resources, mapper);
+
+        assertTrue(diff.getAdded().isEmpty());
+        assertTrue(diff.getRemoved().isEmpty());
+        assertTrue(diff.getChanged().isEmpty());
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2023 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exactpro.th2.inframgr;
+
+import com.exactpro.th2.inframgr.models.RequestEntry;
+import com.exactpro.th2.inframgr.models.RequestOperation;
+import com.exactpro.th2.inframgr.models.ResourceEntry;
+import com.exactpro.th2.infrarepo.ResourceType;
+import com.exactpro.th2.validator.ValidationReport;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SchemaUpdateBatcherTests {
+
+    private static final String SCHEMA = "schema";
+
+    private static final long WINDOW_MS = 50;
+
+    private static final long TIMEOUT_SEC = 5;
+
+    private static RequestEntry update(String name) {
+        ResourceEntry payload = new ResourceEntry();
+        payload.setKind(ResourceType.Th2Box);
+        payload.setName(name);
+        return new RequestEntry(RequestOperation.update, payload);
+    }
+
+    private static SchemaUpdateBatcher.PendingUpdate pending(String... names) {
+        List<RequestEntry> operations = new ArrayList<>();
+        for (String name : names) {
+            operations.add(update(name));
+        }
+        return new SchemaUpdateBatcher.PendingUpdate(operations, new CompletableFuture<>());
+    }
+
+    private static List<String> namesOf(List<RequestEntry> operations) {
+        return operations.stream().map(entry -> entry.getPayload().getName()).toList();
+    }
+
+    /*
+        Records committed operations, group commit result and failing resources are configurable
+     */
+    private static class RecordingCommitter implements SchemaUpdateBatcher.Committer {
+
+        private final List<List<String>> groups = Collections.synchronizedList(new ArrayList<>());
+
+        private final List<List<String>> commits = Collections.synchronizedList(new ArrayList<>());
+
+        private final List<SchemaControllerResponse> groupResponses = Collections.synchronizedList(new ArrayList<>());
+
+        private boolean groupValid = true;
+
+        private boolean groupFails;
+
+        private boolean groupFailsAfterPush;
+
+        private String failingResource;
+
+        @Override
+        public List<SchemaControllerResponse> commitGroup(String schemaName, List<List<RequestEntry>> updates)
+                throws SchemaUpdateBatcher.GroupPushedException {
+            groups.add(namesOf(updates.stream().flatMap(List::stream).toList()));
+            if (groupFails) {
+                throw new IllegalStateException("push rejected");
+            }
+            if (groupFailsAfterPush) {
+                throw new SchemaUpdateBatcher.GroupPushedException("pushed",
+                        new IllegalStateException("snapshot is not available"));
+            }
+            if (!groupValid) {
+                return null;
+            }
+            for (int i = 0; i < updates.size(); i++) {
+                groupResponses.add(new SchemaControllerResponse((ValidationReport) null));
+            }
+            return groupResponses;
+        }
+
+        @Override
+        public SchemaControllerResponse commit(String schemaName, List<RequestEntry> operations) {
+            List<String> names = namesOf(operations);
+            commits.add(names);
+            if (names.contains(failingResource)) {
+                throw new IllegalStateException("push rejected");
+            }
+            return new SchemaControllerResponse((ValidationReport) null);
+        }
+    }
+
+    @Test
+    void testSplitWithoutConflicts() {
+        var first = pending("codec");
+        var second = pending("act", "check1");
+
+        assertEquals(List.of(List.of(first, second)), SchemaUpdateBatcher.split(List.of(first, second)));
+    }
+
+    @Test
+    void testSplitKeepsArrivalOrderOfResource() {
+        var first = pending("codec");
+        var second = pending("codec", "act");
+        var third = pending("act");
+        var fourth = pending("check1");
+
+        // third can not overtake second, which is deferred and changes the same resource
+        assertEquals(List.of(List.of(first, fourth), List.of(second), List.of(third)),
+                SchemaUpdateBatcher.split(List.of(first, second, third, fourth)));
+    }
+
+    @Test
+    void testRequestsWithinWindowAreCommittedTogether() throws Exception {
+        RecordingCommitter committer = new RecordingCommitter();
+        SchemaUpdateBatcher batcher = new SchemaUpdateBatcher(committer);
+
+        var first = batcher.submit(SCHEMA, List.of(update("codec")), WINDOW_MS);
+        var second = batcher.submit(SCHEMA, List.of(update("act")), WINDOW_MS);
+
+        // every request gets its own response
+        assertSame(committer.groupResponses.get(0), first.get(TIMEOUT_SEC, TimeUnit.SECONDS));
+        assertSame(committer.groupResponses.get(1), second.get(TIMEOUT_SEC, TimeUnit.SECONDS));
+        assertEquals(List.of(List.of("codec", "act")), committer.groups);
+        assertEquals(List.of(), committer.commits);
+    }
+
+    @Test
+    void testConflictingRequestsAreDeferred() throws Exception {
+        RecordingCommitter committer = new RecordingCommitter();
+        SchemaUpdateBatcher batcher = new SchemaUpdateBatcher(committer);
+
+        var first = batcher.submit(SCHEMA, List.of(update("codec")), WINDOW_MS);
+        var second = batcher.submit(SCHEMA, List.of(update("codec")), WINDOW_MS);
+
+        first.get(TIMEOUT_SEC, TimeUnit.SECONDS);
+        second.get(TIMEOUT_SEC, TimeUnit.SECONDS);
+        assertEquals(List.of(), committer.groups);
+        assertEquals(List.of(List.of("codec"), List.of("codec")), committer.commits);
+    }
+
+    @Test
+    void testInvalidGroupIsCommittedSeparately() throws Exception {
+        RecordingCommitter committer = new RecordingCommitter();
+        committer.groupValid = false;
+        SchemaUpdateBatcher batcher = new SchemaUpdateBatcher(committer);
+
+        var first = batcher.submit(SCHEMA, List.of(update("codec")), WINDOW_MS);
+        var second = batcher.submit(SCHEMA, List.of(update("act")), WINDOW_MS);
+
+        first.get(TIMEOUT_SEC, TimeUnit.SECONDS);
+        second.get(TIMEOUT_SEC, TimeUnit.SECONDS);
+        assertEquals(List.of(List.of("codec", "act")), committer.groups);
+        assertEquals(List.of(List.of("codec"), List.of("act")), committer.commits);
+    }
+
+    @Test
+    void testFailedGroupFallsBackToSeparateCommits() throws Exception {
+        RecordingCommitter committer = new RecordingCommitter();
+        committer.groupFails = true;
+        committer.failingResource = "act";
+        SchemaUpdateBatcher batcher = new SchemaUpdateBatcher(committer);
+
+        var first = batcher.submit(SCHEMA, List.of(update("codec")), WINDOW_MS);
+        var second = batcher.submit(SCHEMA, List.of(update("act")), WINDOW_MS);
+
+        // only the request which fails on its own is failed
+        first.get(TIMEOUT_SEC, TimeUnit.SECONDS);
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> second.get(TIMEOUT_SEC, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        assertEquals(List.of(List.of("codec", "act")), committer.groups);
+        assertEquals(List.of(List.of("codec"), List.of("act")), committer.commits);
+    }
+
+    @Test
+    void testPushedGroupIsNotCommittedAgain() {
+        RecordingCommitter committer = new RecordingCommitter();
+        committer.groupFailsAfterPush = true;
+        SchemaUpdateBatcher batcher = new SchemaUpdateBatcher(committer);
+
+        var first = batcher.submit(SCHEMA, List.of(update("codec")), WINDOW_MS);
+        var second = batcher.submit(SCHEMA, List.of(update("act")), WINDOW_MS);
+
+        for (var response : List.of(first, second)) {
+            ExecutionException e = assertThrows(ExecutionException.class,
+                    () -> response.get(TIMEOUT_SEC, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, e.getCause());
+        }
+        assertEquals(List.of(List.of("codec", "act")), committer.groups);
+        assertEquals(List.of(), committer.commits);
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2023 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.inframgr;
+
+import com.exactpro.th2.inframgr.util.SchemaValidationCache;
+import com.exactpro.th2.infrarepo.repo.RepositoryResource;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class SchemaValidationCacheTests {
+
+    private static RepositoryResource resource(String kind, String name, Map<String, Object> spec) {
+        RepositoryResource resource = new RepositoryResource();
+        resource.setKind(kind);
+        ObjectMeta meta = new ObjectMeta();
+        meta.setName(name);
+        meta.setAnnotations(new HashMap<>());
+        resource.setMetadata(meta);
+        resource.setSpec(spec);
+        return resource;
+    }
+
+    private static Map<String, Map<String, RepositoryResource>> repositoryMap(RepositoryResource... resources) {
+        Map<String, Map<String, RepositoryResource>> map = new LinkedHashMap<>();
+        for (RepositoryResource resource : resources) {
+            map.computeIfAbsent(resource.getKind(), k -> new LinkedHashMap<>())
+                    .put(resource.getMetadata().getName(), resource);
+        }
+        return map;
+    }
+
+    @Test
+    void testKeyIgnoresOrderAndAnnotations() throws JsonProcessingException {
+        Map<String, Object> spec1 = new LinkedHashMap<>();
+        spec1.put("image-name", "box");
+        spec1.put("image-version", "1.0");
+        Map<String, Object> spec2 = new LinkedHashMap<>();
+        spec2.put("image-version", "1.0");
+        spec2.put("image-name", "box");
+
+        RepositoryResource box1 = resource("Th2Box", "box1", spec1);
+        RepositoryResource box2 = resource("Th2Box", "box2", spec1);
+        var map1 = repositoryMap(box1, box2);
+
+        RepositoryResource stampedBox2 = resource("Th2Box", "box2", spec2);
+        stampedBox2.getMetadata().getAnnotations().put("th2.exactpro.com/commit-hash", "abc");
+        var map2 = repositoryMap(stampedBox2, resource("Th2Box", "box1", spec2));
+
+        assertEquals(SchemaValidationCache.contentKey("schema", null, map1),
+                SchemaValidationCache.contentKey("schema", null, map2));
+    }
+
+    @Test
+    void testKeyDependsOnSpec() throws JsonProcessingException {
+        Map<String, Object> spec1 = new LinkedHashMap<>();
+        spec1.put("image-version", "1.0");
+        Map<String, Object> spec2 = new LinkedHashMap<>();
+        spec2.put("image-version", "1.1");
+
+        var map1 = repositoryMap(resource("Th2Box", "box", spec1));
+        var map2 = repositoryMap(resource("Th2Box", "box", spec2));
+
+        assertNotEquals(SchemaValidationCache.contentKey("schema", null, map1),
+                SchemaValidationCache.contentKey("schema", null, map2));
+        assertNotEquals(SchemaValidationCache.contentKey("schema1", null, map1),
+                SchemaValidationCache.contentKey("schema2", null, map1));
+    }
+}
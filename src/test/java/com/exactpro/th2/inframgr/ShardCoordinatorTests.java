@@ -0,0 +1,168 @@
+/*
+ * Copyright 2023 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.inframgr;
+
+import com.exactpro.th2.inframgr.k8s.Kubernetes;
+import com.exactpro.th2.inframgr.k8s.ShardCoordinator;
+import com.exactpro.th2.inframgr.util.cfg.BehaviourCfg;
+import com.exactpro.th2.inframgr.util.cfg.K8sConfig;
+import com.exactpro.th2.inframgr.util.cfg.K8sShardingCfg;
+import io.fabric8.kubernetes.api.model.MicroTime;
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import io.fabric8.kubernetes.api.model.coordination.v1.Lease;
+import io.fabric8.kubernetes.api.model.coordination.v1.LeaseSpec;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.server.mock.EnableKubernetesMockClient;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@EnableKubernetesMockClient(crud = true)
+class ShardCoordinatorTests {
+
+    private static final String LEASE_PREFIX = "th2-infra-mgr";
+
+    private static final DateTimeFormatter MICRO_TIME_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSSSSXXX").withZone(ZoneOffset.UTC);
+
+    private static final List<String> SCHEMAS = IntStream.range(0, 100).mapToObj(i -> "schema-" + i).toList();
+
+    KubernetesClient client;
+
+    private Kubernetes kubernetes() {
+        K8sConfig config = new K8sConfig();
+        config.setUseCustomConfig(true);
+        config.setMasterURL(client.getMasterUrl().toString());
+        config.setDefaultNamespace(client.getNamespace());
+        config.setApiVersion("v1");
+        config.setIgnoreInsecureHosts(true);
+        return new Kubernetes(new BehaviourCfg(), config, null);
+    }
+
+    private ShardCoordinator start(String replicaId) {
+        K8sShardingCfg cfg = new K8sShardingCfg();
+        cfg.setEnabled(true);
+        cfg.setReplicaId(replicaId);
+        cfg.setLeasePrefix(LEASE_PREFIX);
+        // heartbeats are triggered by tests
+        cfg.setRenewIntervalSec(3600);
+        ShardCoordinator coordinator = new ShardCoordinator();
+        coordinator.start(cfg, kubernetes());
+        return coordinator;
+    }
+
+    private void createLease(String replicaId, Instant renewTime) {
+        LeaseSpec spec = new LeaseSpec();
+        spec.setHolderIdentity(replicaId);
+        spec.setLeaseDurationSeconds(15);
+        spec.setRenewTime(new MicroTime(MICRO_TIME_FORMAT.format(renewTime)));
+        Lease lease = new Lease();
+        lease.setMetadata(new ObjectMeta());
+        lease.getMetadata().setName(LEASE_PREFIX + "-" + replicaId);
+        lease.getMetadata().setLabels(Map.of(ShardCoordinator.SHARD_LABEL, LEASE_PREFIX));
+        lease.setSpec(spec);
+        client.resource(lease).create();
+    }
+
+    private Lease getLease(String replicaId) {
+        return client.resources(Lease.class).withName(LEASE_PREFIX + "-" + replicaId).get();
+    }
+
+    private static long ownedSchemas(ShardCoordinator coordinator) {
+        return SCHEMAS.stream().filter(coordinator::owns).count();
+    }
+
+    @Test
+    void testJoin() {
+        ShardCoordinator replicaA = start("replica-a");
+        assertNotNull(getLease("replica-a"));
+        assertEquals(Set.of("replica-a"), replicaA.getReplicas());
+        assertEquals(SCHEMAS.size(), ownedSchemas(replicaA));
+
+        AtomicInteger rebalances = new AtomicInteger();
+        replicaA.addRebalanceListener(ownedBefore -> {
+            assertTrue(SCHEMAS.stream().allMatch(ownedBefore));
+            rebalances.incrementAndGet();
+        });
+        ShardCoordinator replicaB = start("replica-b");
+        replicaA.heartbeat();
+
+        assertEquals(Set.of("replica-a", "replica-b"), replicaA.getReplicas());
+        assertEquals(Set.of("replica-a", "replica-b"), replicaB.getReplicas());
+        assertEquals(1, rebalances.get());
+        // every schema has exactly one owner
+        for (String schema : SCHEMAS) {
+            assertTrue(replicaA.owns(schema) ^ replicaB.owns(schema), schema);
+        }
+        assertTrue(ownedSchemas(replicaA) > 0);
+        assertTrue(ownedSchemas(replicaB) > 0);
+
+        // nothing changed, no rebalancing
+        replicaA.heartbeat();
+        assertEquals(1, rebalances.get());
+
+        replicaA.destroy();
+        replicaB.destroy();
+    }
+
+    @Test
+    void testLeave() {
+        ShardCoordinator replicaA = start("replica-a");
+        ShardCoordinator replicaB = start("replica-b");
+        replicaA.heartbeat();
+        assertEquals(Set.of("replica-a", "replica-b"), replicaA.getReplicas());
+
+        replicaB.destroy();
+        assertNull(getLease("replica-b"));
+
+        replicaA.heartbeat();
+        assertEquals(Set.of("replica-a"), replicaA.getReplicas());
+        assertEquals(SCHEMAS.size(), ownedSchemas(replicaA));
+
+        replicaA.destroy();
+    }
+
+    @Test
+    void testExpiry() {
+        createLease("replica-live", Instant.now());
+        createLease("replica-expired", Instant.now().minusSeconds(60));
+
+        ShardCoordinator replicaA = start("replica-a");
+        assertEquals(Set.of("replica-a", "replica-live"), replicaA.getReplicas());
+
+        // expired lease of a replica which had been a member
+        client.resources(Lease.class).withName(LEASE_PREFIX + "-replica-live").delete();
+        createLease("replica-live", Instant.now().minusSeconds(60));
+        replicaA.heartbeat();
+        assertEquals(Set.of("replica-a"), replicaA.getReplicas());
+        assertEquals(SCHEMAS.size(), ownedSchemas(replicaA));
+
+        replicaA.destroy();
+    }
+}
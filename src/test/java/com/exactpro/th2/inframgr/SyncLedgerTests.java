@@ -0,0 +1,122 @@
+/*
+ * Copyright 2023 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.inframgr;
+
+import com.exactpro.th2.inframgr.docker.monitoring.DynamicResource;
+import com.exactpro.th2.inframgr.docker.monitoring.DynamicResourcesCache;
+import com.exactpro.th2.inframgr.k8s.AppliedSchemaState;
+import com.exactpro.th2.inframgr.k8s.K8sResourceCache;
+import com.exactpro.th2.inframgr.k8s.K8sSynchronization;
+import com.exactpro.th2.inframgr.k8s.SyncLedger;
+import com.exactpro.th2.infrarepo.ResourceType;
+import com.exactpro.th2.infrarepo.repo.RepositoryResource;
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.exactpro.th2.inframgr.docker.util.SpecUtils.IMAGE_NAME_ALIAS;
+import static com.exactpro.th2.inframgr.docker.util.SpecUtils.IMAGE_VERSION_ALIAS;
+import static com.exactpro.th2.inframgr.docker.util.SpecUtils.VERSION_RANGE_ALIAS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SyncLedgerTests {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testLatestRecordWins() {
+        Path file = dir.resolve("ledger.jsonl");
+        SyncLedger ledger = new SyncLedger();
+        ledger.open(file);
+        ledger.recordApplied("schema1", "th2-schema1", "commit1", Map.of("Th2Box/box", "hash1"));
+        ledger.recordApplied("schema1", "th2-schema1", "commit2", Map.of("Th2Box/box", "hash2"));
+        ledger.recordApplied("schema2", "th2-schema2", "commit3", Map.of());
+        ledger.recordRemoved("schema2");
+
+        SyncLedger restarted = new SyncLedger();
+        restarted.open(file);
+        SyncLedger.Entry entry = restarted.takeStartupRecord("schema1");
+        assertEquals("commit2", entry.getCommitRef());
+        assertEquals("th2-schema1", entry.getNamespace());
+        assertEquals(Map.of("Th2Box/box", "hash2"), entry.getResourceHashes());
+        assertNull(restarted.takeStartupRecord("schema1"));
+        assertNull(restarted.takeStartupRecord("schema2"));
+    }
+
+    @Test
+    void testCorruptedRecordIsSkipped() throws IOException {
+        Path file = dir.resolve("ledger.jsonl");
+        SyncLedger ledger = new SyncLedger();
+        ledger.open(file);
+        ledger.recordApplied("schema1", "th2-schema1", "commit1", Map.of("Th2Box/box", "hash1"));
+        Files.writeString(file, "{\"schema\":\"schema1\",\"comm", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        SyncLedger restarted = new SyncLedger();
+        restarted.open(file);
+        assertEquals("commit1", restarted.takeStartupRecord("schema1").getCommitRef());
+    }
+
+    @Test
+    void testLedgerHitTracksRepositoryResources() {
+        Map<String, Map<String, RepositoryResource>> repositoryMap = new HashMap<>();
+        for (ResourceType type : ResourceType.values()) {
+            repositoryMap.put(type.kind(), new HashMap<>());
+        }
+        RepositoryResource box = new RepositoryResource(null, ResourceType.Th2Box.kind(), null, null);
+        ObjectMeta meta = new ObjectMeta();
+        meta.setName("codec");
+        box.setMetadata(meta);
+        box.setSpec(Map.of(
+                VERSION_RANGE_ALIAS, "1.+",
+                IMAGE_NAME_ALIAS, "codec-image",
+                IMAGE_VERSION_ALIAS, "1.2.3"
+        ));
+        box.setSourceHash("hash1");
+        repositoryMap.get(ResourceType.Th2Box.kind()).put("codec", box);
+        Map<String, String> hashes = AppliedSchemaState.hashesOf(repositoryMap);
+
+        Path file = dir.resolve("ledger.jsonl");
+        SyncLedger ledger = new SyncLedger();
+        ledger.open(file);
+        ledger.recordApplied("ledger-schema", "th2-ledger-schema", "commit1", hashes);
+
+        // unchanged schema after restart is not planned, its resources must still be tracked
+        SyncLedger restarted = new SyncLedger();
+        restarted.open(file);
+        assertEquals(hashes, restarted.takeStartupRecord("ledger-schema").getResourceHashes());
+        DynamicResourcesCache.INSTANCE.removeSchema("ledger-schema");
+        assertEquals(1, K8sSynchronization.trackRepositoryResources("ledger-schema", "th2-ledger-schema",
+                repositoryMap));
+
+        List<String> tracked = DynamicResourcesCache.INSTANCE.getDynamicResourcesCopy("ledger-schema").stream()
+                .map(DynamicResource::getName)
+                .toList();
+        assertEquals(List.of("codec"), tracked);
+        assertEquals("hash1", K8sResourceCache.INSTANCE.get("th2-ledger-schema", "Th2Box", "codec").getHash());
+    }
+}
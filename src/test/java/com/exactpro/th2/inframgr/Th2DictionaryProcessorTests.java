@@ -0,0 +1,144 @@
+/*
+ * Copyright 2023 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.inframgr;
+
+import com.exactpro.th2.inframgr.util.Th2DictionaryProcessor;
+import com.exactpro.th2.infrarepo.repo.RepositoryResource;
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/*
+    Compression of dictionaries with pooled buffers.
+    Compression throughput is a benchmark, it is excluded from the build and run by `gradle benchmark`
+ */
+class Th2DictionaryProcessorTests {
+
+    private static final Logger logger = LoggerFactory.getLogger(Th2DictionaryProcessorTests.class);
+
+    private static final int THREADS = 8;
+
+    private static final int BENCHMARK_DICTIONARIES = 400;
+
+    private static RepositoryResource dictionary(String data) {
+        RepositoryResource resource = new RepositoryResource();
+        resource.setKind("Th2Dictionary");
+        ObjectMeta meta = new ObjectMeta();
+        meta.setName("dictionary");
+        resource.setMetadata(meta);
+        Map<String, Object> spec = new HashMap<>();
+        spec.put("data", data);
+        resource.setSpec(spec);
+        return resource;
+    }
+
+    private static String dictionaryData(int fields) {
+        StringBuilder data = new StringBuilder();
+        for (int i = 0; i < fields; i++) {
+            data.append("<field name=\"field").append(i).append("\" number=\"").append(i).append("\"/>\n");
+        }
+        return data.toString();
+    }
+
+    private static long compressConcurrently(List<String> data) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            long start = System.nanoTime();
+            List<Future<RepositoryResource>> results = new ArrayList<>(data.size());
+            for (String value : data) {
+                results.add(executor.submit(() -> {
+                    RepositoryResource resource = dictionary(value);
+                    Th2DictionaryProcessor.compressData(resource);
+                    return resource;
+                }));
+            }
+            for (int i = 0; i < data.size(); i++) {
+                assertEquals(data.get(i), decode(results.get(i).get()));
+            }
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static String decode(RepositoryResource resource) throws IOException {
+        Map<String, Object> spec = (Map<String, Object>) resource.getSpec();
+        byte[] compressed = Base64.getDecoder().decode(spec.get("data").toString());
+        try (var gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    void testCompressionRoundTrip() throws IOException {
+        StringBuilder data = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            data.append("<field name=\"field").append(i).append("\" number=\"").append(i).append("\"/>\n");
+        }
+        data.append("non-ascii: ü ж");
+
+        RepositoryResource resource = dictionary(data.toString());
+        Th2DictionaryProcessor.compressData(resource);
+        assertEquals(true, ((Map<String, Object>) resource.getSpec()).get("compressed"));
+        assertEquals(data.toString(), decode(resource));
+
+        // pooled buffer is reused
+        RepositoryResource small = dictionary("small dictionary");
+        Th2DictionaryProcessor.compressData(small);
+        assertEquals("small dictionary", decode(small));
+    }
+
+    @Test
+    void testConcurrentCompression() throws Exception {
+        List<String> data = new ArrayList<>();
+        for (int i = 0; i < THREADS * 4; i++) {
+            // sizes on both sides of the retained buffer limit
+            data.add(dictionaryData(i % 2 == 0 ? 1_000 : 100_000) + i);
+        }
+        compressConcurrently(data);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void benchmarkCompression() throws Exception {
+        List<String> data = new ArrayList<>(BENCHMARK_DICTIONARIES);
+        for (int i = 0; i < BENCHMARK_DICTIONARIES; i++) {
+            data.add(dictionaryData(10_000 + i * 100));
+        }
+        compressConcurrently(data);
+        long elapsed = compressConcurrently(data);
+        logger.info("{} dictionaries compressed on {} threads: {} ms", BENCHMARK_DICTIONARIES, THREADS, elapsed);
+    }
+}